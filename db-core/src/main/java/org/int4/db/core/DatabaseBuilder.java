@@ -4,6 +4,7 @@ import java.sql.Connection;
 import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,18 +12,36 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.int4.db.core.api.AsyncDatabase;
 import org.int4.db.core.api.CheckedDatabase;
+import org.int4.db.core.api.CheckedParallelQuery;
 import org.int4.db.core.api.CheckedTransaction;
 import org.int4.db.core.api.Database;
 import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.DatabaseStatistics;
+import org.int4.db.core.api.ParallelQuery;
+import org.int4.db.core.api.PoolStatistics;
 import org.int4.db.core.api.RetryStrategy;
 import org.int4.db.core.api.Transaction;
 import org.int4.db.core.fluent.StatementNode;
 import org.int4.db.core.internal.BaseTransaction;
+import org.int4.db.core.internal.CacheCounters;
+import org.int4.db.core.internal.ConnectionPool;
+import org.int4.db.core.internal.GeneratedKeys;
+import org.int4.db.core.internal.PostgresCopy;
+import org.int4.db.core.internal.PostgresSnapshot;
 import org.int4.db.core.internal.SQLStatement;
 import org.int4.db.core.internal.SafeSQL;
+import org.int4.db.core.internal.StatementCache;
+import org.int4.db.core.internal.TemplateCache;
+import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
 import org.int4.db.core.reflect.TypeConverter;
+import org.int4.db.core.reflect.TypeConverterResolver;
+import org.int4.db.core.util.ThrowingFunction;
+import org.int4.db.core.util.ThrowingSupplier;
 
 /**
  * Builder for {@link Database} and {@link CheckedDatabase} instances.
@@ -42,16 +61,58 @@ public class DatabaseBuilder {
    * @throws NullPointerException when any argument is {@code null}
    */
   public static DatabaseBuilder using(Supplier<Connection> connectionSupplier) {
-    return new DatabaseBuilder(Objects.requireNonNull(connectionSupplier, "connectionSupplier"));
+    return new DatabaseBuilder(Objects.requireNonNull(connectionSupplier, "connectionSupplier"), 0);
+  }
+
+  /**
+   * Creates a new builder which pools the connections obtained from the given
+   * connection factory, using a built-in connection pool. The pool opens
+   * connections as they are needed, up to the given maximum, and keeps them
+   * open for reuse. Waiting for a connection does not pin the carrier thread
+   * of a virtual thread.
+   *
+   * <p>The pool validates a connection before handing it out only when it was
+   * idle for longer than the validation interval, and remembers the auto commit
+   * and read only state of each connection, so setting these to the value they
+   * already have costs no round trip. Statistics of the pool are available from
+   * {@link Database#statistics()}.
+   *
+   * <p>Each object produced by this builder gets a pool of its own, configured
+   * with the settings of this builder at the time it is produced. The pool is
+   * closed by closing the object it belongs to, see {@link Database#close()}.
+   *
+   * @param connectionFactory a supplier of new connections, cannot be {@code null}
+   * @param maximumPoolSize the maximum number of connections to keep open, must be positive
+   * @return a new builder, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when {@code maximumPoolSize} is not positive
+   * @see #withMaximumWait(Duration)
+   * @see #withValidationInterval(Duration)
+   */
+  public static DatabaseBuilder usingPool(Supplier<Connection> connectionFactory, int maximumPoolSize) {
+    if(maximumPoolSize <= 0) {
+      throw new IllegalArgumentException("maximumPoolSize must be positive: " + maximumPoolSize);
+    }
+
+    return new DatabaseBuilder(Objects.requireNonNull(connectionFactory, "connectionFactory"), maximumPoolSize);
   }
 
   private final Supplier<Connection> connectionSupplier;
+  private final int maximumPoolSize;  // 0 when not pooled
   private final Map<Class<?>, TypeConverter<?, ?>> typeConverters = new HashMap<>(STANDARD_TYPE_CONVERTERS);
 
   private RetryStrategy retryStrategy = RetryStrategy.NONE;
-
-  private DatabaseBuilder(Supplier<Connection> connectionSupplier) {
+  private int templateCacheSize = 1000;
+  private int statementCacheSize;
+  private int fetchSize;
+  private int maximumConcurrency = Integer.MAX_VALUE;
+  private boolean scopedTransactions;
+  private Duration maximumWait = Duration.ofSeconds(30);
+  private Duration validationInterval = Duration.ofSeconds(1);
+
+  private DatabaseBuilder(Supplier<Connection> connectionSupplier, int maximumPoolSize) {
     this.connectionSupplier = connectionSupplier;
+    this.maximumPoolSize = maximumPoolSize;
   }
 
   /**
@@ -67,9 +128,178 @@ public class DatabaseBuilder {
     return this;
   }
 
+  /**
+   * Sets the maximum number of distinct templates for which the generated
+   * SQL is cached. Templates are considered distinct when their fixed parts
+   * differ, or when the structure of their parameters differs (for example,
+   * a different {@link org.int4.db.core.reflect.Extractor} or a different
+   * record type). A size of zero disables caching. Defaults to 1000.
+   *
+   * @param maximumSize the maximum number of templates to cache, cannot be negative
+   * @return this
+   * @throws IllegalArgumentException when {@code maximumSize} is negative
+   */
+  public DatabaseBuilder withTemplateCacheSize(int maximumSize) {
+    if(maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+    }
+
+    this.templateCacheSize = maximumSize;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of prepared statements which are kept for reuse
+   * per connection. Statements are cached for the duration of a top level
+   * transaction, and are shared with its nested transactions. When the cache
+   * is full, the least recently used statement is closed. A size of zero
+   * disables caching. Defaults to 0.
+   *
+   * @param maximumSize the maximum number of statements to cache per connection, cannot be negative
+   * @return this
+   * @throws IllegalArgumentException when {@code maximumSize} is negative
+   */
+  public DatabaseBuilder withStatementCacheSize(int maximumSize) {
+    if(maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+    }
+
+    this.statementCacheSize = maximumSize;
+
+    return this;
+  }
+
+  /**
+   * Sets the number of rows the JDBC driver is asked to fetch at a time when
+   * reading query results. Without a fetch size, some drivers (like the
+   * PostgreSQL driver) read the entire result into memory before the first
+   * row is returned. The default can be overridden per statement. A value of
+   * zero lets the driver decide. Defaults to 0.
+   *
+   * @param rows the number of rows to fetch at a time, cannot be negative
+   * @return this
+   * @throws IllegalArgumentException when {@code rows} is negative
+   */
+  public DatabaseBuilder withFetchSize(int rows) {
+    if(rows < 0) {
+      throw new IllegalArgumentException("rows cannot be negative: " + rows);
+    }
+
+    this.fetchSize = rows;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of operations an {@link AsyncDatabase} produced by
+   * this builder runs at the same time. Further operations wait until a running
+   * operation completes. As each running operation holds a connection, this is
+   * usually set to at most the number of connections the connection supplier
+   * can provide. Defaults to no limit.
+   *
+   * @param maximumConcurrency the maximum number of concurrent operations, must be positive
+   * @return this
+   * @throws IllegalArgumentException when {@code maximumConcurrency} is not positive
+   */
+  public DatabaseBuilder withMaximumConcurrency(int maximumConcurrency) {
+    if(maximumConcurrency <= 0) {
+      throw new IllegalArgumentException("maximumConcurrency must be positive: " + maximumConcurrency);
+    }
+
+    this.maximumConcurrency = maximumConcurrency;
+
+    return this;
+  }
+
+  /**
+   * Sets the maximum time to wait for a connection from the built-in
+   * connection pool. When no connection becomes available in time, starting
+   * the transaction fails with a database exception wrapping an {@link java.sql.SQLTransientConnectionException}.
+   * Defaults to 30 seconds.
+   *
+   * @param maximumWait the maximum time to wait, cannot be {@code null} or negative
+   * @return this
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when {@code maximumWait} is negative
+   * @throws IllegalStateException when this builder does not use the built-in connection pool
+   */
+  public DatabaseBuilder withMaximumWait(Duration maximumWait) {
+    if(Objects.requireNonNull(maximumWait, "maximumWait").isNegative()) {
+      throw new IllegalArgumentException("maximumWait cannot be negative: " + maximumWait);
+    }
+
+    ensurePooled();
+
+    this.maximumWait = maximumWait;
+
+    return this;
+  }
+
+  /**
+   * Sets the time a connection of the built-in connection pool can be idle
+   * before it is validated again before use. Connections which were used
+   * more recently are handed out without validation. Defaults to 1 second.
+   *
+   * @param validationInterval the idle time after which connections are validated, cannot be {@code null} or negative
+   * @return this
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when {@code validationInterval} is negative
+   * @throws IllegalStateException when this builder does not use the built-in connection pool
+   */
+  public DatabaseBuilder withValidationInterval(Duration validationInterval) {
+    if(Objects.requireNonNull(validationInterval, "validationInterval").isNegative()) {
+      throw new IllegalArgumentException("validationInterval cannot be negative: " + validationInterval);
+    }
+
+    ensurePooled();
+
+    this.validationInterval = validationInterval;
+
+    return this;
+  }
+
+  private void ensurePooled() {
+    if(maximumPoolSize == 0) {
+      throw new IllegalStateException("Only applicable to builders created with usingPool");
+    }
+  }
+
+  /**
+   * Sets whether the objects produced by this builder track the current
+   * transaction with a {@link ScopedValue} instead of a {@link ThreadLocal}.
+   *
+   * <p>When enabled, a transaction started by one of the callback style methods,
+   * like {@link Database#apply(ThrowingFunction, boolean)} or {@link Database#query(ThrowingFunction)},
+   * is the current transaction only while its callback runs. Transactions started
+   * within the callback are nested in it, and no per-thread state is left behind
+   * once the callback ends. Transactions started directly with {@code beginTransaction}
+   * outside of a callback are always top level transactions in this mode.
+   *
+   * <p>Transactions can only be nested by the thread which started the outer
+   * transaction. Child tasks of a {@link java.util.concurrent.StructuredTaskScope}
+   * the callback opens see its transaction as current, and so fail to start
+   * transactions of their own; use {@link Database#queryInParallel(ThrowingFunction)}
+   * to run reads concurrently instead. Note that transactions are not thread safe;
+   * child tasks sharing a transaction must not use it concurrently.
+   *
+   * <p>When disabled, which is the default, each transaction is the current
+   * transaction of the thread that started it until it ends.
+   *
+   * @param scopedTransactions whether to track the current transaction with a {@link ScopedValue}
+   * @return this
+   */
+  public DatabaseBuilder withScopedTransactions(boolean scopedTransactions) {
+    this.scopedTransactions = scopedTransactions;
+
+    return this;
+  }
+
   /**
    * Adds a {@link TypeConverter} to this builder, replacing any existing converter.
    * Adding {@code null} will remove a previously added converter or a standard converter.
+   * The converter also applies to subtypes of the given type which have no converter
+   * of their own, see {@link TypeConverterResolver}.
    *
    * @param <V> the Java type the converter supports
    * @param cls the Java type, cannot be {@code null}
@@ -94,35 +324,70 @@ public class DatabaseBuilder {
    * Builds a {@link Database} instance using this builder's configuration.
    *
    * <p>All operations on this instance will throw the unchecked
-   * {@link DatabaseException} when a database error occurs.
+   * {@link DatabaseException} when a database error occurs. When this builder
+   * uses the built-in connection pool, the instance gets a pool of its own,
+   * which is closed when the instance is closed.
    *
    * @return a {@link Database} instance, never {@code null}
    */
   public Database build() {
-    return new DefaultDatabase(connectionSupplier, retryStrategy, typeConverters);
+    return new DefaultDatabase(connectionSupplier, createConnectionPool(), retryStrategy, TypeConverterResolver.of(typeConverters), new TemplateCache(templateCacheSize), statementCacheSize, fetchSize, scopedTransactions);
   }
 
   /**
    * Builds a {@link CheckedDatabase} instance using this builder's configuration.
    *
    * <p>All operations on this instance will throw the checked
-   * {@link java.sql.SQLException} when a database error occurs.
+   * {@link java.sql.SQLException} when a database error occurs. When this
+   * builder uses the built-in connection pool, the instance gets a pool of its
+   * own, which is closed when the instance is closed.
    *
    * @return a {@link CheckedDatabase} instance, never {@code null}
    */
   public CheckedDatabase throwingSQLExceptions() {
-    return new DefaultCheckedDatabase(connectionSupplier, retryStrategy, typeConverters);
+    return new DefaultCheckedDatabase(connectionSupplier, createConnectionPool(), retryStrategy, TypeConverterResolver.of(typeConverters), new TemplateCache(templateCacheSize), statementCacheSize, fetchSize, scopedTransactions);
+  }
+
+  /**
+   * Builds an {@link AsyncDatabase} instance using this builder's configuration.
+   * Its operations run on virtual threads against a {@link Database} as built
+   * by {@link #build()}.
+   *
+   * <p>The returned futures complete exceptionally with the unchecked
+   * {@link DatabaseException} when a database error occurs.
+   *
+   * @return an {@link AsyncDatabase} instance, never {@code null}
+   */
+  public AsyncDatabase buildAsync() {
+    return new DefaultAsyncDatabase(build(), maximumConcurrency);
+  }
+
+  private ConnectionPool createConnectionPool() {
+    return maximumPoolSize == 0 ? null : new ConnectionPool(connectionSupplier, maximumPoolSize, maximumWait, validationInterval);
   }
 
   private static class DefaultDatabase implements Database {
-    private final Supplier<Connection> connectionSupplier;
+    private final ThrowingSupplier<Connection, SQLException> connectionSupplier;
+    private final ConnectionPool connectionPool;  // null when not pooled
     private final RetryStrategy retryStrategy;
-    private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
-
-    DefaultDatabase(Supplier<Connection> connectionSupplier, RetryStrategy retryStrategy, Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
-      this.connectionSupplier = connectionSupplier;
+    private final TypeConverterResolver typeConverters;
+    private final TemplateCache templateCache;
+    private final int statementCacheSize;
+    private final int fetchSize;
+    private final boolean scopedTransactions;
+    private final CacheCounters statementCacheCounters = new CacheCounters();
+    private final PostgresCopy postgresCopy;
+
+    DefaultDatabase(Supplier<Connection> connectionSupplier, ConnectionPool connectionPool, RetryStrategy retryStrategy, TypeConverterResolver typeConverters, TemplateCache templateCache, int statementCacheSize, int fetchSize, boolean scopedTransactions) {
+      this.connectionSupplier = connectionPool == null ? connectionSupplier::get : connectionPool::acquire;
+      this.connectionPool = connectionPool;
       this.retryStrategy = retryStrategy;
-      this.typeConverters = Map.copyOf(typeConverters);
+      this.typeConverters = typeConverters;
+      this.postgresCopy = new PostgresCopy(typeConverters);
+      this.templateCache = templateCache;
+      this.statementCacheSize = statementCacheSize;
+      this.fetchSize = fetchSize;
+      this.scopedTransactions = scopedTransactions;
     }
 
     @Override
@@ -130,11 +395,48 @@ public class DatabaseBuilder {
       return new InternalTransaction(readOnly);
     }
 
+    @Override
+    public <R> R apply(ThrowingFunction<Transaction, R, DatabaseException> operation, boolean readOnly) throws DatabaseException {
+      Objects.requireNonNull(operation, "operation");
+
+      return Database.super.apply(scopedTransactions ? tx -> ((InternalTransaction)tx).callInScope(() -> operation.apply(tx)) : operation, readOnly);
+    }
+
+    @Override
+    public <R> R queryInParallel(ThrowingFunction<ParallelQuery, R, DatabaseException> operation, boolean sharedSnapshot) throws DatabaseException {
+      Objects.requireNonNull(operation, "operation");
+
+      if(!sharedSnapshot) {
+        return DefaultParallelQuery.run(this, tx -> {}, operation);
+      }
+
+      try(InternalTransaction tx = new InternalTransaction(true, true)) {  // exports the snapshot, and keeps it valid until all operations completed, without becoming the current transaction
+        String snapshotId = tx.exportSnapshot();
+        R result = DefaultParallelQuery.run(this, forkedTx -> ((InternalTransaction)forkedTx).useSnapshot(snapshotId), operation);
+
+        tx.commit();
+
+        return result;
+      }
+    }
+
     @Override
     public RetryStrategy retryStrategy() {
       return retryStrategy;
     }
 
+    @Override
+    public DatabaseStatistics statistics() {
+      return new DatabaseStatistics(templateCache.statistics(), statementCacheCounters.snapshot(), connectionPool == null ? PoolStatistics.EMPTY : connectionPool.statistics());
+    }
+
+    @Override
+    public void close() {
+      if(connectionPool != null) {
+        connectionPool.close();
+      }
+    }
+
     @Override
     public SQLException unwrap(DatabaseException exception) {
       return exception.getSQLException();
@@ -148,23 +450,59 @@ public class DatabaseBuilder {
     private class InternalTransaction extends BaseTransaction<DatabaseException> implements Transaction {
 
       InternalTransaction(boolean readOnly) {
-        super(connectionSupplier, readOnly, (tx, msg, cause) -> new DatabaseException(tx + ": " + msg, cause));
+        this(readOnly, false);
+      }
+
+      InternalTransaction(boolean readOnly, boolean detached) {
+        super(connectionSupplier, readOnly, scopedTransactions, detached, c -> new StatementCache(c, statementCacheSize, statementCacheCounters), (tx, msg, cause) -> new DatabaseException(tx + ": " + msg, cause));
       }
 
       @Override
       public StatementNode<DatabaseException> process(StringTemplate stringTemplate) throws DatabaseException {
-        SafeSQL sql = new SafeSQL(stringTemplate, typeConverters);
+        SafeSQL sql = new SafeSQL(stringTemplate, typeConverters, templateCache);
 
         return new StatementNode<>(new DefaultContext<>(
-            () -> createSQLStatement(this, sql),
-            (message, cause) -> new DatabaseException(this + ": " + message, cause)
+            this,
+            (generatedKeys, fetchSize) -> createSQLStatement(this, sql, generatedKeys, fetchSize),
+            (message, cause) -> new DatabaseException(this + ": " + message, cause),
+            fetchSize
         ));
       }
 
+      @Override
+      public <T> long copyIn(Identifier table, Extractor<T> extractor, Stream<T> rows) throws DatabaseException {
+        Objects.requireNonNull(rows, "rows");
+
+        try {
+          return postgresCopy.copyIn(getConnection(), table, extractor, rows.iterator());
+        }
+        catch(SQLException e) {
+          throw new DatabaseException(this + ": copy failed for: " + table.getIdentifier(), e);
+        }
+      }
+
+      String exportSnapshot() throws DatabaseException {
+        try {
+          return PostgresSnapshot.export(getConnection());
+        }
+        catch(SQLException e) {
+          throw new DatabaseException(this + ": exporting snapshot failed", e);
+        }
+      }
+
+      void useSnapshot(String snapshotId) throws DatabaseException {
+        try {
+          PostgresSnapshot.use(getConnection(), snapshotId);
+        }
+        catch(SQLException e) {
+          throw new DatabaseException(this + ": importing snapshot failed: " + snapshotId, e);
+        }
+      }
+
       @SuppressWarnings("resource")
-      private static SQLStatement createSQLStatement(BaseTransaction<DatabaseException> tx, SafeSQL sql) {
+      private static SQLStatement createSQLStatement(BaseTransaction<DatabaseException> tx, SafeSQL sql, GeneratedKeys generatedKeys, int fetchSize) {
         try {
-          return sql.toSQLStatement(tx.getConnection());
+          return sql.toSQLStatement(tx.getStatementCache(), generatedKeys, fetchSize);
         }
         catch(SQLException e) {
           throw new DatabaseException(tx + ": creating statement failed for: " + sql, e);
@@ -174,14 +512,27 @@ public class DatabaseBuilder {
   }
 
   private static class DefaultCheckedDatabase implements CheckedDatabase {
-    private final Supplier<Connection> connectionSupplier;
+    private final ThrowingSupplier<Connection, SQLException> connectionSupplier;
+    private final ConnectionPool connectionPool;  // null when not pooled
     private final RetryStrategy retryStrategy;
-    private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
-
-    DefaultCheckedDatabase(Supplier<Connection> connectionSupplier, RetryStrategy retryStrategy, Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
-      this.connectionSupplier = connectionSupplier;
+    private final TypeConverterResolver typeConverters;
+    private final TemplateCache templateCache;
+    private final int statementCacheSize;
+    private final int fetchSize;
+    private final boolean scopedTransactions;
+    private final CacheCounters statementCacheCounters = new CacheCounters();
+    private final PostgresCopy postgresCopy;
+
+    DefaultCheckedDatabase(Supplier<Connection> connectionSupplier, ConnectionPool connectionPool, RetryStrategy retryStrategy, TypeConverterResolver typeConverters, TemplateCache templateCache, int statementCacheSize, int fetchSize, boolean scopedTransactions) {
+      this.connectionSupplier = connectionPool == null ? connectionSupplier::get : connectionPool::acquire;
+      this.connectionPool = connectionPool;
       this.retryStrategy = retryStrategy;
-      this.typeConverters = Map.copyOf(typeConverters);
+      this.typeConverters = typeConverters;
+      this.postgresCopy = new PostgresCopy(typeConverters);
+      this.templateCache = templateCache;
+      this.statementCacheSize = statementCacheSize;
+      this.fetchSize = fetchSize;
+      this.scopedTransactions = scopedTransactions;
     }
 
     @Override
@@ -189,11 +540,48 @@ public class DatabaseBuilder {
       return new InternalTransaction(readOnly);
     }
 
+    @Override
+    public <R> R apply(ThrowingFunction<CheckedTransaction, R, SQLException> operation, boolean readOnly) throws SQLException {
+      Objects.requireNonNull(operation, "operation");
+
+      return CheckedDatabase.super.apply(scopedTransactions ? tx -> ((InternalTransaction)tx).callInScope(() -> operation.apply(tx)) : operation, readOnly);
+    }
+
+    @Override
+    public <R> R queryInParallel(ThrowingFunction<CheckedParallelQuery, R, SQLException> operation, boolean sharedSnapshot) throws SQLException {
+      Objects.requireNonNull(operation, "operation");
+
+      if(!sharedSnapshot) {
+        return DefaultParallelQuery.run(this, tx -> {}, operation);
+      }
+
+      try(InternalTransaction tx = new InternalTransaction(true, true)) {  // exports the snapshot, and keeps it valid until all operations completed, without becoming the current transaction
+        String snapshotId = tx.exportSnapshot();
+        R result = DefaultParallelQuery.run(this, forkedTx -> ((InternalTransaction)forkedTx).useSnapshot(snapshotId), operation);
+
+        tx.commit();
+
+        return result;
+      }
+    }
+
     @Override
     public RetryStrategy retryStrategy() {
       return retryStrategy;
     }
 
+    @Override
+    public DatabaseStatistics statistics() {
+      return new DatabaseStatistics(templateCache.statistics(), statementCacheCounters.snapshot(), connectionPool == null ? PoolStatistics.EMPTY : connectionPool.statistics());
+    }
+
+    @Override
+    public void close() {
+      if(connectionPool != null) {
+        connectionPool.close();
+      }
+    }
+
     @Override
     public SQLException unwrap(SQLException exception) {
       return exception instanceof SQLExceptionWrapper w ? w.getSQLException() : exception;
@@ -217,23 +605,59 @@ public class DatabaseBuilder {
     private class InternalTransaction extends BaseTransaction<SQLException> implements CheckedTransaction {
 
       InternalTransaction(boolean readOnly) {
-        super(connectionSupplier, readOnly, (tx, msg, cause) -> new SQLException(tx + ": " + msg, cause));
+        this(readOnly, false);
+      }
+
+      InternalTransaction(boolean readOnly, boolean detached) {
+        super(connectionSupplier, readOnly, scopedTransactions, detached, c -> new StatementCache(c, statementCacheSize, statementCacheCounters), (tx, msg, cause) -> new SQLException(tx + ": " + msg, cause));
       }
 
       @Override
       public StatementNode<SQLException> process(StringTemplate stringTemplate) throws DatabaseException {
-        SafeSQL sql = new SafeSQL(stringTemplate, typeConverters);
+        SafeSQL sql = new SafeSQL(stringTemplate, typeConverters, templateCache);
 
         return new StatementNode<>(new DefaultContext<>(
-            () -> createSQLStatement(sql),
-            (message, cause) -> new SQLExceptionWrapper(this + ": " + message, cause)
+            this,
+            (generatedKeys, fetchSize) -> createSQLStatement(sql, generatedKeys, fetchSize),
+            (message, cause) -> new SQLExceptionWrapper(this + ": " + message, cause),
+            fetchSize
         ));
       }
 
+      @Override
+      public <T> long copyIn(Identifier table, Extractor<T> extractor, Stream<T> rows) throws SQLException {
+        Objects.requireNonNull(rows, "rows");
+
+        try {
+          return postgresCopy.copyIn(getConnection(), table, extractor, rows.iterator());
+        }
+        catch(SQLException e) {
+          throw new SQLExceptionWrapper(this + ": copy failed for: " + table.getIdentifier(), e);
+        }
+      }
+
+      String exportSnapshot() throws SQLException {
+        try {
+          return PostgresSnapshot.export(getConnection());
+        }
+        catch(SQLException e) {
+          throw new SQLExceptionWrapper(this + ": exporting snapshot failed", e);
+        }
+      }
+
+      void useSnapshot(String snapshotId) throws SQLException {
+        try {
+          PostgresSnapshot.use(getConnection(), snapshotId);
+        }
+        catch(SQLException e) {
+          throw new SQLExceptionWrapper(this + ": importing snapshot failed: " + snapshotId, e);
+        }
+      }
+
       @SuppressWarnings("resource")
-      private SQLStatement createSQLStatement(SafeSQL sql) throws SQLException {
+      private SQLStatement createSQLStatement(SafeSQL sql, GeneratedKeys generatedKeys, int fetchSize) throws SQLException {
         try {
-          return sql.toSQLStatement(getConnection());
+          return sql.toSQLStatement(getStatementCache(), generatedKeys, fetchSize);
         }
         catch(SQLException e) {
           throw new SQLExceptionWrapper(this + ": creating statement failed for: " + sql, e);
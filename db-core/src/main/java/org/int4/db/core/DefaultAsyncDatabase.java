@@ -0,0 +1,107 @@
+package org.int4.db.core;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import org.int4.db.core.api.AsyncDatabase;
+import org.int4.db.core.api.Database;
+import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.Transaction;
+import org.int4.db.core.internal.BaseTransaction;
+import org.int4.db.core.util.ThrowingFunction;
+
+/**
+ * Runs each operation on a new virtual thread, using {@link Database#apply(ThrowingFunction, boolean)}
+ * so the retry strategy of the database applies unchanged. The concurrency
+ * limit is enforced by the virtual threads themselves, which wait for a permit
+ * before starting their operation; waiting does not block a platform thread.
+ */
+class DefaultAsyncDatabase implements AsyncDatabase {
+  private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("db-async-", 0).factory();
+
+  private final Database database;
+  private final Semaphore permits;
+
+  DefaultAsyncDatabase(Database database, int maximumConcurrency) {
+    this.database = Objects.requireNonNull(database, "database");
+    this.permits = new Semaphore(maximumConcurrency, true);
+  }
+
+  @Override
+  public <R> CompletableFuture<R> apply(ThrowingFunction<Transaction, R, DatabaseException> operation, boolean readOnly) {
+    Objects.requireNonNull(operation, "operation");
+
+    Operation<R> future = new Operation<>(operation, readOnly);
+
+    THREAD_FACTORY.newThread(future::run).start();
+
+    return future;
+  }
+
+  @Override
+  public Database database() {
+    return database;
+  }
+
+  /*
+   * A future which runs its operation when started, and cancels the transaction
+   * of the attempt in progress when it is cancelled. A cancelled operation is
+   * never retried, as each attempt first checks whether the future was cancelled.
+   */
+
+  private class Operation<R> extends CompletableFuture<R> {
+    private final ThrowingFunction<Transaction, R, DatabaseException> operation;
+    private final boolean readOnly;
+
+    private volatile BaseTransaction<?> transaction;  // transaction of the attempt in progress, if any
+
+    Operation(ThrowingFunction<Transaction, R, DatabaseException> operation, boolean readOnly) {
+      this.operation = operation;
+      this.readOnly = readOnly;
+    }
+
+    void run() {
+      permits.acquireUninterruptibly();
+
+      try {
+        if(!isDone()) {
+          complete(database.apply(this::attempt, readOnly));
+        }
+      }
+      catch(Throwable t) {
+        completeExceptionally(t);
+      }
+      finally {
+        transaction = null;
+        permits.release();
+      }
+    }
+
+    private R attempt(Transaction tx) throws DatabaseException {
+      if(tx instanceof BaseTransaction<?> bt) {
+        transaction = bt;
+      }
+
+      if(isCancelled()) {  // checked after publishing the transaction, so a concurrent cancel either sees it or is seen here
+        throw new CancellationException();
+      }
+
+      return operation.apply(tx);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      BaseTransaction<?> transaction = this.transaction;
+
+      if(cancelled && transaction != null) {
+        transaction.cancel();
+      }
+
+      return cancelled;
+    }
+  }
+}
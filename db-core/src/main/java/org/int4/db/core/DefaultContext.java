@@ -2,35 +2,65 @@ package org.int4.db.core;
 
 import java.sql.SQLException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.int4.db.core.internal.BaseTransaction;
+import org.int4.db.core.internal.GeneratedKeys;
 import org.int4.db.core.internal.SQLStatement;
 import org.int4.db.core.internal.bridge.Context;
 import org.int4.db.core.internal.bridge.SQLResult;
 import org.int4.db.core.reflect.Row;
 import org.int4.db.core.reflect.RowAccessException;
-import org.int4.db.core.util.ThrowingSupplier;
 
 class DefaultContext<X extends Exception> implements Context<X> {
-  private final ThrowingSupplier<SQLStatement, X> preparedStatementSupplier;
+  private final BaseTransaction<X> transaction;
+  private final StatementFactory<X> statementFactory;
   private final BiFunction<String, SQLException, X> exceptionWrapper;
+  private final GeneratedKeys generatedKeys;
+  private final int fetchSize;
 
-  DefaultContext(ThrowingSupplier<SQLStatement, X> preparedStatementSupplier, BiFunction<String, SQLException, X> exceptionWrapper) {
-    this.preparedStatementSupplier = preparedStatementSupplier;
+  DefaultContext(BaseTransaction<X> transaction, StatementFactory<X> statementFactory, BiFunction<String, SQLException, X> exceptionWrapper, int fetchSize) {
+    this(transaction, statementFactory, exceptionWrapper, GeneratedKeys.NONE, fetchSize);
+  }
+
+  private DefaultContext(BaseTransaction<X> transaction, StatementFactory<X> statementFactory, BiFunction<String, SQLException, X> exceptionWrapper, GeneratedKeys generatedKeys, int fetchSize) {
+    this.transaction = transaction;
+    this.statementFactory = statementFactory;
     this.exceptionWrapper = exceptionWrapper;
+    this.generatedKeys = generatedKeys;
+    this.fetchSize = fetchSize;
+  }
+
+  @Override
+  public Context<X> withGeneratedKeys(String... columnNames) {
+    return new DefaultContext<>(transaction, statementFactory, exceptionWrapper, GeneratedKeys.of(columnNames), fetchSize);
+  }
+
+  @Override
+  public Context<X> withFetchSize(int rows) {
+    if(rows < 0) {
+      throw new IllegalArgumentException("rows cannot be negative: " + rows);
+    }
+
+    return new DefaultContext<>(transaction, statementFactory, exceptionWrapper, generatedKeys, rows);
   }
 
   @Override
   public void execute() throws X {
-    execute(r -> null);
+    execute(r -> null, false);
   }
 
   @Override
   public long executeUpdate() throws X {
-    return execute(SQLResult::getUpdateCount);
+    return execute(SQLResult::getUpdateCount, false);
   }
 
   @Override
@@ -50,13 +80,50 @@ class DefaultContext<X extends Exception> implements Context<X> {
       }
 
       return rowsLeft > 0 ? false : iterator.hasNext();
-    });
+    }, true);
+  }
+
+  @Override
+  public <T> Stream<T> stream(Function<SQLResult, Iterator<Row>> resultExtractor, Function<Row, T> mapper) throws X {
+    Objects.requireNonNull(resultExtractor, "resultExtractor");
+    Objects.requireNonNull(mapper, "mapper");
+
+    SQLStatement statement = statementFactory.create(generatedKeys, fetchSize);
+    Iterator<Row> iterator;
+
+    try {
+      iterator = resultExtractor.apply(statement.executeForRows());
+    }
+    catch(RowAccessException e) {
+      throw closeAfterFailure(statement, e.unwrap());
+    }
+    catch(SQLException e) {
+      throw closeAfterFailure(statement, e);
+    }
+
+    StreamedStatement<T> streamedStatement = new StreamedStatement<>(statement, iterator, mapper);
+
+    transaction.registerOpenStatement(streamedStatement);
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(streamedStatement, Spliterator.ORDERED), false)
+      .onClose(streamedStatement::close);
   }
 
-  private <R> R execute(Function<SQLResult, R> function) throws X {
-    try(SQLStatement statement = preparedStatementSupplier.get()) {
+  private X closeAfterFailure(SQLStatement statement, SQLException e) {
+    try {
+      statement.close();
+    }
+    catch(SQLException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+
+    return exceptionWrapper.apply("execution failed for: " + statement.toString(), e);
+  }
+
+  private <R> R execute(Function<SQLResult, R> function, boolean readsRows) throws X {
+    try(SQLStatement statement = statementFactory.create(generatedKeys, fetchSize)) {
       try {
-        return function.apply(statement.execute());
+        return function.apply(readsRows ? statement.executeForRows() : statement.execute());
       }
       catch(RowAccessException e) {
         throw exceptionWrapper.apply("execution failed for: " + statement.toString(), e.unwrap());
@@ -69,4 +136,93 @@ class DefaultContext<X extends Exception> implements Context<X> {
       throw exceptionWrapper.apply("closing statement failed", e);
     }
   }
+
+  /*
+   * Iterator over the mapped rows of a statement which closes the statement
+   * when exhausted, when closed explicitly or when the transaction ends.
+   * Exceptions are translated when the exception type of the context is
+   * unchecked; otherwise the unchecked RowAccessException is thrown.
+   */
+
+  private class StreamedStatement<T> implements Iterator<T>, AutoCloseable {
+    final SQLStatement statement;
+    final Iterator<Row> iterator;
+    final Function<Row, T> mapper;
+
+    boolean closed;
+    boolean exhausted;
+
+    StreamedStatement(SQLStatement statement, Iterator<Row> iterator, Function<Row, T> mapper) {
+      this.statement = statement;
+      this.iterator = iterator;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if(exhausted) {
+        return false;
+      }
+      if(closed) {
+        throw new IllegalStateException("stream was closed before it was exhausted, possibly because its transaction ended: " + statement);
+      }
+
+      try {
+        if(iterator.hasNext()) {
+          return true;
+        }
+      }
+      catch(RowAccessException e) {
+        close();
+
+        throw translate(e);
+      }
+
+      exhausted = true;
+      close();
+
+      return false;
+    }
+
+    @Override
+    public T next() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      try {
+        return mapper.apply(iterator.next());
+      }
+      catch(RowAccessException e) {
+        close();
+
+        throw translate(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      if(closed) {
+        return;
+      }
+
+      closed = true;
+      transaction.unregisterOpenStatement(this);
+
+      try {
+        statement.close();
+      }
+      catch(SQLException e) {
+        throw translate(new RowAccessException(e));
+      }
+    }
+
+    private RuntimeException translate(RowAccessException e) {
+      return exceptionWrapper.apply("execution failed for: " + statement.toString(), e.unwrap()) instanceof RuntimeException re ? re : e;
+    }
+  }
+
+  interface StatementFactory<X extends Exception> {
+    SQLStatement create(GeneratedKeys generatedKeys, int fetchSize) throws X;
+  }
 }
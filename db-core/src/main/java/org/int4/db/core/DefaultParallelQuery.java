@@ -0,0 +1,185 @@
+package org.int4.db.core;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.int4.db.core.api.CheckedDatabase;
+import org.int4.db.core.api.CheckedParallelQuery;
+import org.int4.db.core.api.CheckedTransaction;
+import org.int4.db.core.api.Database;
+import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.ParallelQuery;
+import org.int4.db.core.api.Transaction;
+import org.int4.db.core.internal.BaseTransaction;
+import org.int4.db.core.util.ThrowingConsumer;
+import org.int4.db.core.util.ThrowingFunction;
+
+/**
+ * Forks each operation into a {@link StructuredTaskScope} owned by the calling
+ * thread, where it runs as a read only operation of the database on its own
+ * virtual thread, and so on its own connection. Each operation's transaction
+ * is first prepared with a given preparation, which is used to import a shared
+ * snapshot.
+ *
+ * <p>The scope does not shut down when an operation fails, so the others can
+ * complete normally and leave their connections in a usable state. It only
+ * shuts down, interrupting operations still running, when it is closed without
+ * being joined, which happens when the operation which forks fails.
+ *
+ * @param <T> the transaction type
+ * @param <X> the type of exceptions thrown
+ */
+class DefaultParallelQuery<T, X extends Exception> {
+  private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("db-parallel-", 0).factory();
+
+  private final Runner<T, X> runner;
+  private final Class<X> exceptionType;
+  private final Function<InterruptedException, X> interruptTranslator;
+  private final ThrowingConsumer<T, X> preparation;
+  private final StructuredTaskScope<Object> scope;
+  private final List<Subtask<?>> subtasks = new ArrayList<>();
+
+  /*
+   * Runs a read only operation in a transaction of its own, like DatabaseFunctions::query.
+   */
+
+  private interface Runner<T, X extends Exception> {
+    <R> R query(ThrowingFunction<T, R, X> operation) throws X;
+  }
+
+  /**
+   * Performs the given operation with a new instance, and joins all
+   * operations it forked before returning its result.
+   *
+   * @param <R> the result type
+   * @param database a {@link Database} to run forked operations against, cannot be {@code null}
+   * @param preparation a preparation for the transaction of each forked operation, cannot be {@code null}
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @return the result of the operation, can be {@code null}
+   * @throws DatabaseException when a database exception occurs
+   */
+  static <R> R run(Database database, ThrowingConsumer<Transaction, DatabaseException> preparation, ThrowingFunction<ParallelQuery, R, DatabaseException> operation) throws DatabaseException {
+    return run(
+      database::query,
+      DatabaseException.class,
+      e -> new DatabaseException("Interrupted while waiting for parallel queries", new SQLException(e)),
+      preparation,
+      parallelQuery -> operation.apply(new ParallelQuery() {
+        @Override
+        public <V> Supplier<V> fork(ThrowingFunction<Transaction, V, DatabaseException> forkedOperation) {
+          return parallelQuery.fork(forkedOperation);
+        }
+
+        @Override
+        public void join() throws DatabaseException {
+          parallelQuery.join();
+        }
+      })
+    );
+  }
+
+  /**
+   * Performs the given operation with a new instance, and joins all
+   * operations it forked before returning its result.
+   *
+   * @param <R> the result type
+   * @param database a {@link CheckedDatabase} to run forked operations against, cannot be {@code null}
+   * @param preparation a preparation for the transaction of each forked operation, cannot be {@code null}
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @return the result of the operation, can be {@code null}
+   * @throws SQLException when a database exception occurs
+   */
+  static <R> R run(CheckedDatabase database, ThrowingConsumer<CheckedTransaction, SQLException> preparation, ThrowingFunction<CheckedParallelQuery, R, SQLException> operation) throws SQLException {
+    return run(
+      database::query,
+      SQLException.class,
+      e -> new SQLException("Interrupted while waiting for parallel queries", e),
+      preparation,
+      parallelQuery -> operation.apply(new CheckedParallelQuery() {
+        @Override
+        public <V> Supplier<V> fork(ThrowingFunction<CheckedTransaction, V, SQLException> forkedOperation) {
+          return parallelQuery.fork(forkedOperation);
+        }
+
+        @Override
+        public void join() throws SQLException {
+          parallelQuery.join();
+        }
+      })
+    );
+  }
+
+  private static <T, X extends Exception, R> R run(Runner<T, X> runner, Class<X> exceptionType, Function<InterruptedException, X> interruptTranslator, ThrowingConsumer<T, X> preparation, ThrowingFunction<DefaultParallelQuery<T, X>, R, X> operation) throws X {
+    try(StructuredTaskScope<Object> scope = new StructuredTaskScope<>("db-parallel-query", THREAD_FACTORY)) {
+      DefaultParallelQuery<T, X> parallelQuery = new DefaultParallelQuery<>(runner, exceptionType, interruptTranslator, preparation, scope);
+      R result = operation.apply(parallelQuery);
+
+      parallelQuery.join();
+
+      return result;
+    }
+  }
+
+  private DefaultParallelQuery(Runner<T, X> runner, Class<X> exceptionType, Function<InterruptedException, X> interruptTranslator, ThrowingConsumer<T, X> preparation, StructuredTaskScope<Object> scope) {
+    this.runner = runner;
+    this.exceptionType = exceptionType;
+    this.interruptTranslator = interruptTranslator;
+    this.preparation = preparation;
+    this.scope = scope;
+  }
+
+  <R> Supplier<R> fork(ThrowingFunction<T, R, X> operation) {
+    Objects.requireNonNull(operation, "operation");
+
+    Subtask<R> subtask = scope.fork(() -> BaseTransaction.callOutsideScope(() -> runner.query(tx -> {
+      preparation.accept(tx);
+
+      return operation.apply(tx);
+    })));
+
+    subtasks.add(subtask);
+
+    return subtask::get;
+  }
+
+  void join() throws X {
+    try {
+      scope.join();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw interruptTranslator.apply(e);
+    }
+
+    Throwable failure = null;
+
+    for(Subtask<?> subtask : subtasks) {
+      if(subtask.state() == Subtask.State.FAILED) {
+        if(failure == null) {
+          failure = subtask.exception();
+        }
+        else {
+          failure.addSuppressed(subtask.exception());
+        }
+      }
+    }
+
+    subtasks.clear();  // all completed, so any failure is only reported once
+
+    switch(failure) {
+      case null -> {}
+      case RuntimeException e -> throw e;
+      case Error e -> throw e;
+      case Exception e when exceptionType.isInstance(e) -> throw exceptionType.cast(e);
+      default -> throw new IllegalStateException("Unexpected type of exception", failure);  // operations only throw X, or unchecked exceptions
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package org.int4.db.core.api;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import org.int4.db.core.util.ThrowingConsumer;
+import org.int4.db.core.util.ThrowingFunction;
+
+/**
+ * Represents a database on which operations are performed asynchronously.
+ * Each operation runs in its own transaction on a new virtual thread, so
+ * independent operations run concurrently without tying up platform threads.
+ * The number of operations running at the same time can be limited; further
+ * operations wait for their turn.
+ *
+ * <p>Operations are retried according to the {@link RetryStrategy} of the
+ * underlying {@link Database}, in the same way as {@link Database#apply(ThrowingFunction, boolean)}
+ * retries them. The returned futures complete with the result of the operation,
+ * or exceptionally with the exception that ended it.
+ *
+ * <p>Cancelling a returned future cancels its operation: a statement it is
+ * executing is cancelled in the database, any further statements it attempts
+ * fail, and the operation is not retried. An operation that is still waiting
+ * for its turn does not run at all.
+ */
+public interface AsyncDatabase extends AutoCloseable {
+
+  /**
+   * Performs a read only operation on the database asynchronously.
+   *
+   * @param <R> the result type
+   * @param operation a read only operation, cannot be {@code null}
+   * @return a {@link CompletableFuture} which completes with the result of the operation, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  default <R> CompletableFuture<R> query(ThrowingFunction<Transaction, R, DatabaseException> operation) {
+    return apply(Objects.requireNonNull(operation, "operation"), true);
+  }
+
+  /**
+   * Accepts a modifying operation on the database which produces no
+   * result asynchronously.
+   *
+   * @param operation a modifying operation, cannot be {@code null}
+   * @return a {@link CompletableFuture} which completes when the operation completes, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  default CompletableFuture<Void> accept(ThrowingConsumer<Transaction, DatabaseException> operation) {
+    Objects.requireNonNull(operation, "operation");
+
+    return apply(tx -> {
+      operation.accept(tx);
+      return null;
+    }, false);
+  }
+
+  /**
+   * Applies a modifying operation on the database asynchronously.
+   *
+   * @param <R> the result type
+   * @param operation a modifying operation, cannot be {@code null}
+   * @return a {@link CompletableFuture} which completes with the result of the operation, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  default <R> CompletableFuture<R> apply(ThrowingFunction<Transaction, R, DatabaseException> operation) {
+    return apply(Objects.requireNonNull(operation, "operation"), false);
+  }
+
+  /**
+   * Applies an operation on the database asynchronously.
+   *
+   * @param <R> the result type
+   * @param operation an operation, cannot be {@code null}
+   * @param readOnly whether the operation should use a read only transaction
+   * @return a {@link CompletableFuture} which completes with the result of the operation, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  <R> CompletableFuture<R> apply(ThrowingFunction<Transaction, R, DatabaseException> operation, boolean readOnly);
+
+  /**
+   * Returns the {@link Database} on which the operations are performed.
+   *
+   * @return a {@link Database}, never {@code null}
+   */
+  Database database();
+
+  /**
+   * Closes the underlying database, see {@link Database#close()}.
+   */
+  @Override
+  default void close() {
+    database().close();
+  }
+}
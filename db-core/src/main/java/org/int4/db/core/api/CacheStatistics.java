@@ -0,0 +1,37 @@
+package org.int4.db.core.api;
+
+/**
+ * A snapshot of the statistics of a cache.
+ *
+ * @param hitCount the number of lookups that found a cached entry, never negative
+ * @param missCount the number of lookups that did not find a cached entry, never negative
+ * @param evictionCount the number of entries that were removed from the cache to make room for new entries, never negative
+ */
+public record CacheStatistics(long hitCount, long missCount, long evictionCount) {
+
+  /**
+   * Statistics of a cache which was never used.
+   */
+  public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0);
+
+  /**
+   * Returns the total number of lookups.
+   *
+   * @return the total number of lookups, never negative
+   */
+  public long requestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * Returns the ratio of lookups that found a cached entry. If there were
+   * no lookups yet, returns {@code 1.0}.
+   *
+   * @return the ratio of lookups that found a cached entry, between {@code 0.0} and {@code 1.0}
+   */
+  public double hitRate() {
+    long requestCount = requestCount();
+
+    return requestCount == 0 ? 1.0 : (double)hitCount / requestCount;
+  }
+}
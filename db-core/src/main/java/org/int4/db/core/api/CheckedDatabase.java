@@ -1,9 +1,49 @@
 package org.int4.db.core.api;
 
 import java.sql.SQLException;
+import java.util.Objects;
+
+import org.int4.db.core.util.ThrowingFunction;
 
 /**
  * Represents a database on which transactions can be started.
  */
 public interface CheckedDatabase extends DatabaseFunctions<CheckedTransaction, SQLException> {
+
+  /**
+   * Performs an operation which forks independent read only operations,
+   * which run concurrently on separate connections, and returns its result.
+   * Operations which were not joined when the given operation returns are
+   * joined before this method returns.
+   *
+   * @param <R> the result type
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @return the result of the operation, can be {@code null}
+   * @throws SQLException when a database exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   * @see #queryInParallel(ThrowingFunction, boolean)
+   */
+  default <R> R queryInParallel(ThrowingFunction<CheckedParallelQuery, R, SQLException> operation) throws SQLException {
+    return queryInParallel(Objects.requireNonNull(operation, "operation"), false);
+  }
+
+  /**
+   * Performs an operation which forks independent read only operations,
+   * which run concurrently on separate connections, and returns its result.
+   * Operations which were not joined when the given operation returns are
+   * joined before this method returns. Operations still running when the
+   * given operation throws an exception are cancelled.
+   *
+   * <p>When {@code sharedSnapshot} is {@code true}, all forked operations see
+   * the same consistent snapshot of the database, as if they ran in a single
+   * transaction. This requires PostgreSQL, see {@link Database#queryInParallel(ThrowingFunction, boolean)}.
+   *
+   * @param <R> the result type
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @param sharedSnapshot whether the forked operations should share a single snapshot
+   * @return the result of the operation, can be {@code null}
+   * @throws SQLException when a database exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  <R> R queryInParallel(ThrowingFunction<CheckedParallelQuery, R, SQLException> operation, boolean sharedSnapshot) throws SQLException;
 }
@@ -1,7 +1,51 @@
 package org.int4.db.core.api;
 
+import java.util.Objects;
+
+import org.int4.db.core.util.ThrowingFunction;
+
 /**
  * Represents a database on which transactions can be started.
  */
 public interface Database extends DatabaseFunctions<Transaction, DatabaseException> {
+
+  /**
+   * Performs an operation which forks independent read only operations,
+   * which run concurrently on separate connections, and returns its result.
+   * Operations which were not joined when the given operation returns are
+   * joined before this method returns.
+   *
+   * @param <R> the result type
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @return the result of the operation, can be {@code null}
+   * @throws DatabaseException when a database exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   * @see #queryInParallel(ThrowingFunction, boolean)
+   */
+  default <R> R queryInParallel(ThrowingFunction<ParallelQuery, R, DatabaseException> operation) throws DatabaseException {
+    return queryInParallel(Objects.requireNonNull(operation, "operation"), false);
+  }
+
+  /**
+   * Performs an operation which forks independent read only operations,
+   * which run concurrently on separate connections, and returns its result.
+   * Operations which were not joined when the given operation returns are
+   * joined before this method returns. Operations still running when the
+   * given operation throws an exception are cancelled.
+   *
+   * <p>When {@code sharedSnapshot} is {@code true}, all forked operations see
+   * the same consistent snapshot of the database, as if they ran in a single
+   * transaction. This requires PostgreSQL: the snapshot is exported with
+   * {@code pg_export_snapshot()} from a transaction which stays open until
+   * all operations completed, and is imported by each operation's transaction,
+   * which runs with isolation level {@code REPEATABLE READ}.
+   *
+   * @param <R> the result type
+   * @param operation an operation which forks read only operations, cannot be {@code null}
+   * @param sharedSnapshot whether the forked operations should share a single snapshot
+   * @return the result of the operation, can be {@code null}
+   * @throws DatabaseException when a database exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  <R> R queryInParallel(ThrowingFunction<ParallelQuery, R, DatabaseException> operation, boolean sharedSnapshot) throws DatabaseException;
 }
@@ -6,7 +6,7 @@ import java.util.Objects;
 import org.int4.db.core.util.ThrowingConsumer;
 import org.int4.db.core.util.ThrowingFunction;
 
-interface DatabaseFunctions<T extends TransactionFunctions<X>, X extends Exception> {
+interface DatabaseFunctions<T extends TransactionFunctions<X>, X extends Exception> extends AutoCloseable {
 
   /**
    * Starts a read/write transaction.
@@ -125,6 +125,24 @@ interface DatabaseFunctions<T extends TransactionFunctions<X>, X extends Excepti
    */
   RetryStrategy retryStrategy();
 
+  /**
+   * Returns a snapshot of the statistics gathered by this database.
+   *
+   * @return a {@link DatabaseStatistics}, never {@code null}
+   */
+  DatabaseStatistics statistics();
+
+  /**
+   * Closes the built-in connection pool of this database, if it has one. Idle
+   * connections are closed immediately, and connections in use are closed when
+   * their transaction ends. Transactions started afterwards fail to obtain a
+   * connection. Does nothing for databases without a built-in connection pool,
+   * or when the pool was closed already.
+   */
+  @Override
+  default void close() {
+  }
+
   /**
    * Unwraps an exception to get at the root cause. This is always an
    * {@link SQLException}.
@@ -0,0 +1,29 @@
+package org.int4.db.core.api;
+
+import java.util.Objects;
+
+/**
+ * A snapshot of the statistics gathered by a database.
+ *
+ * @param templateCache the statistics of the cache of SQL generated for string templates, cannot be {@code null}
+ * @param statementCache the statistics of the caches of prepared statements of all connections, cannot be {@code null}
+ * @param connectionPool the statistics of the built-in connection pool, or {@link PoolStatistics#EMPTY} when not used, cannot be {@code null}
+ */
+public record DatabaseStatistics(CacheStatistics templateCache, CacheStatistics statementCache, PoolStatistics connectionPool) {
+
+  /**
+   * Statistics of a database which was never used.
+   */
+  public static final DatabaseStatistics EMPTY = new DatabaseStatistics(CacheStatistics.EMPTY, CacheStatistics.EMPTY, PoolStatistics.EMPTY);
+
+  /**
+   * Constructs a new instance.
+   *
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public DatabaseStatistics {
+    Objects.requireNonNull(templateCache, "templateCache");
+    Objects.requireNonNull(statementCache, "statementCache");
+    Objects.requireNonNull(connectionPool, "connectionPool");
+  }
+}
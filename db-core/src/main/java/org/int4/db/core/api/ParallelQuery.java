@@ -0,0 +1,16 @@
+package org.int4.db.core.api;
+
+import org.int4.db.core.util.ThrowingFunction;
+
+/**
+ * Forks read only operations which run concurrently, each in its own
+ * transaction on its own connection, and joins their results. Instances are
+ * provided by {@link Database#queryInParallel(ThrowingFunction, boolean)}, and
+ * can only be used by the thread which called that method, and only during
+ * that call.
+ *
+ * <p>Each forked operation is retried according to the {@link RetryStrategy}
+ * of the database, independently of the other operations.
+ */
+public interface ParallelQuery extends ParallelQueryFunctions<Transaction, DatabaseException> {
+}
@@ -0,0 +1,37 @@
+package org.int4.db.core.api;
+
+import java.util.function.Supplier;
+
+import org.int4.db.core.util.ThrowingFunction;
+
+/**
+ * Forks read only operations which run concurrently, each in its own
+ * transaction on its own connection, and joins their results.
+ *
+ * @param <T> the transaction type
+ * @param <X> the type of exceptions thrown
+ */
+interface ParallelQueryFunctions<T extends TransactionFunctions<X>, X extends Exception> {
+
+  /**
+   * Forks a read only operation which starts running immediately on a new
+   * virtual thread. Its result becomes available through the returned supplier
+   * after {@link #join()} was called.
+   *
+   * @param <R> the result type
+   * @param operation a read only operation, cannot be {@code null}
+   * @return a {@link Supplier} for the result of the operation, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  <R> Supplier<R> fork(ThrowingFunction<T, R, X> operation);
+
+  /**
+   * Waits for all operations forked so far to complete. If any of them failed,
+   * the exception of the first one that was forked is thrown, with the exceptions
+   * of any others added as suppressed exceptions.
+   *
+   * @throws X when a forked operation failed with a database error,
+   *   or when the calling thread was interrupted while waiting
+   */
+  void join() throws X;
+}
@@ -0,0 +1,63 @@
+package org.int4.db.core.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A snapshot of the statistics of a connection pool.
+ *
+ * @param maximumSize the maximum number of connections of the pool, never negative
+ * @param openConnections the number of connections currently open, never negative
+ * @param activeConnections the number of connections currently in use, never negative
+ * @param acquireCount the number of connections handed out, never negative
+ * @param timeoutCount the number of requests for a connection that timed out, never negative
+ * @param totalWaitTime the total time spent waiting for connections, cannot be {@code null}
+ */
+public record PoolStatistics(int maximumSize, int openConnections, int activeConnections, long acquireCount, long timeoutCount, Duration totalWaitTime) {
+
+  /**
+   * Statistics of a database which does not use a connection pool.
+   */
+  public static final PoolStatistics EMPTY = new PoolStatistics(0, 0, 0, 0, 0, Duration.ZERO);
+
+  /**
+   * Constructs a new instance.
+   *
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public PoolStatistics {
+    Objects.requireNonNull(totalWaitTime, "totalWaitTime");
+  }
+
+  /**
+   * Returns the number of connections which are open but not in use.
+   *
+   * @return the number of idle connections, never negative
+   */
+  public int idleConnections() {
+    return openConnections - activeConnections;
+  }
+
+  /**
+   * Returns the average time spent waiting for a connection, including
+   * requests which timed out. If there were no requests yet, returns
+   * {@link Duration#ZERO}.
+   *
+   * @return the average time spent waiting for a connection, never {@code null}
+   */
+  public Duration averageWaitTime() {
+    long requestCount = acquireCount + timeoutCount;
+
+    return requestCount == 0 ? Duration.ZERO : totalWaitTime.dividedBy(requestCount);
+  }
+
+  /**
+   * Returns the ratio of connections in use to the maximum number of
+   * connections. If the pool has no connections, returns {@code 0.0}.
+   *
+   * @return the ratio of connections in use, between {@code 0.0} and {@code 1.0}
+   */
+  public double utilization() {
+    return maximumSize == 0 ? 0.0 : (double)activeConnections / maximumSize;
+  }
+}
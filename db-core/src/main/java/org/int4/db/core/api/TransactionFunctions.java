@@ -2,8 +2,11 @@ package org.int4.db.core.api;
 
 import java.lang.StringTemplate.Processor;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.int4.db.core.fluent.StatementNode;
+import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
 
 interface TransactionFunctions<X extends Exception> extends AutoCloseable, Processor<StatementNode<X>, X> {
 
@@ -33,6 +36,27 @@ interface TransactionFunctions<X extends Exception> extends AutoCloseable, Proce
    */
   void addCompletionHook(Consumer<TransactionResult> consumer);
 
+  /**
+   * Copies the given rows into the given table using PostgreSQL's
+   * {@code COPY ... FROM STDIN}, which is considerably faster than inserting
+   * rows with {@code INSERT} statements. The columns copied are the non-empty
+   * names of the given {@link Extractor}, and values are converted with the
+   * registered type converters. The rows are consumed while they are sent,
+   * so they never all need to be in memory at once.
+   *
+   * <p>This is only supported when using the PostgreSQL JDBC driver. The copy
+   * is part of this transaction.
+   *
+   * @param <T> the type of the rows
+   * @param table the {@link Identifier} of the table to copy into, cannot be {@code null}
+   * @param extractor an {@link Extractor}, cannot be {@code null}
+   * @param rows a {@link Stream} of rows to copy, cannot be {@code null}
+   * @return the number of rows copied, never negative
+   * @throws X when an error occurred during the copy, or when the driver does not support it
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  <T> long copyIn(Identifier table, Extractor<T> extractor, Stream<T> rows) throws X;
+
   @Override
   void close() throws X;
 }
@@ -4,6 +4,8 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.int4.db.core.internal.bridge.Context;
 import org.int4.db.core.internal.bridge.SQLResult;
@@ -18,23 +20,30 @@ import org.int4.db.core.reflect.Row;
 public class MappedSourceNode<T, X extends Exception> implements MappingSteps<T, X> {
   private final Context<X> context;
   private final Function<SQLResult, Iterator<Row>> step;
-  private final Function<Row, T> flatStep;
+  private final Supplier<Function<Row, T>> flatStepSupplier;  // supplies a flat step for each execution, as it may be bound to a single result
 
-  MappedSourceNode(Context<X> context, Function<SQLResult, Iterator<Row>> step, Function<Row, T> flatStep) {
+  MappedSourceNode(Context<X> context, Function<SQLResult, Iterator<Row>> step, Supplier<Function<Row, T>> flatStepSupplier) {
     this.context = context;
     this.step = step;
-    this.flatStep = flatStep;
+    this.flatStepSupplier = flatStepSupplier;
   }
 
   @Override
   public <U> MappedSourceNode<U, X> map(Function<T, U> mapper) {
     Objects.requireNonNull(mapper, "mapper");
 
-    return new MappedSourceNode<>(context, step, r -> mapper.apply(flatStep.apply(r)));
+    return new MappedSourceNode<>(context, step, () -> flatStepSupplier.get().andThen(mapper));
+  }
+
+  @Override
+  public Stream<T> stream() throws X {
+    return context.stream(step, flatStepSupplier.get());
   }
 
   @Override
   public boolean consume(Consumer<T> consumer, long max) throws X {
+    Function<Row, T> flatStep = flatStepSupplier.get();
+
     return context.consume(r -> consumer.accept(flatStep.apply(r)), max, step::apply);
   }
 }
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Provides steps to convert a type {@code T} to a new type of result.
@@ -86,6 +87,22 @@ interface MappingSteps<T, X extends Exception> {
     return list;
   }
 
+  /**
+   * Returns the results as a lazily populated {@link Stream}. Results are read
+   * from the database only as the stream is consumed, so they never need to
+   * be in memory all at once.
+   *
+   * <p>The underlying statement is closed when the stream is exhausted, when
+   * the stream is closed, or at the latest when the transaction which created
+   * it ends. Consuming the stream after its transaction ended results in an
+   * {@link IllegalStateException}. Streams which may not be fully consumed
+   * should be closed, preferably with a try-with-resources statement.
+   *
+   * @return a {@link Stream} of results, never {@code null}
+   * @throws X when an exception occurs
+   */
+  Stream<T> stream() throws X;
+
   /**
    * Consumes the results using the given consumer.
    *
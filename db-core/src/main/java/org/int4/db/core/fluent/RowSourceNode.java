@@ -3,10 +3,16 @@ package org.int4.db.core.fluent;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 import org.int4.db.core.internal.bridge.Context;
 import org.int4.db.core.internal.bridge.SQLResult;
+import org.int4.db.core.reflect.ColumnTable;
+import org.int4.db.core.reflect.Mapper;
 import org.int4.db.core.reflect.Row;
 
 /**
@@ -23,11 +29,51 @@ public class RowSourceNode<X extends Exception> implements RowSteps<X> {
     this.step = Objects.requireNonNull(step, "step");
   }
 
+  @Override
+  public RowSourceNode<X> withFetchSize(int rows) {
+    return new RowSourceNode<>(context.withFetchSize(rows), step);
+  }
+
   @Override
   public <T> MappedSourceNode<T, X> map(Function<Row, T> mapper) {
     Objects.requireNonNull(mapper, "mapper");
 
-    return new MappedSourceNode<>(context, step, mapper);
+    return new MappedSourceNode<>(context, step, mapper instanceof Mapper<T> m ? m::bind : () -> mapper);
+  }
+
+  @Override
+  public ColumnTable toColumns() throws X {
+    ColumnTable.Builder builder = ColumnTable.builder();
+
+    context.consume(builder::add, Long.MAX_VALUE, step);
+
+    return builder.build();
+  }
+
+  @Override
+  public void consumeInts(IntConsumer consumer) throws X {
+    Objects.requireNonNull(consumer, "consumer");
+
+    context.consume(r -> consumer.accept(r.getInt(0)), Long.MAX_VALUE, step);
+  }
+
+  @Override
+  public void consumeLongs(LongConsumer consumer) throws X {
+    Objects.requireNonNull(consumer, "consumer");
+
+    context.consume(r -> consumer.accept(r.getLong(0)), Long.MAX_VALUE, step);
+  }
+
+  @Override
+  public void consumeDoubles(DoubleConsumer consumer) throws X {
+    Objects.requireNonNull(consumer, "consumer");
+
+    context.consume(r -> consumer.accept(r.getDouble(0)), Long.MAX_VALUE, step);
+  }
+
+  @Override
+  public Stream<Row> stream() throws X {
+    return context.stream(step, new Snapshotter());
   }
 
   @Override
@@ -44,6 +90,7 @@ public class RowSourceNode<X extends Exception> implements RowSteps<X> {
          */
 
         final Iterator<Row> delegate = step.apply(sr);
+        final Snapshotter snapshotter = new Snapshotter();
 
         @Override
         public boolean hasNext() {
@@ -52,16 +99,37 @@ public class RowSourceNode<X extends Exception> implements RowSteps<X> {
 
         @Override
         public Row next() {
-          Row row = delegate.next();
-          Object[] data = new Object[row.getColumnCount()];
-
-          for(int i = 0; i < data.length; i++) {
-            data[i] = row.getObject(i);
-          }
-
-          return Row.of(data);
+          return snapshotter.apply(delegate.next());
         }
       }
     );
   }
+
+  /*
+   * Creates compact snapshots of rows, as the internal rows are re-used.
+   * Snapshots share column storage in chunks of a limited number of rows,
+   * so rows which are no longer referenced can be garbage collected while
+   * the rest of the result is still being consumed.
+   *
+   * A snapshot keeps its whole chunk reachable, so a caller retaining a
+   * single row retains up to CHUNK_ROWS rows. This is accepted in return
+   * for storing rows without an object per value, as only callers which
+   * filter out most rows retain much more than they keep; the chunk size
+   * bounds the overhead, and RowSteps documents how to avoid it.
+   */
+
+  private static class Snapshotter implements Function<Row, Row> {
+    private static final int CHUNK_ROWS = 256;
+
+    private ColumnTable.Builder builder = ColumnTable.builder();
+
+    @Override
+    public Row apply(Row row) {
+      if(builder.getRowCount() == CHUNK_ROWS) {
+        builder = ColumnTable.builder();
+      }
+
+      return builder.add(row);
+    }
+  }
 }
\ No newline at end of file
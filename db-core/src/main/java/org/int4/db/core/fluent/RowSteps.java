@@ -1,11 +1,26 @@
 package org.int4.db.core.fluent;
 
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.int4.db.core.reflect.ColumnTable;
 import org.int4.db.core.reflect.Mapper;
 import org.int4.db.core.reflect.Row;
 
 /**
  * Provides steps to convert {@link Row}s to a new type of result.
  *
+ * <p>The {@link Row}s provided by {@link #stream()} and {@link #consume(Consumer, long)}
+ * are compact snapshots which share their storage with up to 255 neighbouring
+ * rows of the same result. Retaining a few rows of a large result therefore
+ * also keeps the values of their neighbours reachable; rows kept for a long
+ * time should be copied with {@code Row.of(row.toArray())} instead.
+ *
  * @param <X> the type of exception that can be thrown
  */
 interface RowSteps<X extends Exception> extends MappingSteps<Row, X> {
@@ -34,6 +49,19 @@ interface RowSteps<X extends Exception> extends MappingSteps<Row, X> {
    */
   static final Mapper<byte[]> BYTES_MAPPER = r -> r.getBytes(0);
 
+  /**
+   * Hints the JDBC driver to fetch the given number of rows at a time when
+   * reading the result, overriding the default configured for the database.
+   * Some drivers (like the PostgreSQL driver) otherwise read the entire result
+   * into memory before the first row is returned. A value of zero lets the
+   * driver decide.
+   *
+   * @param rows the number of rows to fetch at a time, cannot be negative
+   * @return a row source node, never {@code null}
+   * @throws IllegalArgumentException when {@code rows} is negative
+   */
+  RowSourceNode<X> withFetchSize(int rows);
+
   /**
    * Converts the first column of the result to a {@link String}.
    *
@@ -69,4 +97,96 @@ interface RowSteps<X extends Exception> extends MappingSteps<Row, X> {
   default MappedSourceNode<byte[], X> asBytes() {
     return map(BYTES_MAPPER);
   }
+
+  /**
+   * Returns the first column of the results as an {@code int} array. The
+   * values are read directly as primitives, without boxing them. Values which
+   * are SQL {@code NULL} are returned as zero.
+   *
+   * @return an {@code int} array, never {@code null}
+   * @throws X when an exception occurs
+   */
+  default int[] toIntArray() throws X {
+    IntStream.Builder builder = IntStream.builder();
+
+    consumeInts(builder);
+
+    return builder.build().toArray();
+  }
+
+  /**
+   * Returns the first column of the results as a {@code long} array. The
+   * values are read directly as primitives, without boxing them. Values which
+   * are SQL {@code NULL} are returned as zero.
+   *
+   * @return a {@code long} array, never {@code null}
+   * @throws X when an exception occurs
+   */
+  default long[] toLongArray() throws X {
+    LongStream.Builder builder = LongStream.builder();
+
+    consumeLongs(builder);
+
+    return builder.build().toArray();
+  }
+
+  /**
+   * Returns the first column of the results as a {@code double} array. The
+   * values are read directly as primitives, without boxing them. Values which
+   * are SQL {@code NULL} are returned as zero.
+   *
+   * @return a {@code double} array, never {@code null}
+   * @throws X when an exception occurs
+   */
+  default double[] toDoubleArray() throws X {
+    DoubleStream.Builder builder = DoubleStream.builder();
+
+    consumeDoubles(builder);
+
+    return builder.build().toArray();
+  }
+
+  /**
+   * Returns the results as a {@link ColumnTable}, which stores the values
+   * per column. Columns of SQL numeric and boolean types which map to a Java
+   * primitive are stored without boxing their values, which takes far less
+   * memory than a list of {@link Row}s.
+   *
+   * @return a {@link ColumnTable}, never {@code null}
+   * @throws X when an exception occurs
+   */
+  ColumnTable toColumns() throws X;
+
+  /**
+   * Consumes the first column of the results as {@code int}s using the given
+   * consumer, without boxing them. Values which are SQL {@code NULL} are
+   * passed as zero.
+   *
+   * @param consumer an {@link IntConsumer} for processing each result, cannot be {@code null}
+   * @throws X when an exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  void consumeInts(IntConsumer consumer) throws X;
+
+  /**
+   * Consumes the first column of the results as {@code long}s using the given
+   * consumer, without boxing them. Values which are SQL {@code NULL} are
+   * passed as zero.
+   *
+   * @param consumer a {@link LongConsumer} for processing each result, cannot be {@code null}
+   * @throws X when an exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  void consumeLongs(LongConsumer consumer) throws X;
+
+  /**
+   * Consumes the first column of the results as {@code double}s using the given
+   * consumer, without boxing them. Values which are SQL {@code NULL} are
+   * passed as zero.
+   *
+   * @param consumer a {@link DoubleConsumer} for processing each result, cannot be {@code null}
+   * @throws X when an exception occurs
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  void consumeDoubles(DoubleConsumer consumer) throws X;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.int4.db.core.fluent;
 
+import java.util.Objects;
+
 import org.int4.db.core.internal.bridge.Context;
 import org.int4.db.core.internal.bridge.SQLResult;
 
@@ -23,9 +25,21 @@ public class StatementNode<X extends Exception> extends RowSourceNode<X> impleme
     this.context = context;
   }
 
+  @Override
+  public StatementNode<X> withFetchSize(int rows) {
+    return new StatementNode<>(context.withFetchSize(rows));
+  }
+
   @Override
   public RowSourceNode<X> mapGeneratedKeys() {
-    return new RowSourceNode<>(context, SQLResult::createGeneratedKeysIterator);
+    return new RowSourceNode<>(context.withGeneratedKeys(), SQLResult::createGeneratedKeysIterator);
+  }
+
+  @Override
+  public RowSourceNode<X> mapGeneratedKeys(String... columnNames) {
+    Objects.requireNonNull(columnNames, "columnNames");
+
+    return new RowSourceNode<>(context.withGeneratedKeys(columnNames.clone()), SQLResult::createGeneratedKeysIterator);
   }
 
   @Override
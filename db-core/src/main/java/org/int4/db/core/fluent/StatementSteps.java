@@ -16,11 +16,31 @@ interface StatementSteps<X extends Exception> {
    */
   RowSourceNode<X> mapGeneratedKeys();
 
+  /**
+   * Switches a statement which does not normally return rows (like {@code INSERT}s) to
+   * a source returning the given generated key columns. If no columns are specified,
+   * this is equivalent to {@link #mapGeneratedKeys()}.
+   *
+   * <p>Only statements on which one of the {@code mapGeneratedKeys} variants is
+   * called are prepared to return generated keys.
+   *
+   * @param columnNames the names of the key columns to return, cannot be {@code null} or contain {@code null}s
+   * @return a row source node, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  RowSourceNode<X> mapGeneratedKeys(String... columnNames);
+
   /**
    * Executes the statement as a statement that returns a number of affected rows.
    * Calling this on a statement that returns rows, or nothing will result in an
    * exception.
    *
+   * <p>For batches, this is the sum of the counts the driver reports per row.
+   * Drivers may report {@link java.sql.Statement#SUCCESS_NO_INFO} instead of a
+   * count, for example when rewriting a batch into fewer statements; such rows
+   * are not counted, so the result can be lower than the number of rows actually
+   * affected, down to 0.
+   *
    * @return the number of affected rows, never negative
    * @throws X when execution fails
    */
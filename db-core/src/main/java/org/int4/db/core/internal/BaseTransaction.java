@@ -3,20 +3,24 @@ package org.int4.db.core.internal;
 import java.lang.System.Logger;
 import java.lang.System.Logger.Level;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
+import java.util.function.Function;
 
 import org.int4.db.core.api.TransactionResult;
+import org.int4.db.core.util.ThrowingSupplier;
 
 public abstract class BaseTransaction<X extends Exception> implements AutoCloseable {
   private static final Logger LOGGER = System.getLogger(BaseTransaction.class.getName());
   private static final ThreadLocal<BaseTransaction<?>> CURRENT_TRANSACTION = new ThreadLocal<>();
+  private static final ScopedValue<BaseTransaction<?>> SCOPED_TRANSACTION = ScopedValue.newInstance();
+  private static final String QUERY_CANCELED = "57014";  // SQL state used by PostgreSQL, among others, for cancelled statements
 
   private static long uniqueIdentifier;
 
@@ -27,23 +31,80 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
   private final BaseTransaction<?> parent;
   private final long id;
   private final boolean readOnly;
+  private final boolean scoped;
+  private final boolean threadTracked;  // whether this transaction is the current transaction of its thread until it ends
+  private final Thread owner = Thread.currentThread();
   private final List<Consumer<TransactionResult>> completionHooks = new ArrayList<>();
-  private final Supplier<Connection> connectionSupplier;
+  private final Set<AutoCloseable> openStatements = new LinkedHashSet<>();
+  private final ThrowingSupplier<Connection, SQLException> connectionSupplier;
+  private final Function<Connection, StatementCache> statementCacheFactory;
   private final ExceptionTranslator<X> exceptionTranslator;
 
   private Connection connection;
+  private volatile StatementCache statementCache;  // volatile as it is read by cancel
   private Savepoint savepoint;
   private int activeNestedTransactions;
   private boolean finished;
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a new instance. The transaction is nested in the current
+   * transaction, if any. When {@code scoped} is {@code false}, the current
+   * transaction is tracked per thread, and this transaction becomes the current
+   * transaction until it ends. When {@code scoped} is {@code true}, the current
+   * transaction is the one for which {@link #callInScope(ThrowingSupplier)} is
+   * running, and this transaction only becomes the current transaction during
+   * such a call; no per-thread state is kept.
+   *
+   * <p>A transaction can only be nested in a transaction started by the same
+   * thread, as the bookkeeping of nested transactions is not thread safe. With
+   * scoped tracking, the current transaction is also visible to child tasks of
+   * a structured task scope, which therefore cannot start transactions while it
+   * is current.
+   *
+   * @param connectionSupplier a supplier of {@link Connection}s which may throw {@link SQLException}s, cannot be {@code null}
+   * @param readOnly whether the transaction is read only
+   * @param scoped whether the current transaction is tracked with a {@link ScopedValue}
+   * @param statementCacheFactory a factory for {@link StatementCache}s, cannot be {@code null}
+   * @param exceptionTranslator an {@link ExceptionTranslator}, cannot be {@code null}
+   * @throws IllegalStateException when the current transaction was started by another thread
+   */
+  protected BaseTransaction(ThrowingSupplier<Connection, SQLException> connectionSupplier, boolean readOnly, boolean scoped, Function<Connection, StatementCache> statementCacheFactory, ExceptionTranslator<X> exceptionTranslator) {
+    this(connectionSupplier, readOnly, scoped, false, statementCacheFactory, exceptionTranslator);
+  }
+
+  /**
+   * Constructs a new instance, which when {@code detached} is {@code true} is
+   * a top level transaction that never becomes the current transaction, not
+   * even for the thread creating it. Transactions started while a detached
+   * transaction is open are therefore not nested in it.
+   *
+   * @param connectionSupplier a supplier of {@link Connection}s which may throw {@link SQLException}s, cannot be {@code null}
+   * @param readOnly whether the transaction is read only
+   * @param scoped whether the current transaction is tracked with a {@link ScopedValue}
+   * @param detached whether the transaction is independent of the current transaction
+   * @param statementCacheFactory a factory for {@link StatementCache}s, cannot be {@code null}
+   * @param exceptionTranslator an {@link ExceptionTranslator}, cannot be {@code null}
+   * @throws IllegalStateException when not detached and the current transaction was started by another thread
+   */
+  protected BaseTransaction(ThrowingSupplier<Connection, SQLException> connectionSupplier, boolean readOnly, boolean scoped, boolean detached, Function<Connection, StatementCache> statementCacheFactory, ExceptionTranslator<X> exceptionTranslator) {
+    this.parent = detached ? null : scoped ? SCOPED_TRANSACTION.orElse(null) : CURRENT_TRANSACTION.get();
+
+    if(parent != null && parent.owner != owner) {
+      throw new IllegalStateException("Transactions cannot be nested in " + parent + " as it was started by another thread: " + parent.owner);
+    }
 
-  protected BaseTransaction(Supplier<Connection> connectionSupplier, boolean readOnly, ExceptionTranslator<X> exceptionTranslator) {
-    this.parent = CURRENT_TRANSACTION.get();
     this.connectionSupplier = connectionSupplier;
+    this.statementCacheFactory = statementCacheFactory;
     this.exceptionTranslator = exceptionTranslator;
     this.readOnly = readOnly;
+    this.scoped = scoped;
+    this.threadTracked = !scoped && !detached;
     this.id = ++uniqueIdentifier;
 
-    CURRENT_TRANSACTION.set(this);
+    if(threadTracked) {
+      CURRENT_TRANSACTION.set(this);
+    }
 
     if(parent != null) {
       parent.activeNestedTransactions++;
@@ -54,26 +115,54 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
 
   public final Connection getConnection() throws X {
     ensureNotFinished();
+    ensureNotCancelled();
 
     return getConnectionInternal();
   }
 
+  /**
+   * Returns the {@link StatementCache} for the connection of this transaction.
+   * Nested transactions share the cache of their outer most transaction.
+   *
+   * @return a {@link StatementCache}, never {@code null}
+   * @throws X when a database error occurred while obtaining a connection
+   */
+  public final StatementCache getStatementCache() throws X {
+    ensureNotFinished();
+    ensureNotCancelled();
+    getConnectionInternal();
+
+    return statementCache;
+  }
+
   private Connection getConnectionInternal() throws X {
     if(connection == null) {
       try {
         if(parent == null) {
           this.connection = connectionSupplier.get();
-
-          connection.setAutoCommit(false);
+          this.statementCache = statementCacheFactory.apply(connection);
+
+          /*
+           * Whether these setters cause a round trip depends on the driver, so auto commit is
+           * only turned off when it is on; drivers answer getAutoCommit from their local state,
+           * and the connections of the built-in pool remember it. The read only mode is set on
+           * the connection instead of with a separate statement, which allows drivers to send
+           * it along with the first statement of the transaction; the PostgreSQL driver for
+           * example starts the transaction with BEGIN READ ONLY. It is reset when the
+           * transaction ends, so other transactions need not set it.
+           */
+
+          if(connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+          }
 
           if(readOnly) {
-            try(PreparedStatement ps = connection.prepareStatement("SET TRANSACTION READ ONLY")) {
-              ps.execute();
-            }
+            connection.setReadOnly(true);
           }
         }
         else {
           this.connection = parent.getConnectionInternal();
+          this.statementCache = parent.statementCache;
           this.savepoint = connection.setSavepoint();
         }
       }
@@ -95,6 +184,14 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
     return connection;
   }
 
+  private void ensureNotCancelled() throws X {
+    for(BaseTransaction<?> tx = this; tx != null; tx = tx.parent) {
+      if(tx.cancelled) {
+        throw exceptionTranslator.translate(this, "Transaction was cancelled", new SQLException("cancelled", QUERY_CANCELED));
+      }
+    }
+  }
+
   private void ensureNotFinished() {
     if(finished) {
       throw new IllegalStateException(this + ": Transaction already ended");
@@ -128,6 +225,43 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
     }
   }
 
+  /**
+   * Registers a statement which remains open after the call which created it
+   * returned, like a statement backing a lazily consumed stream. Any such
+   * statements still open when this transaction ends are closed before the
+   * transaction is committed or rolled back.
+   *
+   * @param statement an {@link AutoCloseable} statement, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public final void registerOpenStatement(AutoCloseable statement) {
+    openStatements.add(Objects.requireNonNull(statement, "statement"));
+  }
+
+  /**
+   * Unregisters a statement previously registered with {@link #registerOpenStatement(AutoCloseable)}.
+   * Does nothing if the statement was not registered.
+   *
+   * @param statement an {@link AutoCloseable} statement, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public final void unregisterOpenStatement(AutoCloseable statement) {
+    openStatements.remove(Objects.requireNonNull(statement, "statement"));
+  }
+
+  private void closeOpenStatements() {
+    for(AutoCloseable statement : List.copyOf(openStatements)) {
+      try {
+        statement.close();
+      }
+      catch(Exception e) {
+        LOGGER.log(Level.DEBUG, this + ": exception while closing open statement: " + e);
+      }
+    }
+
+    openStatements.clear();
+  }
+
   private void finishTransaction(boolean commit) throws X {
     ensureNotFinished();
 
@@ -135,6 +269,8 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
 
     finished = true;
 
+    closeOpenStatements();
+
     if(parent != null) {
       endNestedTransaction(commit);
     }
@@ -165,7 +301,9 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
   private void endNestedTransaction(boolean commit) throws X {
     parent.activeNestedTransactions--;
 
-    CURRENT_TRANSACTION.set(parent);
+    if(threadTracked) {
+      CURRENT_TRANSACTION.set(parent);
+    }
 
     if(connection != null) {
       try {
@@ -183,7 +321,9 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
   }
 
   private void endTopLevelTransaction(boolean commit) throws X {
-    CURRENT_TRANSACTION.remove();
+    if(threadTracked) {
+      CURRENT_TRANSACTION.remove();
+    }
 
     if(connection != null) {
       try {
@@ -198,6 +338,17 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
         throw exceptionTranslator.translate(this, "Exception while committing/rolling back connection", e);
       }
       finally {
+        statementCache.close();
+
+        try {
+          if(readOnly) {
+            connection.setReadOnly(false);
+          }
+        }
+        catch(SQLException e) {
+          LOGGER.log(Level.DEBUG, this + ": exception while resetting read only mode of connection: " + e);
+        }
+
         try {
           connection.close();
         }
@@ -208,6 +359,72 @@ public abstract class BaseTransaction<X extends Exception> implements AutoClosea
     }
   }
 
+  /**
+   * Calls the given supplier with this transaction as the current transaction
+   * for transactions created with scoped tracking, so transactions started
+   * by the supplier are nested in this transaction. For transactions which
+   * are tracked per thread, the supplier is simply called.
+   *
+   * @param <R> the result type
+   * @param <E> the type of exception the supplier throws
+   * @param supplier a {@link ThrowingSupplier}, cannot be {@code null}
+   * @return the result of the supplier, can be {@code null}
+   * @throws E when the supplier throws an exception
+   */
+  public final <R, E extends Exception> R callInScope(ThrowingSupplier<R, E> supplier) throws E {
+    return scoped ? callWhere(this, supplier) : supplier.get();
+  }
+
+  /**
+   * Calls the given supplier without a current transaction for transactions
+   * created with scoped tracking, so transactions started by the supplier are
+   * top level transactions, even when called from a child task of a structured
+   * task scope opened within another transaction.
+   *
+   * @param <R> the result type
+   * @param <E> the type of exception the supplier throws
+   * @param supplier a {@link ThrowingSupplier}, cannot be {@code null}
+   * @return the result of the supplier, can be {@code null}
+   * @throws E when the supplier throws an exception
+   */
+  public static <R, E extends Exception> R callOutsideScope(ThrowingSupplier<R, E> supplier) throws E {
+    return SCOPED_TRANSACTION.orElse(null) == null ? supplier.get() : callWhere(null, supplier);
+  }
+
+  private static <R, E extends Exception> R callWhere(BaseTransaction<?> transaction, ThrowingSupplier<R, E> supplier) throws E {
+    try {
+      return ScopedValue.where(SCOPED_TRANSACTION, transaction).call(supplier::get);
+    }
+    catch(RuntimeException | Error e) {
+      throw e;
+    }
+    catch(Exception e) {
+      @SuppressWarnings("unchecked")
+      E checked = (E)e;  // the supplier can only throw E, or unchecked exceptions
+
+      throw checked;
+    }
+  }
+
+  /**
+   * Cancels this transaction. Statements this transaction, or any of its nested
+   * transactions, is currently executing are cancelled, and any attempt to
+   * execute further statements fails. The transaction must still be ended as
+   * usual. This can be called from any thread.
+   *
+   * <p>The thread executing a cancelled statement receives the database error
+   * the driver reports for the cancellation.
+   */
+  public final void cancel() {
+    this.cancelled = true;
+
+    StatementCache statementCache = this.statementCache;
+
+    if(statementCache != null) {
+      statementCache.cancel();
+    }
+  }
+
   /**
    * Commits this transaction immediately. Any further attempts to use this transaction
    * will result in an exception.
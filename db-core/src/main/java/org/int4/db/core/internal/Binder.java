@@ -0,0 +1,187 @@
+package org.int4.db.core.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.int4.db.core.reflect.FieldValueSetParameter;
+import org.int4.db.core.reflect.TypeConverterResolver;
+
+/**
+ * Binds a single template value to one or more consecutive parameters of a
+ * {@link PreparedStatement}. Binders are compiled once per template shape and
+ * have the index of the first parameter they bind already resolved.
+ */
+sealed interface Binder {
+
+  /**
+   * Binds the given template value.
+   *
+   * @param ps a {@link PreparedStatement}, cannot be {@code null}
+   * @param row the row of the batch being bound, cannot be negative
+   * @param value a template value, can be {@code null}
+   * @throws SQLException when a database error occurs
+   */
+  void bind(PreparedStatement ps, int row, Object value) throws SQLException;
+
+  /**
+   * Binds a value to a single parameter.
+   */
+  record Single(int index, ParameterBinder binder) implements Binder {
+    @Override
+    public void bind(PreparedStatement ps, int row, Object value) throws SQLException {
+      binder.bind(ps, index, value);
+    }
+  }
+
+  /**
+   * Binds the values of the non-empty fields of {@code Entries} or {@code Values}.
+   */
+  record FieldValues(int index, int[] columns, ParameterBinder[] binders) implements Binder {
+    static FieldValues of(int index, FieldValueSetParameter parameter, TypeConverterResolver typeConverters) {
+      List<String> names = parameter.names();
+      int[] columns = new int[(int)names.stream().filter(n -> !n.isEmpty()).count()];
+      ParameterBinder[] binders = new ParameterBinder[columns.length];
+
+      for(int i = 0, j = 0; i < names.size(); i++) {
+        if(!names.get(i).isEmpty()) {
+          columns[j] = i;
+          binders[j++] = new ParameterBinder(typeConverters, null);
+        }
+      }
+
+      return new FieldValues(index, columns, binders);
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int row, Object value) throws SQLException {
+      Object[] values = ((FieldValueSetParameter)value).getValues(row);
+
+      for(int i = 0; i < columns.length; i++) {
+        binders[i].bind(ps, index + i, values[columns[i]]);
+      }
+    }
+  }
+
+  /**
+   * Binds the values of the non-empty fields of a number of consecutive rows
+   * of multi-row {@code Values}, starting with the row being bound.
+   */
+  record MultiRowFieldValues(FieldValues rowBinder, int rows) implements Binder {
+    @Override
+    public void bind(PreparedStatement ps, int row, Object value) throws SQLException {
+      FieldValueSetParameter parameter = (FieldValueSetParameter)value;
+      int[] columns = rowBinder.columns();
+      ParameterBinder[] binders = rowBinder.binders();
+      int index = rowBinder.index();
+
+      for(int r = 0; r < rows; r++) {
+        Object[] values = parameter.getValues(row + r);
+
+        for(int i = 0; i < columns.length; i++) {
+          binders[i].bind(ps, index++, values[columns[i]]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Binds each component of a record to a separate parameter. Records of
+   * a different class than the one the binder was compiled for, which can
+   * occur in batches, are bound by a binder resolved for their own class,
+   * provided they have the same number of components.
+   */
+  record RecordComponents(int index, Class<?> type, MethodHandle[] accessors, ParameterBinder[] binders, TypeConverterResolver typeConverters, Map<Class<?>, RecordComponents> otherTypes) implements Binder {
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    static RecordComponents of(int index, Class<?> type, TypeConverterResolver typeConverters) {
+      RecordComponent[] recordComponents = type.getRecordComponents();
+      MethodHandle[] accessors = new MethodHandle[recordComponents.length];
+      ParameterBinder[] binders = new ParameterBinder[recordComponents.length];
+
+      for(int i = 0; i < recordComponents.length; i++) {
+        RecordComponent recordComponent = recordComponents[i];
+
+        accessors[i] = unreflect(recordComponent.getAccessor()).asType(ACCESSOR_TYPE);
+        binders[i] = new ParameterBinder(typeConverters, recordComponent.getType().isPrimitive() ? null : recordComponent.getType());
+      }
+
+      return new RecordComponents(index, type, accessors, binders, typeConverters, new ConcurrentHashMap<>());
+    }
+
+    private static MethodHandle unreflect(Method accessor) {
+      try {
+        return MethodHandles.publicLookup().unreflect(accessor);
+      }
+      catch(IllegalAccessException e) {
+        try {
+          return MethodHandles.lookup().unreflect(accessor);
+        }
+        catch(IllegalAccessException ex) {
+          ex.addSuppressed(e);
+
+          throw new IllegalStateException(ex);
+        }
+      }
+    }
+
+    @Override
+    public void bind(PreparedStatement ps, int row, Object value) throws SQLException {
+      if(value == null) {
+        for(int i = 0; i < accessors.length; i++) {
+          ps.setNull(index + i, Types.NULL);
+        }
+
+        return;
+      }
+
+      if(value.getClass() != type) {
+        if(!(value instanceof Record)) {
+          throw new IllegalArgumentException("expected a record like " + type + " but got: " + value);
+        }
+
+        RecordComponents binder = otherTypes.computeIfAbsent(value.getClass(), t -> of(index, t, typeConverters));
+
+        if(binder.accessors.length != accessors.length) {
+          throw new IllegalArgumentException("expected a record with " + accessors.length + " components like " + type + " but got: " + value);
+        }
+
+        binder.bind(ps, row, value);
+
+        return;
+      }
+
+      for(int i = 0; i < accessors.length; i++) {
+        Object componentValue;
+
+        try {
+          componentValue = accessors[i].invokeExact(value);
+        }
+        catch(Throwable t) {
+          throw new IllegalStateException("Unable to access component " + i + " of " + value, t);
+        }
+
+        binders[i].bind(ps, index + i, componentValue);
+      }
+    }
+  }
+
+  /**
+   * Binds the element of a list corresponding to the row being bound using
+   * the binder created for the first element of the list.
+   */
+  record ListElements(Binder elementBinder) implements Binder {
+    @Override
+    public void bind(PreparedStatement ps, int row, Object value) throws SQLException {
+      elementBinder.bind(ps, row, ((List<?>)value).get(row));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.int4.db.core.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.int4.db.core.api.CacheStatistics;
+
+/**
+ * Thread safe counters for tracking the effectiveness of a cache.
+ */
+public class CacheCounters {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  void hit() {
+    hits.increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  void evict() {
+    evictions.increment();
+  }
+
+  /**
+   * Returns a snapshot of the current counts.
+   *
+   * @return a {@link CacheStatistics}, never {@code null}
+   */
+  public CacheStatistics snapshot() {
+    return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+  }
+}
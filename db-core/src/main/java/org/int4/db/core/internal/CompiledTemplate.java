@@ -0,0 +1,29 @@
+package org.int4.db.core.internal;
+
+/**
+ * The result of compiling a template of a specific shape. A compiled template
+ * is immutable and can be shared by all templates of the same shape.
+ */
+final class CompiledTemplate {
+  private final String sql;
+  private final Binder[] binders;
+
+  CompiledTemplate(String sql, Binder[] binders) {
+    this.sql = sql;
+    this.binders = binders;
+  }
+
+  String sql() {
+    return sql;
+  }
+
+  /**
+   * Returns the binders for each template value. Values which do not
+   * bind any parameters have a {@code null} binder.
+   *
+   * @return an array of binders, never {@code null} but can contain {@code null}s
+   */
+  Binder[] binders() {
+    return binders;
+  }
+}
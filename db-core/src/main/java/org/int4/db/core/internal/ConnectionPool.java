@@ -0,0 +1,384 @@
+package org.int4.db.core.internal;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.int4.db.core.api.PoolStatistics;
+
+/**
+ * A pool of {@link Connection}s with a fixed maximum size. A fair {@link Semaphore}
+ * holds a permit for each connection which may be handed out, so requests are
+ * served in order, and waiting for a connection parks a virtual thread instead
+ * of pinning its carrier. Idle connections are kept in a lock free deque, and
+ * the most recently used connection is handed out first.
+ *
+ * <p>Connections are only validated when they were idle for longer than the
+ * validation interval; a connection which was used moments ago is handed out
+ * without a round trip. Connections which were closed by their driver, for
+ * example after a fatal error, are discarded when returned to the pool.
+ * Connections returned with auto commit off are rolled back first, so a
+ * transaction left open never leaks into the next acquisition; drivers like
+ * the PostgreSQL driver skip this round trip when no transaction is open.
+ * Connections which cannot be rolled back are discarded.
+ *
+ * <p>When the pool is closed, its idle connections are closed and no further
+ * connections are handed out. Connections in use are closed when returned.
+ *
+ * <p>The connections handed out are proxies which return the underlying
+ * connection to the pool when closed. They remember the auto commit and read
+ * only state of the underlying connection, so setting either to the value it
+ * already has does not cause a round trip. The auto commit state is kept while
+ * the connection is idle, so the next user may find it already set as needed.
+ * A connection returned in read only mode is reset, so it is never handed out
+ * in read only mode.
+ *
+ * <p>This class is thread safe.
+ */
+public final class ConnectionPool {
+  private static final Logger LOGGER = System.getLogger(ConnectionPool.class.getName());
+  private static final String UNABLE_TO_CONNECT = "08001";
+  private static final String CONNECTION_DOES_NOT_EXIST = "08003";
+
+  private final Supplier<Connection> connectionFactory;
+  private final int maximumSize;
+  private final long maximumWaitNanos;
+  private final long validationIntervalNanos;
+  private final Semaphore permits;
+  private final Deque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger openConnections = new AtomicInteger();
+  private final LongAdder acquires = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+
+  private volatile boolean poolClosed;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param connectionFactory a supplier of new {@link Connection}s, cannot be {@code null}
+   * @param maximumSize the maximum number of connections, must be positive
+   * @param maximumWait the maximum time to wait for a connection, cannot be {@code null} or negative
+   * @param validationInterval the time after which an idle connection is validated before use, cannot be {@code null} or negative
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when {@code maximumSize} is not positive, or a duration is negative
+   */
+  public ConnectionPool(Supplier<Connection> connectionFactory, int maximumSize, Duration maximumWait, Duration validationInterval) {
+    if(maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
+    if(maximumWait.isNegative()) {
+      throw new IllegalArgumentException("maximumWait cannot be negative: " + maximumWait);
+    }
+    if(validationInterval.isNegative()) {
+      throw new IllegalArgumentException("validationInterval cannot be negative: " + validationInterval);
+    }
+
+    this.connectionFactory = Objects.requireNonNull(connectionFactory, "connectionFactory");
+    this.maximumSize = maximumSize;
+    this.maximumWaitNanos = saturatedNanos(maximumWait);
+    this.validationIntervalNanos = saturatedNanos(validationInterval);
+    this.permits = new Semaphore(maximumSize, true);
+  }
+
+  /**
+   * Acquires a connection from this pool, waiting at most the maximum wait
+   * time for one to become available. The connection must be closed to return
+   * it to the pool.
+   *
+   * @return a {@link Connection}, never {@code null}
+   * @throws SQLTransientConnectionException when no connection became available in time
+   * @throws SQLNonTransientConnectionException when this pool was closed
+   * @throws SQLException when the calling thread was interrupted, or a database error occurred while validating a connection
+   */
+  public Connection acquire() throws SQLException {
+    ensureNotClosed();
+
+    long start = System.nanoTime();
+    long deadline = start + maximumWaitNanos;
+
+    try {
+      if(!permits.tryAcquire(maximumWaitNanos, TimeUnit.NANOSECONDS)) {
+        timeouts.increment();
+
+        throw new SQLTransientConnectionException("Timed out after " + Duration.ofNanos(maximumWaitNanos) + " waiting for a connection; all " + maximumSize + " are in use", UNABLE_TO_CONNECT);
+      }
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+
+      throw new SQLException("Interrupted while waiting for a connection", UNABLE_TO_CONNECT, e);
+    }
+    finally {
+      waitNanos.add(System.nanoTime() - start);
+    }
+
+    try {
+      ensureNotClosed();  // may have been closed while waiting
+
+      Connection connection = createProxy(take(deadline));
+
+      acquires.increment();
+
+      return connection;
+    }
+    catch(Throwable t) {
+      permits.release();
+
+      throw t;
+    }
+  }
+
+  /**
+   * Closes this pool. Idle connections are closed immediately, and connections
+   * in use are closed when they are returned. Any further attempt to acquire a
+   * connection fails. Closing a pool which was already closed has no effect.
+   */
+  public void close() {
+    poolClosed = true;
+
+    discardIdleConnections();
+  }
+
+  /**
+   * Returns a snapshot of the statistics of this pool.
+   *
+   * @return a {@link PoolStatistics}, never {@code null}
+   */
+  public PoolStatistics statistics() {
+    int open = openConnections.get();
+
+    return new PoolStatistics(maximumSize, open, Math.max(0, Math.min(open, maximumSize - permits.availablePermits())), acquires.sum(), timeouts.sum(), Duration.ofNanos(waitNanos.sum()));
+  }
+
+  /*
+   * Takes an idle connection, validating it when it was idle for too long,
+   * or creates a new connection when there are no idle ones. Must only be
+   * called while holding a permit.
+   */
+
+  private PooledConnection take(long deadline) throws SQLException {
+    PooledConnection pooledConnection;
+
+    while((pooledConnection = idleConnections.pollFirst()) != null) {
+      long now = System.nanoTime();
+
+      if(now - pooledConnection.lastUsed < validationIntervalNanos) {
+        return pooledConnection;
+      }
+
+      int timeoutSeconds = (int)Math.max(1, TimeUnit.NANOSECONDS.toSeconds(deadline - now));  // zero would mean no timeout
+
+      if(pooledConnection.connection.isValid(timeoutSeconds)) {
+        return pooledConnection;
+      }
+
+      LOGGER.log(Level.DEBUG, "Discarding connection which is no longer valid: " + pooledConnection.connection);
+
+      discard(pooledConnection);
+    }
+
+    Connection connection = Objects.requireNonNull(connectionFactory.get(), "connectionFactory returned null");
+
+    openConnections.incrementAndGet();
+
+    return new PooledConnection(connection);
+  }
+
+  private void release(PooledConnection pooledConnection) {
+    try {
+      if(poolClosed || pooledConnection.connection.isClosed()) {
+        discard(pooledConnection);
+      }
+      else {
+        reset(pooledConnection);
+
+        pooledConnection.lastUsed = System.nanoTime();
+        idleConnections.offerFirst(pooledConnection);
+
+        if(poolClosed) {
+          discardIdleConnections();  // closed while being returned
+        }
+      }
+    }
+    catch(SQLException e) {
+      LOGGER.log(Level.DEBUG, "Discarding connection which could not be checked or reset: " + pooledConnection.connection, e);
+
+      discard(pooledConnection);
+    }
+    finally {
+      permits.release();
+    }
+  }
+
+  /*
+   * Rolls back any transaction left open, and resets the read only mode. An
+   * unknown auto commit state is determined first, as a transaction might be
+   * open when a call to change it failed.
+   */
+
+  private static void reset(PooledConnection pooledConnection) throws SQLException {
+    if(pooledConnection.autoCommit == null) {
+      pooledConnection.autoCommit = pooledConnection.connection.getAutoCommit();
+    }
+
+    if(!pooledConnection.autoCommit) {
+      pooledConnection.connection.rollback();
+    }
+
+    if(Boolean.TRUE.equals(pooledConnection.readOnly)) {
+      pooledConnection.connection.setReadOnly(false);
+      pooledConnection.readOnly = false;
+    }
+  }
+
+  private void discardIdleConnections() {
+    PooledConnection pooledConnection;
+
+    while((pooledConnection = idleConnections.pollFirst()) != null) {
+      discard(pooledConnection);
+    }
+  }
+
+  private void ensureNotClosed() throws SQLException {
+    if(poolClosed) {
+      throw new SQLNonTransientConnectionException("Connection pool was closed", CONNECTION_DOES_NOT_EXIST);
+    }
+  }
+
+  private void discard(PooledConnection pooledConnection) {
+    openConnections.decrementAndGet();
+
+    try {
+      pooledConnection.connection.close();
+    }
+    catch(SQLException e) {
+      LOGGER.log(Level.DEBUG, "Exception while closing connection: " + e);
+    }
+  }
+
+  private Connection createProxy(PooledConnection pooledConnection) {
+    return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new Handle(pooledConnection));
+  }
+
+  private static long saturatedNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    }
+    catch(ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /*
+   * A connection owned by the pool, with the state of the underlying
+   * connection it remembers. A null state means it is unknown.
+   */
+
+  private static class PooledConnection {
+    final Connection connection;
+
+    Boolean autoCommit;
+    Boolean readOnly;
+    long lastUsed;
+
+    PooledConnection(Connection connection) {
+      this.connection = connection;
+    }
+  }
+
+  /*
+   * Handles calls on a proxy handed out for a single acquisition. Once closed,
+   * the proxy no longer has access to the underlying connection, even though
+   * the connection is used again by the next acquisition.
+   */
+
+  private class Handle implements InvocationHandler {
+    private final PooledConnection pooledConnection;
+
+    private boolean closed;
+
+    Handle(PooledConnection pooledConnection) {
+      this.pooledConnection = pooledConnection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch(method.getName()) {
+        case "close":
+          if(!closed) {
+            closed = true;
+            release(pooledConnection);
+          }
+
+          return null;
+        case "isClosed":
+          return closed || pooledConnection.connection.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Pooled[" + pooledConnection.connection + (closed ? ", closed]" : "]");
+      }
+
+      if(closed) {
+        throw new SQLException("Connection was returned to the pool", CONNECTION_DOES_NOT_EXIST);
+      }
+
+      switch(method.getName()) {
+        case "getAutoCommit":
+          if(pooledConnection.autoCommit == null) {
+            pooledConnection.autoCommit = pooledConnection.connection.getAutoCommit();
+          }
+
+          return pooledConnection.autoCommit;
+        case "setAutoCommit":
+          if(!args[0].equals(pooledConnection.autoCommit)) {
+            pooledConnection.autoCommit = null;  // unknown should the call fail
+            pooledConnection.connection.setAutoCommit((Boolean)args[0]);
+            pooledConnection.autoCommit = (Boolean)args[0];
+          }
+
+          return null;
+        case "isReadOnly":
+          if(pooledConnection.readOnly == null) {
+            pooledConnection.readOnly = pooledConnection.connection.isReadOnly();
+          }
+
+          return pooledConnection.readOnly;
+        case "setReadOnly":
+          if(!args[0].equals(pooledConnection.readOnly)) {
+            pooledConnection.readOnly = null;  // unknown should the call fail
+            pooledConnection.connection.setReadOnly((Boolean)args[0]);
+            pooledConnection.readOnly = (Boolean)args[0];
+          }
+
+          return null;
+        default:
+          try {
+            return method.invoke(pooledConnection.connection, args);
+          }
+          catch(InvocationTargetException e) {
+            throw e.getCause();
+          }
+      }
+    }
+  }
+}
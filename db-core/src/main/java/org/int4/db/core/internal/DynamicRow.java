@@ -1,20 +1,27 @@
 package org.int4.db.core.internal;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.int4.db.core.reflect.Row;
 import org.int4.db.core.reflect.RowAccessException;
+import org.int4.db.core.reflect.RowMetaData;
 import org.int4.db.core.reflect.TypeConverter;
+import org.int4.db.core.reflect.TypeConverterResolver;
 
 class DynamicRow implements Row {
-  private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
+  private final TypeConverterResolver typeConverters;
   private final ResultSet rs;
 
+  private RowMetaData metaData;  // captured once per result set, on first use
+
   /*
    * Notes:
-   * - Getting column count is often cheap (no database call), at least for Postgres
+   * - Getting metadata can be expensive depending on the driver, and allocates; as this
+   *   instance is reused for all rows of a result set, it is captured only once
    * - Accessing columns by name is much slower and error prone (column names are not required to be unique in a result set)
    *
    * This class tunnels the SQLException in a wrapper as it is only supplied in cases
@@ -22,19 +29,44 @@ class DynamicRow implements Row {
    * other cases, a static row is returned which can't throw any exceptions.
    */
 
-  DynamicRow(Map<Class<?>, TypeConverter<?, ?>> typeConverters, ResultSet rs) {
+  DynamicRow(TypeConverterResolver typeConverters, ResultSet rs) {
     this.typeConverters = typeConverters;
     this.rs = rs;
   }
 
   @Override
   public int getColumnCount() {
-    try {
-      return rs.getMetaData().getColumnCount();  // at least for Postgres, this is very cheap (no database call)
-    }
-    catch(SQLException e) {
-      throw new RowAccessException(e);
+    return getMetaData().getColumnCount();
+  }
+
+  @Override
+  public RowMetaData getMetaData() {
+    if(metaData == null) {
+      try {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int columnCount = rsmd.getColumnCount();
+        List<String> labels = new ArrayList<>(columnCount);
+        int[] types = new int[columnCount];
+        List<String> classNames = new ArrayList<>(columnCount);
+        int[] precisions = new int[columnCount];
+
+        for(int i = 0; i < columnCount; i++) {
+          String className = rsmd.getColumnClassName(i + 1);
+
+          labels.add(rsmd.getColumnLabel(i + 1));
+          types[i] = rsmd.getColumnType(i + 1);
+          classNames.add(className == null ? Object.class.getName() : className);
+          precisions[i] = Math.max(0, rsmd.getPrecision(i + 1));
+        }
+
+        this.metaData = new RowMetaData(labels, types, classNames, precisions);
+      }
+      catch(SQLException e) {
+        throw new RowAccessException(e);
+      }
     }
+
+    return metaData;
   }
 
   @Override
@@ -50,8 +82,7 @@ class DynamicRow implements Row {
   @Override
   public <T> T getObject(int columnIndex, Class<T> type) {
     try {
-      @SuppressWarnings("unchecked")
-      TypeConverter<T, Object> converter = (TypeConverter<T, Object>)typeConverters.get(type);
+      TypeConverter<T, Object> converter = typeConverters.resolve(type);
 
       if(converter != null) {
         Object object = rs.getObject(columnIndex + 1, converter.encodedClass());
@@ -0,0 +1,50 @@
+package org.int4.db.core.internal;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Specifies whether a statement should be prepared to return generated keys,
+ * and optionally which columns these should be.
+ *
+ * @param requested whether generated keys are requested
+ * @param columnNames the names of the columns to return, cannot be {@code null}, but can be empty to let the driver decide
+ */
+public record GeneratedKeys(boolean requested, List<String> columnNames) {
+
+  /**
+   * Requests no generated keys.
+   */
+  public static final GeneratedKeys NONE = new GeneratedKeys(false, List.of());
+
+  /**
+   * Requests the generated keys as determined by the JDBC driver.
+   */
+  public static final GeneratedKeys DEFAULT = new GeneratedKeys(true, List.of());
+
+  /**
+   * Constructs a new instance.
+   *
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when column names are specified while no keys are requested
+   */
+  public GeneratedKeys {
+    columnNames = List.copyOf(Objects.requireNonNull(columnNames, "columnNames"));
+
+    if(!requested && !columnNames.isEmpty()) {
+      throw new IllegalArgumentException("columnNames must be empty when no keys are requested: " + columnNames);
+    }
+  }
+
+  /**
+   * Creates a new instance requesting the given columns as generated keys. If
+   * no columns are given, the JDBC driver decides which columns to return.
+   *
+   * @param columnNames an array of column names, cannot be {@code null} or contain {@code null}s
+   * @return a {@link GeneratedKeys}, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public static GeneratedKeys of(String... columnNames) {
+    return columnNames.length == 0 ? DEFAULT : new GeneratedKeys(true, List.of(columnNames));
+  }
+}
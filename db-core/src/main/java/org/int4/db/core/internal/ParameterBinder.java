@@ -0,0 +1,72 @@
+package org.int4.db.core.internal;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.int4.db.core.reflect.TypeConverter;
+import org.int4.db.core.reflect.TypeConverterResolver;
+
+/**
+ * Binds values to a single parameter of a {@link PreparedStatement}. How
+ * a value is bound depends on its class, and is resolved once for the most
+ * recently seen class. As values bound to the same parameter are almost always
+ * of the same class, this avoids looking up a {@link TypeConverter} for each
+ * value bound.
+ */
+final class ParameterBinder {
+  private final TypeConverterResolver typeConverters;
+
+  /*
+   * Single entry cache. This field is deliberately not volatile; instances are
+   * shared between threads as part of a compiled template, but as Resolution
+   * is immutable, the worst that can happen is that a thread resolves the
+   * same class again.
+   */
+
+  private Resolution resolution;
+
+  ParameterBinder(TypeConverterResolver typeConverters, Class<?> expectedType) {
+    this.typeConverters = typeConverters;
+    this.resolution = expectedType == null ? null : resolve(expectedType);
+  }
+
+  void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+    if(value == null) {
+      ps.setNull(index, Types.NULL);
+
+      return;
+    }
+
+    Resolution resolution = this.resolution;
+
+    if(resolution == null || resolution.type != value.getClass()) {
+      resolution = resolve(value.getClass());
+
+      this.resolution = resolution;
+    }
+
+    resolution.bind(ps, index, value);
+  }
+
+  private Resolution resolve(Class<?> type) {
+    @SuppressWarnings("unchecked")
+    TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>)typeConverters.resolve(type);
+
+    return new Resolution(type, converter, converter == null && Enum.class.isAssignableFrom(type));
+  }
+
+  private record Resolution(Class<?> type, TypeConverter<Object, Object> converter, boolean isEnum) {
+    void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+      if(converter != null) {
+        ps.setObject(index, converter.encode(value));
+      }
+      else if(isEnum) {
+        ps.setString(index, ((Enum<?>)value).name());
+      }
+      else {
+        ps.setObject(index, value);
+      }
+    }
+  }
+}
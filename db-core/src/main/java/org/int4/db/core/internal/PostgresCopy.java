@@ -0,0 +1,210 @@
+package org.int4.db.core.internal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
+import org.int4.db.core.reflect.TypeConverter;
+import org.int4.db.core.reflect.TypeConverterResolver;
+import org.int4.db.core.util.ColumnExtractor;
+
+/**
+ * Bulk loads rows into a table using PostgreSQL's {@code COPY ... FROM STDIN}
+ * in text format. The PostgreSQL JDBC driver is accessed reflectively, so it
+ * is only required at runtime when this class is used.
+ */
+public final class PostgresCopy {
+  private static final String PG_CONNECTION_CLASS_NAME = "org.postgresql.PGConnection";
+  private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+  private final TypeConverterResolver typeConverters;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param typeConverters a {@link TypeConverterResolver}, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public PostgresCopy(TypeConverterResolver typeConverters) {
+    this.typeConverters = Objects.requireNonNull(typeConverters, "typeConverters");
+  }
+
+  /**
+   * Copies the given rows into the given table using the given connection.
+   * The rows are encoded while they are sent, so they never all need to be in
+   * memory at once.
+   *
+   * @param <T> the type of the rows
+   * @param connection a {@link Connection} to a PostgreSQL database, cannot be {@code null}
+   * @param table the {@link Identifier} of the table to copy into, cannot be {@code null}
+   * @param extractor an {@link Extractor} which determines the columns to copy, cannot be {@code null}
+   * @param rows an {@link Iterator} providing the rows to copy, cannot be {@code null}
+   * @return the number of rows copied, never negative
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws SQLFeatureNotSupportedException when the connection is not a PostgreSQL connection
+   * @throws SQLException when a database error occurs
+   */
+  public <T> long copyIn(Connection connection, Identifier table, Extractor<T> extractor, Iterator<T> rows) throws SQLException {
+    Objects.requireNonNull(connection, "connection");
+    Objects.requireNonNull(table, "table");
+    Objects.requireNonNull(extractor, "extractor");
+    Objects.requireNonNull(rows, "rows");
+
+    List<String> names = extractor.names();
+    int[] columns = IntStream.range(0, names.size()).filter(i -> !names.get(i).isEmpty()).toArray();
+    String sql = "COPY " + table.getIdentifier() + " (" + IntStream.of(columns).mapToObj(names::get).collect(Collectors.joining(", ")) + ") FROM STDIN";
+
+    return copyIn(connection, sql, new RowReader<>(rows, extractor.columnExtractor(), columns, names.size()));
+  }
+
+  private static long copyIn(Connection connection, String sql, Reader reader) throws SQLException {
+    Class<?> pgConnectionClass = findPGConnectionClass(connection);
+
+    if(pgConnectionClass == null || !connection.isWrapperFor(pgConnectionClass)) {
+      throw new SQLFeatureNotSupportedException("COPY is only supported for PostgreSQL connections: " + connection);
+    }
+
+    try {
+      Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnectionClass));
+      Method copyIn = copyManager.getClass().getMethod("copyIn", String.class, Reader.class);
+
+      return (long)copyIn.invoke(copyManager, sql, reader);
+    }
+    catch(InvocationTargetException e) {
+      if(e.getCause() instanceof SQLException se) {
+        throw se;
+      }
+      if(e.getCause() instanceof RuntimeException re) {
+        throw re;
+      }
+
+      throw new SQLException("COPY failed for: " + sql, e.getCause());
+    }
+    catch(NoSuchMethodException | IllegalAccessException e) {
+      throw new SQLFeatureNotSupportedException("Unsupported PostgreSQL driver version", e);
+    }
+  }
+
+  private static Class<?> findPGConnectionClass(Connection connection) {
+    for(ClassLoader classLoader : new ClassLoader[] {connection.getClass().getClassLoader(), Thread.currentThread().getContextClassLoader()}) {
+      try {
+        return Class.forName(PG_CONNECTION_CLASS_NAME, false, classLoader);
+      }
+      catch(ClassNotFoundException e) {
+        // try next
+      }
+    }
+
+    return null;
+  }
+
+  private void appendValue(StringBuilder sb, Object value) {
+    if(value == null) {
+      sb.append("\\N");
+
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>)typeConverters.resolve(value.getClass());
+    Object encoded = converter == null ? value : converter.encode(value);
+
+    switch(encoded) {
+      case null -> sb.append("\\N");
+      case byte[] bytes -> sb.append("\\\\x").append(HEX_FORMAT.formatHex(bytes));
+      case Boolean b -> sb.append(b ? 't' : 'f');
+      case Enum<?> e -> appendEscaped(sb, e.name());
+
+      // Include the offset, which the driver also implies when binding a Timestamp:
+      case Timestamp t -> sb.append(t.toInstant().atZone(ZoneId.systemDefault()).toOffsetDateTime());
+      default -> appendEscaped(sb, encoded.toString());
+    }
+  }
+
+  private static void appendEscaped(StringBuilder sb, String text) {
+    for(int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+
+      switch(c) {
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> sb.append(c);
+      }
+    }
+  }
+
+  private class RowReader<T> extends Reader {
+    private final Iterator<T> rows;
+    private final ColumnExtractor<T> columnExtractor;
+    private final int[] columns;
+    private final Object[] values;
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int position;
+
+    RowReader(Iterator<T> rows, ColumnExtractor<T> columnExtractor, int[] columns, int columnCount) {
+      this.rows = rows;
+      this.columnExtractor = columnExtractor;
+      this.columns = columns;
+      this.values = new Object[columnCount];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      if(position == buffer.length()) {
+        buffer.setLength(0);
+        position = 0;
+
+        while(buffer.length() < len && rows.hasNext()) {
+          appendRow(rows.next());
+        }
+
+        if(buffer.isEmpty()) {
+          return -1;
+        }
+      }
+
+      int count = Math.min(len, buffer.length() - position);
+
+      buffer.getChars(position, position + count, cbuf, off);
+      position += count;
+
+      return count;
+    }
+
+    private void appendRow(T row) {
+      columnExtractor.extractAll(row, values);
+
+      for(int i = 0; i < columns.length; i++) {
+        if(i != 0) {
+          buffer.append('\t');
+        }
+
+        appendValue(buffer, values[columns[i]]);
+      }
+
+      buffer.append('\n');
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+}
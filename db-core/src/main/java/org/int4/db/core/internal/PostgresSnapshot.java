@@ -0,0 +1,70 @@
+package org.int4.db.core.internal;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Shares a consistent snapshot between transactions on different connections
+ * using PostgreSQL's {@code pg_export_snapshot()} and {@code SET TRANSACTION SNAPSHOT}.
+ * The exporting transaction must stay open until all importing transactions
+ * have imported the snapshot.
+ */
+public final class PostgresSnapshot {
+  private static final Pattern SNAPSHOT_ID = Pattern.compile("[0-9A-Fa-f]+(-[0-9A-Fa-f]+)*");
+
+  private PostgresSnapshot() {
+  }
+
+  /**
+   * Exports the snapshot of the transaction active on the given connection.
+   *
+   * @param connection a {@link Connection} to a PostgreSQL database with an active transaction, cannot be {@code null}
+   * @return a snapshot identifier, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws SQLException when a database error occurs
+   */
+  public static String export(Connection connection) throws SQLException {
+    Objects.requireNonNull(connection, "connection");
+
+    try(
+      Statement statement = connection.createStatement();
+      ResultSet rs = statement.executeQuery("SELECT pg_export_snapshot()")
+    ) {
+      if(!rs.next()) {
+        throw new SQLException("pg_export_snapshot() returned no result");
+      }
+
+      return rs.getString(1);
+    }
+  }
+
+  /**
+   * Makes the transaction active on the given connection use the given snapshot.
+   * This must be done before the transaction executes its first query. As a
+   * snapshot can only be imported by a transaction with isolation level
+   * {@code REPEATABLE READ} or {@code SERIALIZABLE}, the isolation level is set
+   * to {@code REPEATABLE READ} for the transaction.
+   *
+   * @param connection a {@link Connection} to a PostgreSQL database with an active transaction, cannot be {@code null}
+   * @param snapshotId a snapshot identifier returned by {@link #export(Connection)}, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when the snapshot identifier is malformed
+   * @throws SQLException when a database error occurs
+   */
+  public static void use(Connection connection, String snapshotId) throws SQLException {
+    Objects.requireNonNull(connection, "connection");
+
+    if(!SNAPSHOT_ID.matcher(Objects.requireNonNull(snapshotId, "snapshotId")).matches()) {
+      throw new IllegalArgumentException("snapshotId is malformed: " + snapshotId);  // checked as it becomes part of the SQL
+    }
+
+    try(Statement statement = connection.createStatement()) {
+      // Both in one statement, as SET TRANSACTION SNAPSHOT does not accept parameters and this saves a round trip:
+      statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ; SET TRANSACTION SNAPSHOT '" + snapshotId + "'");
+    }
+  }
+}
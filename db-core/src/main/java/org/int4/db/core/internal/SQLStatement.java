@@ -7,6 +7,18 @@ import org.int4.db.core.internal.bridge.SQLResult;
 public interface SQLStatement extends AutoCloseable {
   SQLResult execute() throws SQLException;
 
+  /**
+   * Executes this statement for a result of which the rows will be read.
+   * Statements which do not return rows reject this before executing.
+   *
+   * @return an {@link SQLResult}, never {@code null}
+   * @throws SQLException when a database error occurred
+   * @throws IllegalStateException when this statement does not return rows
+   */
+  default SQLResult executeForRows() throws SQLException {
+    return execute();
+  }
+
   @Override
   void close() throws SQLException;
 }
\ No newline at end of file
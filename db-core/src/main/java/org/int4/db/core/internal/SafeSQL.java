@@ -1,18 +1,19 @@
 package org.int4.db.core.internal;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.RecordComponent;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,11 +21,15 @@ import java.util.stream.Collectors;
 
 import org.int4.db.core.internal.bridge.SQLResult;
 import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.FieldValueSetParameter;
+import org.int4.db.core.reflect.FlushStrategy;
 import org.int4.db.core.reflect.Identifier;
 import org.int4.db.core.reflect.Row;
 import org.int4.db.core.reflect.RowAccessException;
 import org.int4.db.core.reflect.TypeConverter;
+import org.int4.db.core.reflect.TypeConverterResolver;
 import org.int4.db.core.reflect.FieldValueSetParameter.Entries;
+import org.int4.db.core.reflect.FieldValueSetParameter.StreamedValues;
 import org.int4.db.core.reflect.FieldValueSetParameter.Values;
 import org.int4.db.core.util.ThrowingSupplier;
 
@@ -36,21 +41,80 @@ public class SafeSQL {
   private static final Predicate<String> NOT_EMPTY = Predicate.not(String::isEmpty);
   private static final Pattern ALIAS = Pattern.compile(".*? (([a-zA-Z][a-zA-Z_0-9]*) *\\. *)");
 
-  private final String sql;
+  private final StringTemplate template;
+  private final CompiledTemplate compiledTemplate;
   private final List<Object> values;
-  private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
+  private final TypeConverterResolver typeConverters;
+  private final TemplateCache templateCache;  // can be null
+  private final int multiRowIndex;  // -1 when there are no multi-row values
+  private final int maximumRowsPerStatement;
 
   /**
-   * Constructs a new instance.
+   * Constructs a new instance which compiles the given template without
+   * consulting a cache.
    *
    * @param template a {@link StringTemplate}, cannot be {@code null}
    * @param typeConverters a map of {@link TypeConverter}s, cannot be {@code null}
    * @throws NullPointerException when any argument is {@code null}
    */
   public SafeSQL(StringTemplate template, Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
+    this(template, TypeConverterResolver.of(typeConverters), null, null);
+  }
+
+  /**
+   * Constructs a new instance which reuses the compilation results of earlier
+   * templates of the same shape from the given {@link TemplateCache}. The cache
+   * must not be shared with instances using different type converters.
+   *
+   * @param template a {@link StringTemplate}, cannot be {@code null}
+   * @param typeConverters a map of {@link TypeConverter}s, cannot be {@code null}
+   * @param templateCache a {@link TemplateCache}, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public SafeSQL(StringTemplate template, Map<Class<?>, TypeConverter<?, ?>> typeConverters, TemplateCache templateCache) {
+    this(template, TypeConverterResolver.of(typeConverters), Objects.requireNonNull(templateCache, "templateCache"), null);
+  }
+
+  /**
+   * Constructs a new instance which reuses the compilation results of earlier
+   * templates of the same shape from the given {@link TemplateCache}. The cache
+   * must not be shared with instances using a different resolver. Sharing a
+   * resolver between instances means each class is only resolved to its
+   * {@link TypeConverter} once.
+   *
+   * @param template a {@link StringTemplate}, cannot be {@code null}
+   * @param typeConverters a {@link TypeConverterResolver}, cannot be {@code null}
+   * @param templateCache a {@link TemplateCache}, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public SafeSQL(StringTemplate template, TypeConverterResolver typeConverters, TemplateCache templateCache) {
+    this(template, Objects.requireNonNull(typeConverters, "typeConverters"), Objects.requireNonNull(templateCache, "templateCache"), null);
+  }
+
+  private SafeSQL(StringTemplate template, TypeConverterResolver typeConverters, TemplateCache templateCache, Void unused) {
+    this.template = template;
     this.values = template.values();
-    this.typeConverters = Map.copyOf(Objects.requireNonNull(typeConverters, "typeConverters"));
-    this.sql = createSQL(template);
+    this.typeConverters = typeConverters;
+    this.templateCache = templateCache;
+    this.multiRowIndex = indexOfMultiRowValues(template);
+    this.maximumRowsPerStatement = multiRowIndex == -1 ? 1 : maximumRowsPerStatement((Values)values.get(multiRowIndex));
+    this.compiledTemplate = compiledTemplate(multiRowIndex == -1 ? 1 : rowsPerStatement(((Values)values.get(multiRowIndex)).batchSize()));
+  }
+
+  private CompiledTemplate compiledTemplate(int rows) {
+    if(templateCache == null) {
+      return compile(rows);
+    }
+
+    TemplateCache.Key key = new TemplateCache.Key(template.fragments(), shapesOf(template, rows));
+    CompiledTemplate compiledTemplate = templateCache.get(key);
+
+    if(compiledTemplate == null) {
+      compiledTemplate = compile(rows);
+      templateCache.put(key, compiledTemplate);
+    }
+
+    return compiledTemplate;
   }
 
   /**
@@ -59,110 +123,508 @@ public class SafeSQL {
    * @return the generated SQL string, never {@code null}
    */
   public String getSQL() {
-    return sql;
+    return compiledTemplate.sql();
   }
 
   @Override
   public String toString() {
-    return sql;
+    return compiledTemplate.sql();
+  }
+
+  /**
+   * Creates a new {@link SQLStatement} for this template using the given
+   * {@link Connection}. The statement is closed when the {@link SQLStatement}
+   * is closed.
+   *
+   * @param connection a {@link Connection}, cannot be {@code null}
+   * @param generatedKeys the {@link GeneratedKeys} the statement should return, cannot be {@code null}
+   * @return a {@link SQLStatement}, never {@code null}
+   * @throws SQLException when a database error occurs
+   */
+  public SQLStatement toSQLStatement(Connection connection, GeneratedKeys generatedKeys) throws SQLException {
+    return toSQLStatement(new StatementCache(connection, 0, new CacheCounters()), generatedKeys, 0);
+  }
+
+  /**
+   * Creates a new {@link SQLStatement} for this template, reusing a previously
+   * prepared statement from the given {@link StatementCache} if available. When
+   * the {@link SQLStatement} is closed, the underlying statement is returned to
+   * the cache, unless an error occurred while using it.
+   *
+   * @param statementCache a {@link StatementCache}, cannot be {@code null}
+   * @param generatedKeys the {@link GeneratedKeys} the statement should return, cannot be {@code null}
+   * @param fetchSize the number of rows the driver should fetch at a time, or zero to let the driver decide
+   * @return a {@link SQLStatement}, never {@code null}
+   * @throws SQLException when a database error occurs
+   */
+  public SQLStatement toSQLStatement(StatementCache statementCache, GeneratedKeys generatedKeys, int fetchSize) throws SQLException {
+    if(multiRowIndex != -1) {
+      if(generatedKeys.requested()) {
+        throw new IllegalArgumentException("statements with multi-row values cannot return generated keys: " + this);
+      }
+
+      return new MultiRowSQLStatement(Objects.requireNonNull(statementCache, "statementCache"));
+    }
+
+    return new CachedSQLStatement(statementCache, new StatementCache.Key(compiledTemplate.sql(), Objects.requireNonNull(generatedKeys, "generatedKeys")), fetchSize);
   }
 
-  public SQLStatement toSQLStatement(Connection connection) throws SQLException {
-    return new SQLStatement() {
-      final PreparedStatement ps;
-      final boolean isBatch;
+  private class CachedSQLStatement implements SQLStatement {
+    final StatementCache statementCache;
+    final StatementCache.Key key;
+    final PreparedStatement ps;
+    final Batch batch;
+    final boolean isBatch;
+    final int fetchSize;
+    final List<ResultSet> resultSets = new ArrayList<>(1);
+
+    boolean failed;
+    long batchUpdateCount;
+
+    CachedSQLStatement(StatementCache statementCache, StatementCache.Key key, int fetchSize) throws SQLException {
+      this.statementCache = statementCache;
+      this.key = key;
+      this.ps = statementCache.acquire(key);
+      this.fetchSize = fetchSize;
+
+      try {
+        this.batch = createBatch(values);
+        this.isBatch = batch != null;
+
+        if(!isBatch) {
+          bindRow(ps, 0);
+        }
 
-      {
-        ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-        isBatch = fillParameters(ps, values);
+        if(fetchSize != 0) {
+          ps.setFetchSize(fetchSize);
+        }
       }
+      catch(Throwable t) {
+        if(ps != null) {
+          statementCache.discard(ps);
+        }
 
-      @Override
-      public SQLResult execute() throws SQLException {
+        throw t;
+      }
+    }
+
+    @Override
+    public SQLResult execute() throws SQLException {
+      try {
         if(isBatch) {
-          ps.executeBatch();
+          batchUpdateCount = executeBatch();
         }
         else {
           ps.execute();
         }
+      }
+      catch(SQLException | RuntimeException e) {
+        failed = true;
+
+        throw e;
+      }
+
+      return new SQLResult() {
+        @Override
+        public Iterator<Row> createIterator() {
+          return createRowIterator(() -> open(ps.getResultSet()));
+        }
 
-        return new SQLResult() {
-          @Override
-          public Iterator<Row> createIterator() {
-            return createRowIterator(ps::getResultSet);
+        @Override
+        public Iterator<Row> createGeneratedKeysIterator() {
+          return createRowIterator(() -> open(ps.getGeneratedKeys()));
+        }
+
+        @Override
+        public long getUpdateCount() {
+          if(isBatch) {
+            return batchUpdateCount;
           }
 
-          @Override
-          public Iterator<Row> createGeneratedKeysIterator() {
-            return createRowIterator(ps::getGeneratedKeys);
+          try {
+            return ps.getLargeUpdateCount();
           }
+          catch(SQLException e) {
+            failed = true;
+
+            throw new RowAccessException(e);
+          }
+        }
+      };
+    }
+
+    /*
+     * Binds and adds rows to the batch, and sends them to the database each
+     * time the number of rows determined by the flush strategy was added.
+     * When generated keys are requested, all rows are sent at once, as only
+     * the keys of the last part would be available otherwise.
+     */
+
+    private long executeBatch() throws SQLException {
+      FlushStrategy flushStrategy = batch.streamedValues == null ? FlushStrategy.DEFAULT : batch.streamedValues.flushStrategy();
+      LongConsumer progressListener = batch.streamedValues == null ? rowCount -> {} : batch.streamedValues.progressListener();
+      boolean flushOnce = key.generatedKeys().requested();
+      int maximumRows = flushOnce ? Integer.MAX_VALUE : checkRows(flushStrategy, flushStrategy.initialRows());
+      int pendingRows = 0;
+      long rowsSent = 0;
+      long updateCount = 0;
+
+      for(int row = 0; batch.next(row); row++) {
+        bindRow(ps, batch.streamedValues == null ? row : 0);
+        ps.addBatch();
+
+        if(++pendingRows == maximumRows) {
+          long startNanos = System.nanoTime();
+
+          updateCount += sum(ps.executeBatch());
+          maximumRows = checkRows(flushStrategy, flushStrategy.nextRows(pendingRows, System.nanoTime() - startNanos));
+          rowsSent += pendingRows;
+          pendingRows = 0;
+          progressListener.accept(rowsSent);
+        }
+      }
+
+      if(pendingRows > 0) {
+        updateCount += sum(ps.executeBatch());
+        rowsSent += pendingRows;
+        progressListener.accept(rowsSent);
+      }
+
+      return updateCount;
+    }
+
+    private static int checkRows(FlushStrategy flushStrategy, int rows) {
+      if(rows <= 0) {
+        throw new IllegalStateException(flushStrategy + " must return a positive number of rows, but returned: " + rows);  // the batch would otherwise never be sent until the end
+      }
+
+      return rows;
+    }
+
+    private ResultSet open(ResultSet rs) {
+      if(rs != null) {
+        resultSets.add(rs);
+      }
+
+      return rs;
+    }
+
+    private Iterator<Row> createRowIterator(ThrowingSupplier<ResultSet, SQLException> resultSetSupplier) {
+      try {
+        return new Iterator<>() {
+          final ResultSet rs = resultSetSupplier.get();
+          final DynamicRow row = new DynamicRow(typeConverters, rs);
+
+          boolean nextResult;
+          boolean nextCalled;
 
           @Override
-          public long getUpdateCount() {
-            try {
-              return ps.getLargeUpdateCount();
+          public boolean hasNext() {
+            if(!nextCalled) {
+              try {
+                nextResult = rs.next();
+                nextCalled = true;
+              }
+              catch(SQLException e) {
+                failed = true;
+
+                throw new RowAccessException(e);
+              }
             }
-            catch(SQLException e) {
-              throw new RowAccessException(e);
+
+            return nextResult;
+          }
+
+          @Override
+          public Row next() {
+            if(!hasNext()) {
+              throw new NoSuchElementException();
             }
+
+            nextCalled = false;
+
+            return row;
           }
         };
       }
+      catch(SQLException e) {
+        failed = true;
 
-      @Override
-      public void close() throws SQLException {
-        ps.close();
+        throw new RowAccessException(e);
       }
+    }
 
-      @Override
-      public String toString() {
-        return sql;
+    @Override
+    public void close() throws SQLException {
+      if(failed) {
+        statementCache.discard(ps);
+
+        return;
       }
-    };
+
+      try {
+        for(ResultSet rs : resultSets) {
+          rs.close();
+        }
+
+        if(fetchSize != 0) {
+          ps.setFetchSize(0);  // so the statement can be reused with the default fetch size
+        }
+      }
+      catch(SQLException e) {
+        statementCache.discard(ps);
+
+        throw e;
+      }
+
+      statementCache.release(key, ps, isBatch);
+    }
+
+    @Override
+    public String toString() {
+      return key.sql();
+    }
   }
 
-  private Iterator<Row> createRowIterator(ThrowingSupplier<ResultSet, SQLException> resultSetSupplier) {
-    try {
-      return new Iterator<>() {
-        final ResultSet rs = resultSetSupplier.get();
-        final DynamicRow row = new DynamicRow(typeConverters, rs);
+  /**
+   * Statement which inserts multi-row values with as few statements as
+   * possible. Each statement is executed and released immediately.
+   */
+  private class MultiRowSQLStatement implements SQLStatement {
+    final StatementCache statementCache;
 
-        boolean nextResult;
-        boolean nextCalled;
+    MultiRowSQLStatement(StatementCache statementCache) {
+      this.statementCache = statementCache;
+    }
 
-        @Override
-        public boolean hasNext() {
-          if(!nextCalled) {
-            try {
-              nextResult = rs.next();
-              nextCalled = true;
-            }
-            catch(SQLException e) {
-              throw new RowAccessException(e);
+    @Override
+    public SQLResult executeForRows() {
+      throw new IllegalStateException("statements with multi-row values do not return rows: " + SafeSQL.this);  // rejected before any rows are inserted
+    }
+
+    @Override
+    public SQLResult execute() throws SQLException {
+      int batchSize = ((Values)values.get(multiRowIndex)).batchSize();
+      long updateCount = 0;
+
+      for(int row = 0; row < batchSize;) {
+        int rows = rowsPerStatement(batchSize - row);
+        CompiledTemplate compiledTemplate = rows == maximumRowsPerStatement ? SafeSQL.this.compiledTemplate : compiledTemplate(rows);
+        StatementCache.Key key = new StatementCache.Key(compiledTemplate.sql(), GeneratedKeys.NONE);
+        PreparedStatement ps = statementCache.acquire(key);
+
+        try {
+          Binder[] binders = compiledTemplate.binders();
+
+          for(int i = 0; i < binders.length; i++) {
+            if(binders[i] != null) {
+              binders[i].bind(ps, i == multiRowIndex ? row : 0, values.get(i));
             }
           }
 
-          return nextResult;
+          updateCount += ps.executeLargeUpdate();
+        }
+        catch(SQLException | RuntimeException e) {
+          statementCache.discard(ps);
+
+          throw e;
         }
 
+        statementCache.release(key, ps, false);
+        row += rows;
+      }
+
+      long totalUpdateCount = updateCount;
+
+      return new SQLResult() {
         @Override
-        public Row next() {
-          if(!hasNext()) {
-            throw new NoSuchElementException();
-          }
+        public Iterator<Row> createIterator() {
+          throw new IllegalStateException("statements with multi-row values do not return rows: " + SafeSQL.this);
+        }
 
-          nextCalled = false;
+        @Override
+        public Iterator<Row> createGeneratedKeysIterator() {
+          throw new IllegalStateException("statements with multi-row values do not return generated keys: " + SafeSQL.this);
+        }
 
-          return row;
+        @Override
+        public long getUpdateCount() {
+          return totalUpdateCount;
         }
       };
     }
-    catch(SQLException e) {
-      throw new RowAccessException(e);
+
+    @Override
+    public void close() {
+      // statements are released after each execution
+    }
+
+    @Override
+    public String toString() {
+      return compiledTemplate.sql();
+    }
+  }
+
+  /*
+   * The shape of a value captures everything about the value that influences
+   * the generated SQL. Two templates with the same fragments and values of
+   * the same shapes will always compile to the same SQL.
+   */
+
+  private record ListShape(Object elementShape) {}
+  private record ExtractorShape(List<String> names) {}
+  private record EntriesShape(List<String> names) {}
+  private record ValuesShape(List<String> names) {}
+  private record MultiRowValuesShape(List<String> names, int rows) {}
+  private record IdentifierShape(String identifier) {}
+
+  private static List<Object> shapesOf(StringTemplate template, int rows) {
+    List<Object> values = template.values();
+    Object[] shapes = new Object[values.size()];
+
+    for(int i = 0; i < shapes.length; i++) {
+      Object value = values.get(i);
+
+      shapes[i] = value instanceof List<?> l ? new ListShape(shapeOf(requireNonEmpty(l, i, template).getFirst(), rows)) : shapeOf(value, rows);
+    }
+
+    return Arrays.asList(shapes);
+  }
+
+  private static Object shapeOf(Object value, int rows) {
+    return switch(value) {
+      case null -> null;
+      case Extractor<?> e -> new ExtractorShape(e.names());
+      case Entries e -> new EntriesShape(e.names());
+      case Values v when v.isMultiRow() -> new MultiRowValuesShape(v.names(), rows);
+      case Values v -> new ValuesShape(v.names());
+      case StreamedValues v -> new ValuesShape(v.names());
+      case Identifier i -> new IdentifierShape(i.getIdentifier());
+      default -> value.getClass();  // type converters are keyed on class, so a class fully determines how a value is templated
+    };
+  }
+
+  private static List<?> requireNonEmpty(List<?> list, int index, StringTemplate template) {
+    if(list.isEmpty()) {
+      throw new IllegalArgumentException("parameter " + index + " of type " + list.getClass() + " should not be empty: " + template);
+    }
+
+    return list;
+  }
+
+  /*
+   * Multi-row values must be the only content of their enclosing parentheses,
+   * so the SQL can be expanded to multiple rows by closing and opening
+   * parentheses between rows. As the rows of such values are spread over
+   * several statements, they cannot be combined with other batches.
+   */
+
+  private static int indexOfMultiRowValues(StringTemplate template) {
+    List<String> fragments = template.fragments();
+    List<Object> values = template.values();
+    int multiRowIndex = -1;
+    boolean hasBatches = false;
+
+    for(int i = 0; i < values.size(); i++) {
+      Object value = values.get(i);
+
+      if(value instanceof Values v && v.isMultiRow()) {
+        if(multiRowIndex != -1) {
+          throw new IllegalArgumentException("only one multi-row values parameter is supported: " + template);
+        }
+        if(!fragments.get(i).stripTrailing().endsWith("(") || !fragments.get(i + 1).stripLeading().startsWith(")")) {
+          throw new IllegalArgumentException("multi-row values must be the only content of their enclosing parentheses: " + template);
+        }
+
+        multiRowIndex = i;
+      }
+      else if(value instanceof StreamedValues || (value instanceof Values v && v.batchSize() > 1) || (value instanceof List<?> l && l.size() > 1)) {
+        hasBatches = true;
+      }
+    }
+
+    if(multiRowIndex != -1 && hasBatches) {
+      throw new IllegalArgumentException("multi-row values cannot be combined with other batches: " + template);
+    }
+
+    return multiRowIndex;
+  }
+
+  private int maximumRowsPerStatement(Values multiRowValues) {
+    int parametersPerRow = parameterCount(multiRowValues, 1);
+    int otherParameters = 0;
+
+    for(int i = 0; i < values.size(); i++) {
+      Object value = values.get(i);
+
+      if(i != multiRowIndex) {
+        otherParameters += parameterCount(value instanceof List<?> l ? requireNonEmpty(l, i, template).getFirst() : value, 1);
+      }
     }
+
+    int maximumRows = parametersPerRow == 0 ? multiRowValues.batchSize() : (multiRowValues.maximumParameters() - otherParameters) / parametersPerRow;
+
+    if(maximumRows < 1) {
+      throw new IllegalArgumentException("multi-row values require more than the maximum of " + multiRowValues.maximumParameters() + " parameters for a single row: " + template);
+    }
+
+    return maximumRows;
   }
 
-  private String createSQL(StringTemplate template) {
+  /*
+   * Returns the number of rows of the next statement given the number of
+   * rows remaining. Statements have the maximum number of rows, or a power
+   * of two number of rows for the remainder, which limits the number of
+   * distinct statements that are compiled, cached and prepared.
+   */
+
+  private int rowsPerStatement(int remainingRows) {
+    return remainingRows >= maximumRowsPerStatement ? maximumRowsPerStatement : Integer.highestOneBit(remainingRows);
+  }
+
+  private CompiledTemplate compile(int rows) {
+    return new CompiledTemplate(createSQL(rows), createBinders(rows));
+  }
+
+  private Binder[] createBinders(int rows) {
+    Binder[] binders = new Binder[values.size()];
+    int index = 1;
+
+    for(int i = 0; i < binders.length; i++) {
+      Object value = values.get(i);
+
+      binders[i] = value instanceof List<?> l ? new Binder.ListElements(createBinder(index, l.getFirst(), rows)) : createBinder(index, value, rows);
+      index += parameterCount(value instanceof List<?> l ? l.getFirst() : value, rows);
+    }
+
+    return binders;
+  }
+
+  private Binder createBinder(int index, Object value, int rows) {
+    return switch(value) {
+      case null -> new Binder.Single(index, new ParameterBinder(typeConverters, null));
+      case Extractor<?> e -> null;
+      case Identifier i -> null;
+      case Values v when v.isMultiRow() -> new Binder.MultiRowFieldValues(Binder.FieldValues.of(index, v, typeConverters), rows);
+      case FieldValueSetParameter p -> Binder.FieldValues.of(index, p, typeConverters);
+      case Record r when typeConverters.resolve(r.getClass()) == null -> Binder.RecordComponents.of(index, r.getClass(), typeConverters);
+      default -> new Binder.Single(index, new ParameterBinder(typeConverters, value.getClass()));
+    };
+  }
+
+  private int parameterCount(Object value, int rows) {
+    return switch(value) {
+      case null -> 1;
+      case Extractor<?> e -> 0;
+      case Identifier i -> 0;
+      case Values v when v.isMultiRow() -> (int)v.names().stream().filter(NOT_EMPTY).count() * rows;
+      case FieldValueSetParameter p -> (int)p.names().stream().filter(NOT_EMPTY).count();
+      case Record r when typeConverters.resolve(r.getClass()) == null -> r.getClass().getRecordComponents().length;
+      default -> 1;
+    };
+  }
+
+  private String createSQL(int rows) {
     StringBuilder sb = new StringBuilder();
     List<String> fragments = template.fragments();
     List<Object> values = template.values();
@@ -174,15 +636,11 @@ public class SafeSQL {
       sb.append(fragment);
 
       if(value instanceof List<?> l) {
-        if(l.isEmpty()) {
-          throw new IllegalArgumentException("parameter " + i + " of type " + l.getClass() + " should not be empty: " + template);
-        }
-
         // Use first element of any list to build up the prepared statement:
-        value = l.getFirst();
+        value = requireNonEmpty(l, i, template).getFirst();
       }
 
-      appendTemplateValue(sb, value, fragment);
+      appendTemplateValue(sb, value, fragment, rows);
     }
 
     sb.append(fragments.getLast());
@@ -190,8 +648,9 @@ public class SafeSQL {
     return sb.toString();
   }
 
-  private void appendTemplateValue(StringBuilder sb, Object value, String fragment) {
+  private void appendTemplateValue(StringBuilder sb, Object value, String fragment, int rows) {
     switch(value) {
+      case null -> sb.append("?");
       case Extractor<?> r -> {
         Matcher matcher = ALIAS.matcher(fragment);
         String alias = matcher.matches() ? matcher.group(2) + "." : "";
@@ -203,10 +662,16 @@ public class SafeSQL {
         sb.append(r.names().stream().filter(NOT_EMPTY).map(n -> alias + n).collect(Collectors.joining(", ")));
       }
       case Entries e -> sb.append(e.names().stream().filter(NOT_EMPTY).map(t -> t + " = ?").collect(Collectors.joining(", ")));
+      case Values v when v.isMultiRow() -> {
+        String row = v.names().stream().filter(NOT_EMPTY).map(t -> "?").collect(Collectors.joining(", "));
+
+        sb.append(String.join("), (", Collections.nCopies(rows, row)));
+      }
       case Values v -> sb.append(v.names().stream().filter(NOT_EMPTY).map(t -> "?").collect(Collectors.joining(", ")));
+      case StreamedValues v -> sb.append(v.names().stream().filter(NOT_EMPTY).map(t -> "?").collect(Collectors.joining(", ")));
       case Identifier i -> sb.append(i.getIdentifier());
       default -> {
-        TypeConverter<?, ?> converter = typeConverters.get(value.getClass());
+        TypeConverter<?, ?> converter = typeConverters.resolve(value.getClass());
 
         switch(value) {
           case Record r when converter == null -> {
@@ -226,10 +691,40 @@ public class SafeSQL {
     }
   }
 
-  private boolean fillParameters(PreparedStatement ps, List<Object> values) throws SQLException {
+  /**
+   * The rows of a batch, which are either a known number of rows provided
+   * by lists and {@link Values}, or an unknown number of rows provided by
+   * {@link StreamedValues}.
+   */
+  private record Batch(int size, StreamedValues streamedValues) {
+    boolean next(int row) {
+      if(streamedValues == null) {
+        return row < size;
+      }
+
+      if(row == 0) {
+        streamedValues.start();
+      }
+
+      return streamedValues.advance();
+    }
+  }
+
+  private static Batch createBatch(List<Object> values) {
     int batchSize = -1;
+    StreamedValues streamedValues = null;
 
     for(Object value : values) {
+      if(value instanceof StreamedValues sv) {
+        if(streamedValues != null) {
+          throw new IllegalArgumentException("streamed batches cannot be combined with other batches");
+        }
+
+        streamedValues = sv;
+
+        continue;
+      }
+
       int size = value instanceof List<?> l ? l.size() : value instanceof Values v ? v.batchSize() : 1;
 
       assert size != 0 : "batches cannot be empty";  // shouldn't be able to get here with size == 0
@@ -244,78 +739,38 @@ public class SafeSQL {
       }
     }
 
-    if(batchSize == -1) {
-      batchSize = 1;
-    }
-
-    for(int row = 0; row < batchSize; row++) {
-      int index = 1;
-
-      for(Object value : values) {
-        if(value instanceof List<?> l) {
-          index = fillParameter(row, index, ps, l.get(row));
-        }
-        else {
-          index = fillParameter(row, index, ps, value);
-        }
+    if(streamedValues != null) {
+      if(batchSize != -1) {
+        throw new IllegalArgumentException("streamed batches cannot be combined with other batches");
       }
 
-      if(batchSize > 1) {
-        ps.addBatch();
-      }
+      return new Batch(-1, streamedValues);
     }
 
-    return batchSize > 1;
+    return batchSize == -1 ? null : new Batch(batchSize, null);
   }
 
-  private int fillParameter(int row, int startIndex, PreparedStatement ps, Object value) throws SQLException {
-    int index = startIndex;
+  private void bindRow(PreparedStatement ps, int row) throws SQLException {
+    Binder[] binders = compiledTemplate.binders();
 
-    switch(value) {
-      case null -> ps.setNull(index++, Types.NULL);
-      case Entries e -> {
-        for(int i = 0, max = e.size(); i < max; i++) {
-          String name = e.getName(i);
+    for(int i = 0; i < binders.length; i++) {
+      Binder binder = binders[i];
 
-          if(!name.isEmpty()) {
-            index = fillParameter(row, index, ps, e.getValue(row, i));
-          }
-        }
+      if(binder != null) {
+        binder.bind(ps, row, values.get(i));
       }
-      case Values v -> {
-        for(int i = 0, max = v.size(); i < max; i++) {
-          String name = v.getName(i);
+    }
+  }
 
-          if(!name.isEmpty()) {
-            index = fillParameter(row, index, ps, v.getValue(row, i));
-          }
-        }
-      }
-      case Extractor<?> r -> {}
-      case Identifier i -> {}
-      default -> {
-        @SuppressWarnings("unchecked")
-        TypeConverter<Object, Object> converter = (TypeConverter<Object, Object>) typeConverters.get(value.getClass());
+  private static long sum(int[] updateCounts) {
+    long sum = 0;
 
-        switch(value) {
-          case Object o when converter != null -> ps.setObject(index++, converter.encode(value));
-          case Enum<?> e -> ps.setString(index++, e.name());
-          case Record data -> {
-            for(RecordComponent recordComponent : data.getClass().getRecordComponents()) {
-              try {
-                index = fillParameter(row, index, ps, recordComponent.getAccessor().invoke(data));
-              }
-              catch(IllegalAccessException | InvocationTargetException ex) {
-                throw new IllegalStateException(ex);
-              }
-            }
-          }
-          default -> ps.setObject(index++, value);
-        }
+    for(int updateCount : updateCounts) {
+      if(updateCount > 0) {  // skips SUCCESS_NO_INFO and EXECUTE_FAILED, so rows of drivers which do not report counts are not counted
+        sum += updateCount;
       }
     }
 
-    return index;
+    return sum;
   }
-
 }
\ No newline at end of file
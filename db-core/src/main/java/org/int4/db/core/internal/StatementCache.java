@@ -0,0 +1,212 @@
+package org.int4.db.core.internal;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A least recently used cache of {@link PreparedStatement}s for a single
+ * {@link Connection}, keyed on their SQL and the generated keys they return.
+ * Statements are taken out of the cache while in use, and returned to it with
+ * their parameters cleared when released. A statement which was used when an
+ * error occurred should be discarded instead, which closes it.
+ *
+ * <p>Statements are prepared with forward only, read only result sets, which
+ * allows drivers to stream results instead of reading them into memory.
+ *
+ * <p>This class is not thread safe. It is intended to be used only by the
+ * transaction which owns the connection. The only exception is {@link #cancel()},
+ * which can be called from any thread.
+ */
+public final class StatementCache implements AutoCloseable {
+  private static final Logger LOGGER = System.getLogger(StatementCache.class.getName());
+  private static final String QUERY_CANCELED = "57014";  // SQL state used by PostgreSQL, among others, for cancelled statements
+
+  private final Connection connection;
+  private final int maximumSize;
+  private final CacheCounters counters;
+  private final Map<Key, PreparedStatement> statements = new LinkedHashMap<>();
+  private final Set<PreparedStatement> activeStatements = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));  // acquired and not yet released or discarded
+
+  private volatile boolean cancelled;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param connection a {@link Connection}, cannot be {@code null}
+   * @param maximumSize the maximum number of idle statements to keep, cannot be negative
+   * @param counters a {@link CacheCounters} to track hits, misses and evictions, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when {@code maximumSize} is negative
+   */
+  public StatementCache(Connection connection, int maximumSize, CacheCounters counters) {
+    if(maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+    }
+
+    this.connection = Objects.requireNonNull(connection, "connection");
+    this.maximumSize = maximumSize;
+    this.counters = Objects.requireNonNull(counters, "counters");
+  }
+
+  /**
+   * Returns the {@link Connection} this cache prepares statements for.
+   *
+   * @return a {@link Connection}, never {@code null}
+   */
+  public Connection getConnection() {
+    return connection;
+  }
+
+  PreparedStatement acquire(Key key) throws SQLException {
+    PreparedStatement ps = take(key);
+
+    activeStatements.add(ps);
+
+    /*
+     * Checked after adding the statement, as cancel sets the flag before
+     * cancelling the active statements: either cancel sees the statement, or
+     * the flag is seen here. Without this, a statement acquired just after
+     * cancel looked at the active statements would run to completion.
+     */
+
+    if(cancelled) {
+      discard(ps);
+
+      throw new SQLException("Statement was cancelled", QUERY_CANCELED);
+    }
+
+    return ps;
+  }
+
+  private PreparedStatement take(Key key) throws SQLException {
+    if(maximumSize == 0) {
+      return prepare(key);
+    }
+
+    PreparedStatement ps = statements.remove(key);
+
+    if(ps != null) {
+      counters.hit();
+
+      return ps;
+    }
+
+    counters.miss();
+
+    return prepare(key);
+  }
+
+  private PreparedStatement prepare(Key key) throws SQLException {
+    GeneratedKeys generatedKeys = key.generatedKeys();
+
+    if(!generatedKeys.requested()) {
+      return connection.prepareStatement(key.sql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    if(generatedKeys.columnNames().isEmpty()) {
+      return connection.prepareStatement(key.sql(), Statement.RETURN_GENERATED_KEYS);
+    }
+
+    return connection.prepareStatement(key.sql(), generatedKeys.columnNames().toArray(String[]::new));
+  }
+
+  void release(Key key, PreparedStatement ps, boolean isBatch) throws SQLException {
+    activeStatements.remove(ps);
+
+    if(maximumSize == 0) {
+      ps.close();
+
+      return;
+    }
+
+    if(statements.containsKey(key)) {  // another statement for the same key was released first
+      discard(ps);
+
+      return;
+    }
+
+    try {
+      ps.clearParameters();
+
+      if(isBatch) {
+        ps.clearBatch();
+      }
+    }
+    catch(SQLException e) {
+      discard(ps);
+
+      return;
+    }
+
+    while(statements.size() >= maximumSize) {
+      Iterator<PreparedStatement> iterator = statements.values().iterator();
+
+      discard(iterator.next());
+      iterator.remove();
+      counters.evict();
+    }
+
+    statements.put(key, ps);
+  }
+
+  void discard(PreparedStatement ps) {
+    activeStatements.remove(ps);
+
+    try {
+      ps.close();
+    }
+    catch(SQLException e) {
+      LOGGER.log(Level.DEBUG, "exception while closing statement: " + e);
+    }
+  }
+
+  /**
+   * Cancels all statements which are currently acquired from this cache, which
+   * includes any statement that is executing or whose results are still being
+   * read. Drivers which support cancellation abort the statement in the
+   * database, after which the thread executing it receives an {@link SQLException}.
+   * Statements acquired after this call fail immediately. Unlike the other
+   * methods of this class, this method can be called from any thread.
+   */
+  public void cancel() {
+    cancelled = true;
+
+    for(PreparedStatement ps : activeStatements.toArray(PreparedStatement[]::new)) {  // toArray is synchronized
+      try {
+        ps.cancel();
+      }
+      catch(SQLException e) {
+        LOGGER.log(Level.DEBUG, "exception while cancelling statement: " + e);
+      }
+    }
+  }
+
+  /**
+   * Closes all statements held by this cache.
+   */
+  @Override
+  public void close() {
+    statements.values().forEach(this::discard);
+    statements.clear();
+  }
+
+  /**
+   * Key identifying a prepared statement.
+   *
+   * @param sql the SQL of the statement, cannot be {@code null}
+   * @param generatedKeys the generated keys the statement was prepared to return, cannot be {@code null}
+   */
+  record Key(String sql, GeneratedKeys generatedKeys) {}
+}
@@ -0,0 +1,88 @@
+package org.int4.db.core.internal;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.int4.db.core.api.CacheStatistics;
+
+/**
+ * A bounded, thread safe cache of compiled templates. Templates are keyed on
+ * their fragments and on the shape of each of their values, which together
+ * fully determine the SQL generated for a template.
+ *
+ * <p>When the cache is full, an arbitrary entry is evicted to make room for
+ * a new one. As the number of distinct statements used by an application is
+ * normally small and stable, this should rarely happen when the cache is sized
+ * appropriately.
+ */
+public class TemplateCache {
+  private final int maximumSize;
+  private final Map<Key, CompiledTemplate> cache = new ConcurrentHashMap<>();
+  private final CacheCounters counters = new CacheCounters();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param maximumSize the maximum number of templates to cache, cannot be negative
+   * @throws IllegalArgumentException when {@code maximumSize} is negative
+   */
+  public TemplateCache(int maximumSize) {
+    if(maximumSize < 0) {
+      throw new IllegalArgumentException("maximumSize cannot be negative: " + maximumSize);
+    }
+
+    this.maximumSize = maximumSize;
+  }
+
+  CompiledTemplate get(Key key) {
+    CompiledTemplate compiledTemplate = cache.get(key);
+
+    if(compiledTemplate == null) {
+      counters.miss();
+    }
+    else {
+      counters.hit();
+    }
+
+    return compiledTemplate;
+  }
+
+  void put(Key key, CompiledTemplate compiledTemplate) {
+    if(maximumSize == 0) {
+      return;
+    }
+
+    while(cache.size() >= maximumSize) {
+      Iterator<Key> iterator = cache.keySet().iterator();
+
+      if(!iterator.hasNext()) {
+        break;
+      }
+
+      iterator.next();
+      iterator.remove();
+      counters.evict();
+    }
+
+    cache.putIfAbsent(key, compiledTemplate);
+  }
+
+  /**
+   * Returns a snapshot of the statistics of this cache.
+   *
+   * @return a {@link CacheStatistics}, never {@code null}
+   */
+  public CacheStatistics statistics() {
+    return counters.snapshot();
+  }
+
+  /**
+   * Key identifying the shape of a template.
+   *
+   * @param fragments the fragments of the template, cannot be {@code null}
+   * @param shapes the shapes of the values of the template, cannot be {@code null}
+   */
+  record Key(List<String> fragments, List<Object> shapes) {}
+}
@@ -3,11 +3,50 @@ package org.int4.db.core.internal.bridge;
 import java.util.Iterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.int4.db.core.reflect.Row;
 
 public interface Context<X extends Exception> {
+
+  /**
+   * Returns a context which executes the same statement, but prepared to make
+   * the given generated key columns available. When no column names are given,
+   * the JDBC driver decides which columns are returned.
+   *
+   * @param columnNames the names of the key columns to return, cannot be {@code null}
+   * @return a {@link Context}, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  Context<X> withGeneratedKeys(String... columnNames);
+
+  /**
+   * Returns a context which executes the same statement, but hints the JDBC
+   * driver to fetch the given number of rows at a time when reading results.
+   * A value of zero lets the driver decide.
+   *
+   * @param rows the number of rows to fetch at a time, cannot be negative
+   * @return a {@link Context}, never {@code null}
+   * @throws IllegalArgumentException when {@code rows} is negative
+   */
+  Context<X> withFetchSize(int rows);
+
   void execute() throws X;
   long executeUpdate() throws X;
   boolean consume(Consumer<Row> consumer, long max, Function<SQLResult, Iterator<Row>> resultExtractor) throws X;
+
+  /**
+   * Executes the statement and returns a lazy {@link Stream} over its rows.
+   * The statement remains open until the stream is closed or exhausted, or
+   * until the transaction which created it ends. Rows passed to the mapper
+   * may be reused, and so should not be retained.
+   *
+   * @param <T> the type of the stream elements
+   * @param resultExtractor a function which extracts the rows from the result, cannot be {@code null}
+   * @param mapper a function which converts each row to a stream element, cannot be {@code null}
+   * @return a {@link Stream}, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws X when execution fails
+   */
+  <T> Stream<T> stream(Function<SQLResult, Iterator<Row>> resultExtractor, Function<Row, T> mapper) throws X;
 }
\ No newline at end of file
@@ -0,0 +1,661 @@
+package org.int4.db.core.reflect;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable table of rows which stores its values per column. Columns of
+ * SQL integer, big integer, floating point and boolean types are stored as
+ * primitive arrays, with a bitmap tracking which of their values are
+ * {@code NULL}, provided their values are of the matching wrapper class.
+ * Values of other columns are stored in object arrays.
+ *
+ * <p>Values can be accessed directly by column and row index, or through
+ * a {@link Row} view of each row.
+ */
+public final class ColumnTable {
+  private final RowMetaData metaData;
+  private final Column[] columns;
+  private final int rowCount;
+
+  private ColumnTable(RowMetaData metaData, Column[] columns, int rowCount) {
+    this.metaData = metaData;
+    this.columns = columns;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Creates a new {@link Builder}.
+   *
+   * @return a new {@link Builder}, never {@code null}
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the metadata of the result this table was created from, if
+   * available.
+   *
+   * @return a {@link RowMetaData}, or {@code null} when not available
+   */
+  public RowMetaData getMetaData() {
+    return metaData;
+  }
+
+  /**
+   * Gets the number of rows in this table.
+   *
+   * @return the number of rows, never negative
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in this table. A table without rows created
+   * without metadata has no columns.
+   *
+   * @return the number of columns, never negative
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * Checks whether the value in the given column and row is {@code NULL}.
+   * The first column and row have index 0.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return {@code true} if the value is {@code NULL}, otherwise {@code false}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   */
+  public boolean isNull(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).isNull(rowIndex);
+  }
+
+  /**
+   * Gets the value in the given column and row as an {@code int}. Values
+   * which are {@code NULL} are returned as zero.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return the value as an {@code int}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   * @throws ClassCastException when the column does not contain {@code int}s
+   */
+  public int getInt(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).getInt(rowIndex);
+  }
+
+  /**
+   * Gets the value in the given column and row as a {@code long}. Values
+   * which are {@code NULL} are returned as zero.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return the value as a {@code long}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   * @throws ClassCastException when the column does not contain {@code long}s or {@code int}s
+   */
+  public long getLong(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).getLong(rowIndex);
+  }
+
+  /**
+   * Gets the value in the given column and row as a {@code double}. Values
+   * which are {@code NULL} are returned as zero.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return the value as a {@code double}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   * @throws ClassCastException when the column does not contain numbers
+   */
+  public double getDouble(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).getDouble(rowIndex);
+  }
+
+  /**
+   * Gets the value in the given column and row as a {@code boolean}. Values
+   * which are {@code NULL} are returned as {@code false}.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return the value as a {@code boolean}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   * @throws ClassCastException when the column does not contain {@code boolean}s
+   */
+  public boolean getBoolean(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).getBoolean(rowIndex);
+  }
+
+  /**
+   * Gets the value in the given column and row as an object. Values of
+   * primitive columns are boxed.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return the value, can be {@code null}
+   * @throws IndexOutOfBoundsException when an index is invalid
+   */
+  public Object getObject(int columnIndex, int rowIndex) {
+    return column(columnIndex, rowIndex).getObject(rowIndex);
+  }
+
+  /**
+   * Returns a {@link Row} view of the given row.
+   *
+   * @param rowIndex a row index, cannot be negative and must be less than the row count
+   * @return a {@link Row}, never {@code null}
+   * @throws IndexOutOfBoundsException when the index is invalid
+   */
+  public Row getRow(int rowIndex) {
+    return new RowView(metaData, columns, Objects.checkIndex(rowIndex, rowCount));
+  }
+
+  /**
+   * Returns a list of {@link Row} views of all rows in this table.
+   *
+   * @return an immutable list of {@link Row}s, never {@code null}
+   */
+  public List<Row> rows() {
+    return new AbstractList<>() {
+      @Override
+      public Row get(int index) {
+        return getRow(index);
+      }
+
+      @Override
+      public int size() {
+        return rowCount;
+      }
+    };
+  }
+
+  private Column column(int columnIndex, int rowIndex) {
+    Objects.checkIndex(rowIndex, rowCount);
+
+    return columns[Objects.checkIndex(columnIndex, columns.length)];
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnTable[columns = " + columns.length + ", rows = " + rowCount + "]";
+  }
+
+  /**
+   * Builds a {@link ColumnTable} from rows. The kind of storage used for each
+   * column is determined when the first row is added, from its metadata if
+   * available.
+   */
+  public static final class Builder {
+    private RowMetaData metaData;
+    private Column[] columns;
+    private int rowCount;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds the values of the given row to this builder, and returns a compact
+     * snapshot of the added values. The given row is not retained, so it can
+     * be reused after this call returns.
+     *
+     * <p>The returned snapshot shares its storage with all rows added to this
+     * builder, and so keeps this storage reachable. It is equal to a row
+     * created with {@link Row#of(Object...)} with the same values.
+     *
+     * @param row a {@link Row} to add, cannot be {@code null}
+     * @return a {@link Row} snapshot of the values added, never {@code null}
+     * @throws NullPointerException when any argument is {@code null}
+     * @throws IllegalArgumentException when the row has a different number of columns than previously added rows
+     */
+    public Row add(Row row) {
+      Objects.requireNonNull(row, "row");
+
+      if(columns == null) {
+        this.metaData = row.getMetaData();
+        this.columns = createColumns(metaData, row.getColumnCount());
+      }
+      else if(row.getColumnCount() != columns.length) {
+        throw new IllegalArgumentException("row must have " + columns.length + " columns: " + row);
+      }
+
+      for(int i = 0; i < columns.length; i++) {
+        columns[i].add(row, i, rowCount);
+      }
+
+      return new RowView(metaData, columns, rowCount++);
+    }
+
+    /**
+     * Returns the number of rows added to this builder.
+     *
+     * @return the number of rows added, never negative
+     */
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    /**
+     * Builds a {@link ColumnTable} containing the rows added so far.
+     *
+     * @return a {@link ColumnTable}, never {@code null}
+     */
+    public ColumnTable build() {
+      Column[] builtColumns = columns == null ? new Column[0] : new Column[columns.length];
+
+      for(int i = 0; i < builtColumns.length; i++) {
+        builtColumns[i] = columns[i].copy(rowCount);
+      }
+
+      return new ColumnTable(metaData, builtColumns, rowCount);
+    }
+
+    private static Column[] createColumns(RowMetaData metaData, int columnCount) {
+      Column[] columns = new Column[columnCount];
+
+      for(int i = 0; i < columnCount; i++) {
+        columns[i] = metaData == null ? new ObjectColumn(new Object[16]) : createColumn(metaData, i);
+      }
+
+      return columns;
+    }
+
+    /*
+     * Primitive storage is only used when the driver reports that the column
+     * holds values of the matching Java class, as the SQL type alone is not
+     * enough; an unsigned INTEGER in MySQL holds Longs, and a BIT with more
+     * than one bit in PostgreSQL is not a boolean, even though its driver
+     * reports Boolean as its class.
+     */
+
+    private static Column createColumn(RowMetaData metaData, int columnIndex) {
+      String className = metaData.getColumnClassName(columnIndex);
+
+      switch(metaData.getColumnType(columnIndex)) {
+        case Types.TINYINT, Types.SMALLINT, Types.INTEGER:
+          if(className.equals(Integer.class.getName())) {
+            return new IntColumn(new int[16], new BitSet());
+          }
+
+          break;
+        case Types.BIGINT:
+          if(className.equals(Long.class.getName())) {
+            return new LongColumn(new long[16], new BitSet());
+          }
+
+          break;
+        case Types.FLOAT, Types.DOUBLE:
+          if(className.equals(Double.class.getName())) {
+            return new DoubleColumn(new double[16], new BitSet());
+          }
+
+          break;
+        case Types.BIT, Types.BOOLEAN:
+          if(className.equals(Boolean.class.getName()) && metaData.getPrecision(columnIndex) <= 1) {
+            return new BooleanColumn(new BitSet(), new BitSet());
+          }
+
+          break;
+      }
+
+      return new ObjectColumn(new Object[16]);
+    }
+  }
+
+  /*
+   * Column storage. Primitive getters return zero for NULL values, which is
+   * what JDBC does as well. Reading a primitive from a Row only requires
+   * checking for NULL when it returned zero, avoiding boxing the value.
+   */
+
+  private static abstract class Column {
+    abstract void add(Row row, int columnIndex, int rowIndex);
+    abstract Column copy(int rowCount);
+    abstract boolean isNull(int rowIndex);
+    abstract Object getObject(int rowIndex);
+
+    int getInt(int rowIndex) {
+      return isNull(rowIndex) ? 0 : (Integer)getObject(rowIndex);
+    }
+
+    long getLong(int rowIndex) {
+      return isNull(rowIndex) ? 0 : (Long)getObject(rowIndex);
+    }
+
+    double getDouble(int rowIndex) {
+      return isNull(rowIndex) ? 0 : (Double)getObject(rowIndex);
+    }
+
+    boolean getBoolean(int rowIndex) {
+      return isNull(rowIndex) ? false : (Boolean)getObject(rowIndex);
+    }
+  }
+
+  private static final class IntColumn extends Column {
+    int[] values;
+    final BitSet nulls;
+
+    IntColumn(int[] values, BitSet nulls) {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Override
+    void add(Row row, int columnIndex, int rowIndex) {
+      int value = row.getInt(columnIndex);
+
+      if(rowIndex == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+
+      values[rowIndex] = value;
+
+      if(value == 0 && row.getObject(columnIndex) == null) {
+        nulls.set(rowIndex);
+      }
+    }
+
+    @Override
+    Column copy(int rowCount) {
+      return new IntColumn(Arrays.copyOf(values, rowCount), (BitSet)nulls.clone());
+    }
+
+    @Override
+    boolean isNull(int rowIndex) {
+      return nulls.get(rowIndex);
+    }
+
+    @Override
+    Object getObject(int rowIndex) {
+      return isNull(rowIndex) ? null : values[rowIndex];
+    }
+
+    @Override
+    int getInt(int rowIndex) {
+      return values[rowIndex];
+    }
+
+    @Override
+    long getLong(int rowIndex) {
+      return values[rowIndex];
+    }
+
+    @Override
+    double getDouble(int rowIndex) {
+      return values[rowIndex];
+    }
+  }
+
+  private static final class LongColumn extends Column {
+    long[] values;
+    final BitSet nulls;
+
+    LongColumn(long[] values, BitSet nulls) {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Override
+    void add(Row row, int columnIndex, int rowIndex) {
+      long value = row.getLong(columnIndex);
+
+      if(rowIndex == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+
+      values[rowIndex] = value;
+
+      if(value == 0 && row.getObject(columnIndex) == null) {
+        nulls.set(rowIndex);
+      }
+    }
+
+    @Override
+    Column copy(int rowCount) {
+      return new LongColumn(Arrays.copyOf(values, rowCount), (BitSet)nulls.clone());
+    }
+
+    @Override
+    boolean isNull(int rowIndex) {
+      return nulls.get(rowIndex);
+    }
+
+    @Override
+    Object getObject(int rowIndex) {
+      return isNull(rowIndex) ? null : values[rowIndex];
+    }
+
+    @Override
+    long getLong(int rowIndex) {
+      return values[rowIndex];
+    }
+
+    @Override
+    double getDouble(int rowIndex) {
+      return values[rowIndex];
+    }
+  }
+
+  private static final class DoubleColumn extends Column {
+    double[] values;
+    final BitSet nulls;
+
+    DoubleColumn(double[] values, BitSet nulls) {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Override
+    void add(Row row, int columnIndex, int rowIndex) {
+      double value = row.getDouble(columnIndex);
+
+      if(rowIndex == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+
+      values[rowIndex] = value;
+
+      if(value == 0 && row.getObject(columnIndex) == null) {
+        nulls.set(rowIndex);
+      }
+    }
+
+    @Override
+    Column copy(int rowCount) {
+      return new DoubleColumn(Arrays.copyOf(values, rowCount), (BitSet)nulls.clone());
+    }
+
+    @Override
+    boolean isNull(int rowIndex) {
+      return nulls.get(rowIndex);
+    }
+
+    @Override
+    Object getObject(int rowIndex) {
+      return isNull(rowIndex) ? null : values[rowIndex];
+    }
+
+    @Override
+    double getDouble(int rowIndex) {
+      return values[rowIndex];
+    }
+  }
+
+  private static final class BooleanColumn extends Column {
+    final BitSet values;
+    final BitSet nulls;
+
+    BooleanColumn(BitSet values, BitSet nulls) {
+      this.values = values;
+      this.nulls = nulls;
+    }
+
+    @Override
+    void add(Row row, int columnIndex, int rowIndex) {
+      if(row.getBoolean(columnIndex)) {
+        values.set(rowIndex);
+      }
+      else if(row.getObject(columnIndex) == null) {
+        nulls.set(rowIndex);
+      }
+    }
+
+    @Override
+    Column copy(int rowCount) {
+      return new BooleanColumn((BitSet)values.clone(), (BitSet)nulls.clone());
+    }
+
+    @Override
+    boolean isNull(int rowIndex) {
+      return nulls.get(rowIndex);
+    }
+
+    @Override
+    Object getObject(int rowIndex) {
+      return isNull(rowIndex) ? null : values.get(rowIndex);
+    }
+
+    @Override
+    boolean getBoolean(int rowIndex) {
+      return values.get(rowIndex);
+    }
+  }
+
+  private static final class ObjectColumn extends Column {
+    Object[] values;
+
+    ObjectColumn(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    void add(Row row, int columnIndex, int rowIndex) {
+      if(rowIndex == values.length) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+
+      values[rowIndex] = row.getObject(columnIndex);
+    }
+
+    @Override
+    Column copy(int rowCount) {
+      return new ObjectColumn(Arrays.copyOf(values, rowCount));
+    }
+
+    @Override
+    boolean isNull(int rowIndex) {
+      return values[rowIndex] == null;
+    }
+
+    @Override
+    Object getObject(int rowIndex) {
+      return values[rowIndex];
+    }
+  }
+
+  /*
+   * Row view on column storage. The storage of a builder may still grow, but
+   * only ever by appending rows, so views of rows already added remain valid.
+   */
+
+  private static final class RowView implements SnapshotRow {
+    private final RowMetaData metaData;
+    private final Column[] columns;
+    private final int rowIndex;
+
+    RowView(RowMetaData metaData, Column[] columns, int rowIndex) {
+      this.metaData = metaData;
+      this.columns = columns;
+      this.rowIndex = rowIndex;
+    }
+
+    private Column column(int columnIndex) {
+      return columns[Objects.checkIndex(columnIndex, columns.length)];
+    }
+
+    @Override
+    public int getColumnCount() {
+      return columns.length;
+    }
+
+    @Override
+    public RowMetaData getMetaData() {
+      return metaData;
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) {
+      return (byte[])getObject(columnIndex);
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+      return (String)getObject(columnIndex);
+    }
+
+    @Override
+    public Object getObject(int columnIndex) {
+      return column(columnIndex).getObject(rowIndex);
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> type) {
+      Object value = getObject(columnIndex);
+
+      if(value instanceof Timestamp t && type == Instant.class) {
+        return type.cast(t.toInstant());
+      }
+
+      return type.cast(value);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+      return column(columnIndex).getDouble(rowIndex);
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+      return column(columnIndex).getLong(rowIndex);
+    }
+
+    @Override
+    public int getInt(int columnIndex) {
+      return column(columnIndex).getInt(rowIndex);
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) {
+      return column(columnIndex).getBoolean(rowIndex);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.deepHashCode(toArray());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if(this == obj) {
+        return true;
+      }
+
+      return obj instanceof SnapshotRow other && Arrays.deepEquals(toArray(), other.toArray());
+    }
+
+    @Override
+    public String toString() {
+      return "Row[data = " + Arrays.toString(toArray()) + "]";
+    }
+  }
+}
@@ -5,30 +5,40 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.int4.db.core.util.ColumnExtractor;
 import org.int4.db.core.util.ThrowingFunction;
 
 final class DefaultReflector<T> implements Reflector<T> {
+  private static final int MAXIMUM_COLUMN_PLANS = 100;
+
   private final List<String> names;
   private final ColumnExtractor<T> columnExtractor;
   private final Class<T> type;
   private final Function<Row, T> creator;
+  private final boolean mapByName;
   private final List<IndexedMapping<T, Object>> mappings;     // Tree, with same number of leafs as fields
-  private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
+  private final TypeConverterResolver typeConverters;
+  private final TypeConverter<Object, Object>[] typeConverterSlots;  // Resolved converter per mapping, or null for inlines and mappings without one
+  private final List<ThrowingFunction<T, Object, Throwable>> columnFunctions;  // Flattened, with a function extracting each column's encoded value
+  private final Map<List<String>, int[]> columnPlans;  // Column index per name, keyed by the column labels of a result, or null when not mapping by name
+  private volatile ColumnPlan lastColumnPlan;  // Plan of the most recently mapped result, or null when none was mapped yet
 
-  DefaultReflector(Class<T> type, Function<Row, T> creator, List<IndexedMapping<T, Object>> mappings, Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
+  DefaultReflector(Class<T> type, Function<Row, T> creator, boolean mapByName, List<IndexedMapping<T, Object>> mappings, TypeConverterResolver typeConverters) {
     this.names = extractNames(Objects.requireNonNull(mappings, "mappings"));
-    this.columnExtractor = (obj, columnIndex) -> extract(obj, columnIndex);
+    this.columnExtractor = new DefaultColumnExtractor();
 
     this.type = Objects.requireNonNull(type, "type");
     this.creator = Objects.requireNonNull(creator, "creator");
+    this.mapByName = mapByName;
     this.mappings = List.copyOf(mappings);
-    this.typeConverters = Map.copyOf(typeConverters);
+    this.typeConverters = Objects.requireNonNull(typeConverters, "typeConverters");
 
     Set<String> uniqueNames = new HashSet<>();
 
@@ -37,6 +47,10 @@ final class DefaultReflector<T> implements Reflector<T> {
         throw new IllegalArgumentException("names cannot contain duplicate names, but found duplicate: " + name + " in: " + names);
       }
     }
+
+    this.typeConverterSlots = resolveTypeConverters(this.mappings, typeConverters);
+    this.columnFunctions = createColumnFunctions(this.mappings, typeConverterSlots);
+    this.columnPlans = mapByName ? new ConcurrentHashMap<>() : null;
   }
 
   @Override
@@ -51,7 +65,7 @@ final class DefaultReflector<T> implements Reflector<T> {
 
   @Override
   public T apply(Row row) {
-    return instantiate(row, 0);
+    return instantiate(mapByName ? new NameMappedRow().update(row) : row, 0);
   }
 
   @Override
@@ -59,6 +73,30 @@ final class DefaultReflector<T> implements Reflector<T> {
     return creator.apply(new RowAdapter(row, offset));
   }
 
+  @Override
+  public Mapper<T> bind() {
+    if(mapByName) {
+      Mapper<T> mapper = bind(0);
+      NameMappedRow adapter = new NameMappedRow();
+
+      return row -> mapper.apply(adapter.update(row));
+    }
+
+    return bind(0);
+  }
+
+  /*
+   * Creates a mapper which instantiates T from rows at the given offset. A
+   * tree of adapters with absolute column indexes is prepared once, after
+   * which each row only updates the row the adapters refer to.
+   */
+
+  private Mapper<T> bind(int offset) {
+    BoundRowAdapter adapter = new BoundRowAdapter(offset);
+
+    return adapter::instantiate;
+  }
+
   @Override
   public Class<T> getType() {
     return type;
@@ -91,7 +129,7 @@ final class DefaultReflector<T> implements Reflector<T> {
       fieldIndex += newMapping.columnCount();
     }
 
-    return new DefaultReflector<>(type, creator, newMappings, typeConverters);
+    return new DefaultReflector<>(type, creator, mapByName, newMappings, typeConverters);
   }
 
   @Override
@@ -112,7 +150,55 @@ final class DefaultReflector<T> implements Reflector<T> {
 
   @Override
   public Reflector<T> prefix(String prefix) {
-    return new DefaultReflector<>(type, creator, mappings.stream().map(m -> m.prefix(prefix)).toList(), typeConverters);
+    return new DefaultReflector<>(type, creator, mapByName, mappings.stream().map(m -> m.prefix(prefix)).toList(), typeConverters);
+  }
+
+  /*
+   * Resolves the type converter of each field mapping once, so the paths
+   * which read or extract values only need to index an array.
+   */
+
+  private static <T> TypeConverter<Object, Object>[] resolveTypeConverters(List<IndexedMapping<T, Object>> mappings, TypeConverterResolver typeConverters) {
+    @SuppressWarnings("unchecked")
+    TypeConverter<Object, Object>[] slots = new TypeConverter[mappings.size()];
+
+    for(int i = 0; i < slots.length; i++) {
+      if(mappings.get(i).mapping instanceof Mapping.Field<T, Object> f) {
+        slots[i] = typeConverters.resolve(f.type());
+      }
+    }
+
+    return slots;
+  }
+
+  /*
+   * Flattens the mapping tree into a function per column, which applies the
+   * extractors on the path from T to the column and encodes the result with
+   * the column's type converter, if any.
+   */
+
+  private static <T> List<ThrowingFunction<T, Object, Throwable>> createColumnFunctions(List<IndexedMapping<T, Object>> mappings, TypeConverter<Object, Object>[] typeConverterSlots) {
+    List<ThrowingFunction<T, Object, Throwable>> functions = new ArrayList<>();
+
+    for(int m = 0; m < mappings.size(); m++) {
+      IndexedMapping<T, Object> mapping = mappings.get(m);
+      ThrowingFunction<T, Object, Throwable> extractor = mapping.extractor();
+
+      switch(mapping.mapping) {
+        case Mapping.Field<T, Object> f -> {
+          TypeConverter<Object, Object> typeConverter = typeConverterSlots[m];
+
+          functions.add(typeConverter == null ? extractor : extractor.andThen(v -> v == null ? null : typeConverter.encode(v)));
+        }
+        case Mapping.Inline<T, Object> i -> {
+          for(ThrowingFunction<Object, Object, Throwable> function : ((DefaultReflector<Object>)i.reflector()).columnFunctions) {
+            functions.add(extractor.andThen(function));
+          }
+        }
+      }
+    }
+
+    return List.copyOf(functions);
   }
 
   private static <T, F> int columnIndexToMappingIndex(List<IndexedMapping<T, F>> mappings, int columnIndex) {
@@ -153,49 +239,133 @@ final class DefaultReflector<T> implements Reflector<T> {
     newMappings.add(new IndexedMapping<>(index, Mapping.inline(mapping.extractor(), castSubReflector)));
     newMappings.addAll(mappings.subList(mappingIndex + 1, mappings.size()).stream().map(m -> new IndexedMapping<>(m.columnIndex + shift, m.mapping)).toList());
 
-    return new DefaultReflector<>(type, creator, newMappings, typeConverters);
+    return new DefaultReflector<>(type, creator, mapByName, newMappings, typeConverters);
   }
 
   @Override
-  public <V> Reflector<T> addTypeConverter(Class<V> javaType, TypeConverter<V, ?> typeConverter) {
-    Map<Class<?>, TypeConverter<?, ?>> map = new HashMap<>(typeConverters);
-
-    map.put(javaType, typeConverter);
+  public Reflector<T> mappedByName() {
+    return mapByName ? this : new DefaultReflector<>(type, creator, true, mappings, typeConverters);
+  }
 
-    return new DefaultReflector<>(type, creator, mappings, map);
+  @Override
+  public <V> Reflector<T> addTypeConverter(Class<V> javaType, TypeConverter<V, ?> typeConverter) {
+    return new DefaultReflector<>(type, creator, mapByName, mappings, typeConverters.with(javaType, typeConverter));
   }
 
   private static <T, F> List<String> extractNames(List<IndexedMapping<T, F>> mappings) {
     return mappings.stream().flatMap(m -> m.names().stream()).toList();
   }
 
-  private Object extract(T obj, int columnIndex) {
-    try {
-      IndexedMapping<T, Object> mapping = mappings.get(columnIndexToMappingIndex(mappings, columnIndex));
-      Object result = mapping.extractor().apply(obj);
+  /*
+   * Returns for each name the index of the column with the same label in a
+   * result with the given metadata. As the labels of a result only depend on
+   * its query, a plan is created once per query and reused for all its results.
+   * Rows of the same result share their metadata, so the plan of the last
+   * result is kept to skip looking up the plan for each of its rows.
+   *
+   * The number of plans is limited, as reflectors are often shared by many
+   * queries. When the limit is reached all plans are discarded, as they are
+   * cheap to create again.
+   */
+
+  private int[] columnPlan(RowMetaData metaData) {
+    if(metaData == null) {
+      throw new IllegalStateException("rows must provide metadata to be mapped by name to: " + type);
+    }
 
-      if(mapping.mapping instanceof Mapping.Inline<T, Object> i) {
-        return i.reflector().columnExtractor().extract(result, columnIndex - mapping.columnIndex);
-      }
+    ColumnPlan plan = lastColumnPlan;
 
-      if(result == null) {
-        return null;
+    if(plan == null || plan.metaData != metaData) {
+      if(columnPlans.size() >= MAXIMUM_COLUMN_PLANS) {
+        columnPlans.clear();
       }
 
-      @SuppressWarnings("unchecked")
-      TypeConverter<Object, T> typeConverter = (TypeConverter<Object, T>)typeConverters.get(mapping.type());
+      plan = new ColumnPlan(metaData, columnPlans.computeIfAbsent(metaData.getColumnLabels(), this::createColumnPlan));
+      lastColumnPlan = plan;
+    }
 
-      if(typeConverter != null) {
-        return typeConverter.encode(result);
+    return plan.columns;
+  }
+
+  private int[] createColumnPlan(List<String> labels) {
+    Map<String, Integer> columnIndices = new HashMap<>();
+
+    for(int i = 0; i < labels.size(); i++) {
+      columnIndices.merge(labels.get(i).toLowerCase(Locale.ROOT), i, (a, b) -> -1);
+    }
+
+    int[] columns = new int[names.size()];
+
+    for(int i = 0; i < columns.length; i++) {
+      Integer columnIndex = columnIndices.get(names.get(i).toLowerCase(Locale.ROOT));
+
+      if(columnIndex == null) {
+        throw new IllegalStateException("result has no column labeled '" + names.get(i) + "' to map to: " + type + "; labels were: " + labels);
+      }
+      if(columnIndex == -1) {
+        throw new IllegalStateException("result has multiple columns labeled '" + names.get(i) + "' to map to: " + type + "; labels were: " + labels);
       }
 
-      return result;
+      columns[i] = columnIndex;
+    }
+
+    return columns;
+  }
+
+  private Object extract(T obj, int columnIndex) {
+    try {
+      return columnFunctions.get(columnIndex).apply(obj);
     }
     catch(Throwable e) {
       throw new IllegalStateException("Unable to access component " + columnIndex + " of " + obj, e);
     }
   }
 
+  /*
+   * Extracts all columns by walking the mapping tree once, so each extractor
+   * is called exactly once, including those of inlined reflectors. Only the
+   * failures of this reflector's own extractors and type converters are
+   * wrapped; those of inlined reflectors were wrapped by them already.
+   */
+
+  private void extractAll(T obj, Object[] values, int offset) {
+    for(int i = 0; i < mappings.size(); i++) {
+      IndexedMapping<T, Object> mapping = mappings.get(i);
+      int columnIndex = offset + mapping.columnIndex;
+      TypeConverter<Object, Object> typeConverter = typeConverterSlots[i];
+      Object result;
+
+      try {
+        result = mapping.extractor().apply(obj);
+        result = result == null || typeConverter == null ? result : typeConverter.encode(result);
+      }
+      catch(Throwable e) {
+        throw new IllegalStateException("Unable to access component " + columnIndex + " of " + obj, e);
+      }
+
+      switch(mapping.mapping) {
+        case Mapping.Field<T, Object> f -> values[columnIndex] = result;
+        case Mapping.Inline<T, Object> inline -> ((DefaultReflector<Object>)inline.reflector()).extractAll(result, values, columnIndex);
+      }
+    }
+  }
+
+  private class DefaultColumnExtractor implements ColumnExtractor<T> {
+    @Override
+    public Object extract(T t, int columnIndex) {
+      return DefaultReflector.this.extract(t, columnIndex);
+    }
+
+    @Override
+    public void extractAll(T t, Object[] values) {
+      if(values.length < names.size()) {
+        throw new IllegalArgumentException("values must have room for all " + names.size() + " columns, but its length was: " + values.length);
+      }
+
+      DefaultReflector.this.extractAll(t, values, 0);
+    }
+  }
+
   record IndexedMapping<T, F>(int columnIndex, Mapping<T, F> mapping) {
 
     int columnCount() {
@@ -225,7 +395,190 @@ final class DefaultReflector<T> implements Reflector<T> {
     }
   }
 
-  // TODO RowAdapters wrap every Row, but if the Row instance is the same (which happens with DynamicRow) these could be cached
+  /*
+   * Row adapter for use by a bound mapper. The absolute column indexes and
+   * the mappers for inlined reflectors are determined once, after which only
+   * the underlying row changes.
+   */
+
+  private class BoundRowAdapter implements Row {
+    private final int[] columnIndices = new int[mappings.size()];
+    private final Mapper<?>[] inlineMappers = new Mapper<?>[mappings.size()];
+
+    private Row row;
+
+    BoundRowAdapter(int offset) {
+      for(int i = 0; i < columnIndices.length; i++) {
+        IndexedMapping<T, Object> indexedMapping = mappings.get(i);
+
+        columnIndices[i] = indexedMapping.columnIndex + offset;
+
+        if(indexedMapping.mapping instanceof Mapping.Inline<T, Object> inline) {
+          inlineMappers[i] = ((DefaultReflector<Object>)inline.reflector()).bind(columnIndices[i]);
+        }
+      }
+    }
+
+    T instantiate(Row row) {
+      this.row = Objects.requireNonNull(row, "row");
+
+      return creator.apply(this);
+    }
+
+    private int map(int columnIndex) {
+      return columnIndices[Objects.checkIndex(columnIndex, columnIndices.length)];
+    }
+
+    @Override
+    public int getColumnCount() {
+      return columnIndices.length;
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) {
+      return row.getBytes(map(columnIndex));
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+      return row.getString(map(columnIndex));
+    }
+
+    @Override
+    public Object getObject(int columnIndex) {
+      return getObject(columnIndex, Object.class);
+    }
+
+    @Override
+    public <F> F getObject(int columnIndex, Class<F> type) {
+      Mapper<?> inlineMapper = inlineMappers[Objects.checkIndex(columnIndex, inlineMappers.length)];
+
+      if(inlineMapper != null) {
+        @SuppressWarnings("unchecked")
+        F t = (F)inlineMapper.apply(row);
+
+        return t;
+      }
+
+      @SuppressWarnings("unchecked")
+      TypeConverter<F, Object> typeConverter = (TypeConverter<F, Object>)typeConverterSlots[columnIndex];
+
+      if(typeConverter != null) {
+        Object result = row.getObject(map(columnIndex));
+
+        return result == null ? null : typeConverter.decode(result);
+      }
+
+      return row.getObject(map(columnIndex), type);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+      return row.getDouble(map(columnIndex));
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+      return row.getLong(map(columnIndex));
+    }
+
+    @Override
+    public int getInt(int columnIndex) {
+      return row.getInt(map(columnIndex));
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) {
+      return row.getBoolean(map(columnIndex));
+    }
+
+    @Override
+    public String toString() {
+      return "BoundRowAdapter[" + row + ", mappings = " + mappings + "]";
+    }
+  }
+
+  /*
+   * Row adapter which presents the columns of a row in the order of the names
+   * of this reflector. The column plan is only looked up again when a row has
+   * different metadata than the previous row.
+   */
+
+  private record ColumnPlan(RowMetaData metaData, int[] columns) {}
+
+  private class NameMappedRow implements Row {
+    private Row row;
+    private RowMetaData metaData;
+    private int[] columns;
+
+    Row update(Row row) {
+      RowMetaData metaData = Objects.requireNonNull(row, "row").getMetaData();
+
+      if(columns == null || metaData != this.metaData) {
+        this.columns = columnPlan(metaData);
+        this.metaData = metaData;
+      }
+
+      this.row = row;
+
+      return this;
+    }
+
+    private int map(int columnIndex) {
+      return columns[Objects.checkIndex(columnIndex, columns.length)];
+    }
+
+    @Override
+    public int getColumnCount() {
+      return columns.length;
+    }
+
+    @Override
+    public byte[] getBytes(int columnIndex) {
+      return row.getBytes(map(columnIndex));
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+      return row.getString(map(columnIndex));
+    }
+
+    @Override
+    public Object getObject(int columnIndex) {
+      return row.getObject(map(columnIndex));
+    }
+
+    @Override
+    public <F> F getObject(int columnIndex, Class<F> type) {
+      return row.getObject(map(columnIndex), type);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+      return row.getDouble(map(columnIndex));
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+      return row.getLong(map(columnIndex));
+    }
+
+    @Override
+    public int getInt(int columnIndex) {
+      return row.getInt(map(columnIndex));
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) {
+      return row.getBoolean(map(columnIndex));
+    }
+
+    @Override
+    public String toString() {
+      return "NameMappedRow[" + row + ", columns = " + Arrays.toString(columns) + "]";
+    }
+  }
+
   private class RowAdapter implements Row {
     private final Row row;
     private final int offset;
@@ -273,7 +626,7 @@ final class DefaultReflector<T> implements Reflector<T> {
       }
 
       @SuppressWarnings("unchecked")
-      TypeConverter<F, Object> typeConverter = (TypeConverter<F, Object>)typeConverters.get(indexedMapping.type());
+      TypeConverter<F, Object> typeConverter = (TypeConverter<F, Object>)typeConverterSlots[columnIndex];
 
       if(typeConverter != null) {
         Object result = row.getObject(map(columnIndex));
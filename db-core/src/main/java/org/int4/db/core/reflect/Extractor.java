@@ -1,12 +1,15 @@
 package org.int4.db.core.reflect;
 
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.int4.db.core.reflect.FieldValueSetParameter.Entries;
+import org.int4.db.core.reflect.FieldValueSetParameter.StreamedValues;
 import org.int4.db.core.reflect.FieldValueSetParameter.Values;
 import org.int4.db.core.util.ColumnExtractor;
 
@@ -41,7 +44,7 @@ public sealed interface Extractor<T> permits Reflector, DefaultExtractor {
    * @return an entries template parameter, never {@code null}
    */
   default Entries entries(T t) {
-    return new Entries(names(), index -> columnExtractor().extract(t, index));
+    return new Entries(names(), row -> extractAll(t), (row, index) -> columnExtractor().extract(t, index));
   }
 
   /**
@@ -52,7 +55,7 @@ public sealed interface Extractor<T> permits Reflector, DefaultExtractor {
    * @return a values template parameter, never {@code null}
    */
   default Values values(T t) {
-    return new Values(names(), index -> columnExtractor().extract(t, index));
+    return new Values(names(), 1, row -> extractAll(t), (row, index) -> columnExtractor().extract(t, index));
   }
 
   /**
@@ -70,7 +73,58 @@ public sealed interface Extractor<T> permits Reflector, DefaultExtractor {
       throw new IllegalArgumentException("batch cannot be empty");
     }
 
-    return new Values(names(), batch.size(), (rowIndex, columnIndex) -> columnExtractor().extract(batch.get(rowIndex), columnIndex));
+    return new Values(names(), batch.size(), rowIndex -> extractAll(batch.get(rowIndex)), (rowIndex, index) -> columnExtractor().extract(batch.get(rowIndex), index));
+  }
+
+  /**
+   * Given an {@link Iterator} of type {@code T}, provides a template parameter
+   * that inserts its values comma separated, suitable for the INSERT statement's
+   * VALUES clause. The statement will be executed as a batch, which is sent to
+   * the database in parts while the iterator is consumed. As the iterator is
+   * consumed during execution, the statement can only be executed once.
+   *
+   * @param batch an {@link Iterator} of type {@code T}, cannot be {@code null}
+   * @return a streamed values template parameter, never {@code null}
+   * @throws NullPointerException when {@code batch} is {@code null}
+   */
+  default StreamedValues batch(Iterator<T> batch) {
+    Objects.requireNonNull(batch, "batch");
+
+    return new StreamedValues(names(), () -> batch, columnExtractor());
+  }
+
+  /**
+   * Given an {@link Iterable} of type {@code T}, provides a template parameter
+   * that inserts its values comma separated, suitable for the INSERT statement's
+   * VALUES clause. The statement will be executed as a batch, which is sent to
+   * the database in parts while the iterable is iterated. The iterable is
+   * iterated again each time the statement is executed.
+   *
+   * @param batch an {@link Iterable} of type {@code T}, cannot be {@code null}
+   * @return a streamed values template parameter, never {@code null}
+   * @throws NullPointerException when {@code batch} is {@code null}
+   */
+  default StreamedValues batch(Iterable<T> batch) {
+    Objects.requireNonNull(batch, "batch");
+
+    return new StreamedValues(names(), batch::iterator, columnExtractor());
+  }
+
+  /**
+   * Given a {@link Stream} of type {@code T}, provides a template parameter
+   * that inserts its values comma separated, suitable for the INSERT statement's
+   * VALUES clause. The statement will be executed as a batch, which is sent to
+   * the database in parts while the stream is consumed. As the stream is
+   * consumed during execution, the statement can only be executed once.
+   *
+   * @param batch a {@link Stream} of type {@code T}, cannot be {@code null}
+   * @return a streamed values template parameter, never {@code null}
+   * @throws NullPointerException when {@code batch} is {@code null}
+   */
+  default StreamedValues batch(Stream<T> batch) {
+    Objects.requireNonNull(batch, "batch");
+
+    return new StreamedValues(names(), batch::iterator, columnExtractor());
   }
 
   /**
@@ -87,6 +141,20 @@ public sealed interface Extractor<T> permits Reflector, DefaultExtractor {
     return batch(Arrays.asList(batch));
   }
 
+  /**
+   * Extracts the values of all fields of the given type {@code T} at once.
+   *
+   * @param t a type {@code T}, cannot be {@code null}
+   * @return an array with a value for each name, never {@code null}
+   */
+  private Object[] extractAll(T t) {
+    Object[] values = new Object[names().size()];
+
+    columnExtractor().extractAll(t, values);
+
+    return values;
+  }
+
   /**
    * Creates a new extractor based on this one, but excluding the given
    * names.
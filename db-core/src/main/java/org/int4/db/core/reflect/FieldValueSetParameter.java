@@ -1,18 +1,34 @@
 package org.int4.db.core.reflect;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.function.BiFunction;
-import java.util.function.Function;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.int4.db.core.util.ColumnExtractor;
 
 public sealed abstract class FieldValueSetParameter {
   private final List<String> names;
   private final int batchSze;
-  private final BiFunction<Integer, Integer, Object> dataSource;
+  private final IntFunction<Object[]> dataSource;  // provides the values of all fields of a row at once
+  private final ColumnSource columnSource;  // provides the value of a single field of a row
+
+  /*
+   * Provides the value of a single field of a row, without extracting the
+   * other fields of the row.
+   */
+
+  interface ColumnSource {
+    Object getValue(int row, int index);
+  }
 
-  FieldValueSetParameter(List<String> names, int batchSize, BiFunction<Integer, Integer, Object> dataSource) {
+  FieldValueSetParameter(List<String> names, int batchSize, IntFunction<Object[]> dataSource, ColumnSource columnSource) {
     this.names = List.copyOf(names);
     this.batchSze = batchSize;
     this.dataSource = dataSource;
+    this.columnSource = columnSource;
   }
 
   public List<String> names() {
@@ -31,8 +47,29 @@ public sealed abstract class FieldValueSetParameter {
     return names.get(index);
   }
 
+  /**
+   * Returns the value of a single field of the given row. Only the given
+   * field is accessed, so use {@link #getValues(int)} when the values of all
+   * fields are needed.
+   *
+   * @param row the row of the batch, cannot be negative
+   * @param index the index of the field, cannot be negative
+   * @return the value of the field, can be {@code null}
+   */
   public Object getValue(int row, int index) {
-    return dataSource.apply(row, index);
+    return columnSource.getValue(row, index);
+  }
+
+  /**
+   * Returns the values of all fields of the given row, including those of
+   * fields with an empty name. The values are extracted together, so each
+   * field is only accessed once.
+   *
+   * @param row the row of the batch, cannot be negative
+   * @return an array with a value for each name, never {@code null}
+   */
+  public Object[] getValues(int row) {
+    return dataSource.apply(row);
   }
 
   @Override
@@ -41,18 +78,232 @@ public sealed abstract class FieldValueSetParameter {
   }
 
   public static final class Values extends FieldValueSetParameter {
-    Values(List<String> names, Function<Integer, Object> dataSource) {
-      super(names, 1, (row, index) -> dataSource.apply(index));
+
+    /**
+     * The maximum number of parameters a PostgreSQL statement can have.
+     */
+    public static final int POSTGRESQL_MAXIMUM_PARAMETERS = 65535;
+
+    private final int maximumParameters;
+
+    Values(List<String> names, int size, IntFunction<Object[]> dataSource, ColumnSource columnSource) {
+      this(names, size, dataSource, columnSource, 0);
+    }
+
+    private Values(List<String> names, int size, IntFunction<Object[]> dataSource, ColumnSource columnSource, int maximumParameters) {
+      super(names, size, dataSource, columnSource);
+
+      this.maximumParameters = maximumParameters;
+    }
+
+    /**
+     * Returns a copy of these values which, instead of being executed as a
+     * JDBC batch, are inserted with statements containing multiple rows in
+     * their VALUES clause. Each statement contains as many rows as possible
+     * without exceeding {@link #POSTGRESQL_MAXIMUM_PARAMETERS}.
+     *
+     * @return a new {@link Values}, never {@code null}
+     * @see #multiRow(int)
+     */
+    public Values multiRow() {
+      return multiRow(POSTGRESQL_MAXIMUM_PARAMETERS);
+    }
+
+    /**
+     * Returns a copy of these values which, instead of being executed as a
+     * JDBC batch, are inserted with statements containing multiple rows in
+     * their VALUES clause. Each statement contains as many rows as possible
+     * without exceeding the given maximum number of parameters.
+     *
+     * <p>The values must be the only content of the parentheses enclosing them
+     * in the template, for example {@code VALUES (\{extractor.batch(list).multiRow()})}.
+     * Such statements can be combined with other single value parameters, but
+     * not with other batches, and cannot return generated keys.
+     *
+     * @param maximumParameters the maximum number of parameters per statement, must be positive
+     * @return a new {@link Values}, never {@code null}
+     * @throws IllegalArgumentException when {@code maximumParameters} is not positive
+     */
+    public Values multiRow(int maximumParameters) {
+      if(maximumParameters <= 0) {
+        throw new IllegalArgumentException("maximumParameters must be positive: " + maximumParameters);
+      }
+
+      return new Values(names(), batchSize(), ((FieldValueSetParameter)this).dataSource, ((FieldValueSetParameter)this).columnSource, maximumParameters);
     }
 
-    Values(List<String> names, int size, BiFunction<Integer, Integer, Object> dataSource) {
-      super(names, size, dataSource);
+    /**
+     * Returns whether these values are inserted using multi-row statements.
+     *
+     * @return {@code true} if these values are inserted using multi-row statements, otherwise {@code false}
+     */
+    public boolean isMultiRow() {
+      return maximumParameters > 0;
+    }
+
+    /**
+     * Returns the maximum number of parameters of a multi-row statement.
+     *
+     * @return the maximum number of parameters, or 0 when not using multi-row statements
+     */
+    public int maximumParameters() {
+      return maximumParameters;
+    }
+  }
+
+  /**
+   * Values of a batch of unknown size of which the rows are provided one at
+   * a time by an {@link Iterator}. This avoids having to hold all rows of the
+   * batch in memory. As the rows are consumed during execution, a statement
+   * using streamed values can only be executed once.
+   *
+   * <p>The affected row count of such a statement only includes rows for which
+   * the driver reported a count, see {@code StatementSteps.executeUpdate()}.
+   */
+  public static final class StreamedValues extends FieldValueSetParameter {
+    private final Cursor<?> cursor;
+    private final FlushStrategy flushStrategy;
+    private final LongConsumer progressListener;
+
+    <T> StreamedValues(List<String> names, Supplier<Iterator<T>> rows, ColumnExtractor<T> columnExtractor) {
+      this(names, new Cursor<>(rows, columnExtractor, names.size()), FlushStrategy.DEFAULT, rowCount -> {});
+    }
+
+    private StreamedValues(List<String> names, Cursor<?> cursor, FlushStrategy flushStrategy, LongConsumer progressListener) {
+      super(names, -1, row -> cursor.values(), (row, index) -> cursor.values()[index]);
+
+      this.cursor = cursor;
+      this.flushStrategy = flushStrategy;
+      this.progressListener = progressListener;
+    }
+
+    /**
+     * Returns a copy of these values which sends rows to the database
+     * according to the given {@link FlushStrategy}. The copy iterates the
+     * rows independently of these values, but rows provided by an
+     * {@link Iterator} or {@link java.util.stream.Stream} can still only be
+     * iterated once in total.
+     *
+     * @param flushStrategy a {@link FlushStrategy}, cannot be {@code null}
+     * @return a new {@link StreamedValues}, never {@code null}
+     * @throws NullPointerException when any argument is {@code null}
+     */
+    public StreamedValues withFlushStrategy(FlushStrategy flushStrategy) {
+      return new StreamedValues(names(), cursor.copy(), Objects.requireNonNull(flushStrategy, "flushStrategy"), progressListener);
+    }
+
+    /**
+     * Returns a copy of these values which calls the given listener each time
+     * rows were sent to the database. The listener receives the total number
+     * of rows sent so far. The copy iterates the rows independently of these
+     * values, but rows provided by an {@link Iterator} or {@link java.util.stream.Stream}
+     * can still only be iterated once in total.
+     *
+     * @param progressListener a listener, cannot be {@code null}
+     * @return a new {@link StreamedValues}, never {@code null}
+     * @throws NullPointerException when any argument is {@code null}
+     */
+    public StreamedValues withProgressListener(LongConsumer progressListener) {
+      return new StreamedValues(names(), cursor.copy(), flushStrategy, Objects.requireNonNull(progressListener, "progressListener"));
+    }
+
+    /**
+     * Returns the {@link FlushStrategy} to use.
+     *
+     * @return a {@link FlushStrategy}, never {@code null}
+     */
+    public FlushStrategy flushStrategy() {
+      return flushStrategy;
+    }
+
+    /**
+     * Returns the listener to call each time rows were sent to the database.
+     *
+     * @return a listener, never {@code null}
+     */
+    public LongConsumer progressListener() {
+      return progressListener;
+    }
+
+    /**
+     * Starts iterating the rows from the beginning, which must be done each
+     * time a statement using these values is executed. Rows provided by an
+     * {@link Iterable} are iterated again, while rows provided by an
+     * {@link Iterator} or {@link java.util.stream.Stream} are only available
+     * the first time.
+     */
+    public void start() {
+      cursor.start();
+    }
+
+    /**
+     * Advances to the next row, which then becomes the row from which
+     * values are returned.
+     *
+     * @return {@code true} if there was a next row, otherwise {@code false}
+     */
+    public boolean advance() {
+      return cursor.advance();
+    }
+
+    private static class Cursor<T> {
+      private final Supplier<Iterator<T>> source;
+      private final ColumnExtractor<T> columnExtractor;
+      private final int columnCount;
+
+      private Iterator<T> rows;  // rows of the current iteration, or null when not started yet
+      private Object[] values;  // values of the current row, or null when not extracted yet
+      private T current;
+      private boolean hasCurrent;
+
+      Cursor(Supplier<Iterator<T>> source, ColumnExtractor<T> columnExtractor, int columnCount) {
+        this.source = source;
+        this.columnExtractor = columnExtractor;
+        this.columnCount = columnCount;
+      }
+
+      Cursor<T> copy() {
+        return new Cursor<>(source, columnExtractor, columnCount);
+      }
+
+      void start() {
+        rows = source.get();
+        current = null;
+        hasCurrent = false;
+        values = null;
+      }
+
+      boolean advance() {
+        if(rows == null) {
+          start();
+        }
+
+        hasCurrent = rows.hasNext();
+        current = hasCurrent ? rows.next() : null;
+        values = null;
+
+        return hasCurrent;
+      }
+
+      Object[] values() {
+        if(!hasCurrent) {
+          throw new IllegalStateException("no current row");
+        }
+
+        if(values == null) {
+          values = new Object[columnCount];
+
+          columnExtractor.extractAll(current, values);
+        }
+
+        return values;
+      }
     }
   }
 
   public static final class Entries extends FieldValueSetParameter {
-    Entries(List<String> names, Function<Integer, Object> dataSource) {
-      super(names, 1, (row, index) -> dataSource.apply(index));
+    Entries(List<String> names, IntFunction<Object[]> dataSource, ColumnSource columnSource) {
+      super(names, 1, dataSource, columnSource);
     }
   }
 }
@@ -0,0 +1,117 @@
+package org.int4.db.core.reflect;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Strategy that determines after how many rows a batch is sent to the
+ * database. Large batches are sent in several parts, so neither the driver
+ * nor the database has to hold all rows of the batch at once.
+ *
+ * <p>The strategy is consulted after each part was executed, and is provided
+ * with the time it took to execute that part, allowing it to adapt the size
+ * of the next part.
+ */
+public interface FlushStrategy {
+
+  /**
+   * The strategy used when none was specified, which sends a batch
+   * in parts of 1000 rows.
+   */
+  static final FlushStrategy DEFAULT = fixed(1000);
+
+  /**
+   * Creates a strategy which sends a batch in parts of a fixed number of rows.
+   *
+   * @param rows the number of rows per part, must be positive
+   * @return a {@link FlushStrategy}, never {@code null}
+   * @throws IllegalArgumentException when {@code rows} is not positive
+   */
+  static FlushStrategy fixed(int rows) {
+    if(rows <= 0) {
+      throw new IllegalArgumentException("rows must be positive: " + rows);
+    }
+
+    return new FlushStrategy() {
+      @Override
+      public int initialRows() {
+        return rows;
+      }
+
+      @Override
+      public int nextRows(int rows, long elapsedNanos) {
+        return rows;
+      }
+
+      @Override
+      public String toString() {
+        return "FlushStrategy[rows=" + rows + "]";
+      }
+    };
+  }
+
+  /**
+   * Creates a strategy which adapts the number of rows per part so that
+   * executing a part takes about the given target latency. The number of
+   * rows at most doubles or halves after each part, and always stays within
+   * the given bounds.
+   *
+   * @param targetLatency the desired time to execute a part, cannot be {@code null} and must be positive
+   * @param minimumRows the minimum number of rows per part, must be positive
+   * @param maximumRows the maximum number of rows per part, cannot be less than {@code minimumRows}
+   * @return a {@link FlushStrategy}, never {@code null}
+   * @throws NullPointerException when {@code targetLatency} is {@code null}
+   * @throws IllegalArgumentException when {@code targetLatency} is not positive or the bounds are invalid
+   */
+  static FlushStrategy adaptive(Duration targetLatency, int minimumRows, int maximumRows) {
+    long targetNanos = Objects.requireNonNull(targetLatency, "targetLatency").toNanos();
+
+    if(targetNanos <= 0) {
+      throw new IllegalArgumentException("targetLatency must be positive: " + targetLatency);
+    }
+    if(minimumRows <= 0) {
+      throw new IllegalArgumentException("minimumRows must be positive: " + minimumRows);
+    }
+    if(maximumRows < minimumRows) {
+      throw new IllegalArgumentException("maximumRows cannot be less than minimumRows: " + maximumRows + " < " + minimumRows);
+    }
+
+    return new FlushStrategy() {
+      @Override
+      public int initialRows() {
+        return minimumRows;
+      }
+
+      @Override
+      public int nextRows(int rows, long elapsedNanos) {
+        double factor = Math.clamp((double)targetNanos / Math.max(1, elapsedNanos), 0.5, 2.0);
+
+        return Math.clamp(Math.round(rows * factor), minimumRows, maximumRows);
+      }
+
+      @Override
+      public String toString() {
+        return "FlushStrategy[targetLatency=" + targetLatency + ", minimumRows=" + minimumRows + ", maximumRows=" + maximumRows + "]";
+      }
+    };
+  }
+
+  /**
+   * Returns the number of rows of the first part of a batch.
+   *
+   * @return a number of rows, must be positive
+   * @see #nextRows(int, long)
+   */
+  int initialRows();
+
+  /**
+   * Determines the number of rows of the next part of a batch given the
+   * number of rows of the part just executed and the time it took.
+   *
+   * @param rows the number of rows of the part just executed, always positive
+   * @param elapsedNanos the time in nanoseconds it took to execute the part, never negative
+   * @return a number of rows, must be positive, executing the batch fails with
+   *   an {@link IllegalStateException} otherwise
+   */
+  int nextRows(int rows, long elapsedNanos);
+}
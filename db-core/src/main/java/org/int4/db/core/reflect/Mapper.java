@@ -8,4 +8,18 @@ import java.util.function.Function;
  * @param <T> the type converted to
  */
 public interface Mapper<T> extends Function<Row, T> {
+
+  /**
+   * Returns a mapper which is bound to the rows of a single result. Such a
+   * mapper can reuse state it prepared for the first row for all further
+   * rows, but must therefore only be used to map rows one at a time, and
+   * only by a single thread.
+   *
+   * <p>The default implementation returns this mapper.
+   *
+   * @return a mapper bound to a single result, never {@code null}
+   */
+  default Mapper<T> bind() {
+    return this;
+  }
 }
@@ -1,5 +1,6 @@
 package org.int4.db.core.reflect;
 
+import java.util.Locale;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -9,7 +10,7 @@ interface NameTranslator {
 
     @Override
     public String toDatabaseName(String javaName) {
-      return PATTERN.splitAsStream(javaName).map(part -> part.toLowerCase()).collect(Collectors.joining("_"));
+      return PATTERN.splitAsStream(javaName).map(part -> part.toLowerCase(Locale.ROOT)).collect(Collectors.joining("_"));
     }
   };
 
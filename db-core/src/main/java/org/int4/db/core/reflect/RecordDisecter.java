@@ -1,26 +1,40 @@
 package org.int4.db.core.reflect;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 
 class RecordDisecter {
   record RecordDetails<T>(Function<Row, T> creator, List<Mapping<T, ?>> mappings) {}
 
-  private static final Map<Class<?>, BiFunction<Row, Integer, ?>> MAP = Map.of(
-    String.class, Row::getString,
-    boolean.class, Row::getBoolean,
-    int.class, Row::getInt,
-    long.class, Row::getLong,
-    double.class, Row::getDouble,
-    byte[].class, Row::getBytes
+  private static final Map<Class<?>, String> GETTER_NAMES = Map.of(
+    String.class, "getString",
+    boolean.class, "getBoolean",
+    int.class, "getInt",
+    long.class, "getLong",
+    double.class, "getDouble",
+    byte[].class, "getBytes"
   );
 
+  private static final MethodHandle GET_OBJECT;
+  private static final MethodHandle CONSTRUCTION_FAILED;
+
+  static {
+    try {
+      GET_OBJECT = MethodHandles.publicLookup().findVirtual(Row.class, "getObject", MethodType.methodType(Object.class, int.class, Class.class));
+      CONSTRUCTION_FAILED = MethodHandles.lookup().findStatic(RecordDisecter.class, "constructionFailed", MethodType.methodType(Object.class, Class.class, Throwable.class));
+    }
+    catch(NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
   static <T extends Record> RecordDetails<T> disect(Lookup lookup, Class<T> cls) {
     try {
       RecordComponent[] recordComponents = cls.getRecordComponents();
@@ -39,36 +53,62 @@ class RecordDisecter {
         mappings.add(Mapping.of(NameTranslator.UNDERSCORED.toDatabaseName(component.getName()), c, handle::invoke));
       }
 
-      MethodHandle constructor = lookup.unreflectConstructor(cls.getDeclaredConstructor(paramTypes)).asSpreader(Object[].class, paramTypes.length);
+      MethodHandle constructor = lookup.unreflectConstructor(cls.getDeclaredConstructor(paramTypes));
+      MethodHandle plan = createInstantiationPlan(cls, constructor, paramTypes);
 
-      return new RecordDetails<>(row -> buildRecord(cls, constructor, row), mappings);
+      return new RecordDetails<>(row -> buildRecord(cls, plan, row), mappings);
     }
     catch(NoSuchMethodException | IllegalAccessException | SecurityException e) {
       throw new IllegalStateException("error accessing record's canonical constructor: " + cls, e);
     }
   }
 
-  static <T> T buildRecord(Class<T> cls, MethodHandle constructor, Row row) {
-    RecordComponent[] recordComponents = cls.getRecordComponents();
-    Object[] args = new Object[recordComponents.length];
+  /*
+   * Creates a single handle of type (Row)Object which reads each component
+   * directly from the row with a getter matching its type, and passes the
+   * values straight to the canonical constructor, without an intermediate
+   * argument array or per row lookups. Only failures of the constructor
+   * itself are wrapped, exceptions thrown while reading the row propagate
+   * unchanged.
+   */
 
-    for(int i = 0; i < recordComponents.length; i++) {
-      RecordComponent rc = recordComponents[i];
-      BiFunction<Row, Integer, ?> valueExtractor = MAP.get(rc.getType());
+  private static MethodHandle createInstantiationPlan(Class<?> cls, MethodHandle constructor, Class<?>[] paramTypes) throws NoSuchMethodException, IllegalAccessException {
+    MethodHandle[] getters = new MethodHandle[paramTypes.length];
 
-      if(valueExtractor == null) {
-        args[i] = row.getObject(i, rc.getType());
-      }
-      else {
-        args[i] = valueExtractor.apply(row, i);
-      }
+    for(int i = 0; i < paramTypes.length; i++) {
+      Class<?> type = paramTypes[i];
+      String getterName = GETTER_NAMES.get(type);
+
+      getters[i] = getterName == null
+        ? MethodHandles.insertArguments(GET_OBJECT, 1, i, type).asType(MethodType.methodType(type, Row.class))
+        : MethodHandles.insertArguments(MethodHandles.publicLookup().findVirtual(Row.class, getterName, MethodType.methodType(type, int.class)), 1, i);
     }
 
+    MethodHandle handler = MethodHandles.dropArguments(
+      MethodHandles.insertArguments(CONSTRUCTION_FAILED, 0, cls).asType(MethodType.methodType(cls, Throwable.class)),
+      1,
+      paramTypes
+    );
+    MethodHandle guardedConstructor = MethodHandles.catchException(constructor, Throwable.class, handler);
+    MethodHandle filtered = MethodHandles.filterArguments(guardedConstructor, 0, getters);
+    MethodType planType = MethodType.methodType(Object.class, Row.class);
+
+    return MethodHandles.permuteArguments(filtered.asType(filtered.type().changeReturnType(Object.class)), planType, new int[paramTypes.length]);
+  }
+
+  private static <T> T buildRecord(Class<T> cls, MethodHandle plan, Row row) {
     try {
-      return (T)constructor.invoke(args);
+      return cls.cast(plan.invokeExact(row));
+    }
+    catch(RuntimeException | Error e) {
+      throw e;
     }
     catch(Throwable t) {
       throw new IllegalStateException("construction failed for record of type: " + cls, t);
     }
   }
+
+  private static Object constructionFailed(Class<?> cls, Throwable t) {
+    throw new IllegalStateException("construction failed for record of type: " + cls, t);
+  }
 }
@@ -0,0 +1,26 @@
+package org.int4.db.core.reflect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or conforming class for which a {@link Reflector} should be
+ * generated at compile time. This requires the {@code db-processor} annotation
+ * processor to be active during compilation.
+ *
+ * <p>For an annotated type {@code Employee} a class {@code EmployeeReflector}
+ * is generated in the same package, which holds the reflector in a constant
+ * named {@code REFLECTOR}. For nested types, the names of the enclosing types
+ * are prepended, separated by underscores, for example {@code Company_EmployeeReflector}.
+ * The generated reflector is equivalent to one created with {@link Reflector#of(Class)}
+ * or {@link Reflector#ofClass(Class)}, but its names, extractors and creator are
+ * written out as plain code, so no reflection is needed when it is initialized.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Reflectable {
+}
@@ -4,7 +4,6 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 
@@ -119,7 +118,7 @@ public sealed interface Reflector<T> extends Extractor<T>, Mapper<T> permits Def
       columnIndex += mapping.columnCount();
     }
 
-    return new DefaultReflector<>(type, Objects.requireNonNull(creator, "creator"), indexedMappings, Map.of());
+    return new DefaultReflector<>(type, Objects.requireNonNull(creator, "creator"), false, indexedMappings, TypeConverterResolver.EMPTY);
   }
 
   /**
@@ -195,7 +194,30 @@ public sealed interface Reflector<T> extends Extractor<T>, Mapper<T> permits Def
   Reflector<T> nest(String name, Reflector<?> reflector);
 
   /**
-   * Adds a type converter to this reflector for the given Java type.
+   * Returns a reflector which matches its names to the labels of the columns
+   * of the rows it maps, instead of expecting the columns in the order of its
+   * names. Labels are matched case insensitively, and columns that do not
+   * match any name are ignored. This allows the same reflector to be used for
+   * queries which select the columns in a different order, or select more
+   * columns, like {@code SELECT *}.
+   *
+   * <p>The position of each column is determined when the first row of a
+   * result is mapped, and is cached for later results with the same labels,
+   * after which rows are mapped positionally. Rows must provide metadata, as
+   * rows obtained directly from a database do.
+   *
+   * <p>Names are only matched when rows are mapped by this reflector directly;
+   * when it is inlined or nested in another reflector, its columns are mapped
+   * positionally as part of the other reflector.
+   *
+   * @return a reflector, never {@code null}
+   */
+  Reflector<T> mappedByName();
+
+  /**
+   * Adds a type converter to this reflector for the given Java type. The converter
+   * also applies to fields of subtypes of the given type which have no converter
+   * of their own, see {@link TypeConverterResolver}.
    *
    * @param <V> a Java type
    * @param javaType a class representing a Java type, cannot be {@code null}
@@ -115,6 +115,18 @@ public interface Row {
    */
   boolean getBoolean(int columnIndex);
 
+  /**
+   * Returns the metadata of the result this row is part of, if available.
+   * Rows obtained directly from a database result provide metadata, while
+   * rows created with {@link #of(Object...)} do not.
+   *
+   * @return a {@link RowMetaData}, or {@code null} when not available
+   * @throws RowAccessException when a database error occurs
+   */
+  default RowMetaData getMetaData() {
+    return null;
+  }
+
   /**
    * Converts this row to an array of objects.
    *
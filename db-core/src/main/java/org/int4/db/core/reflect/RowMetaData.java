@@ -0,0 +1,129 @@
+package org.int4.db.core.reflect;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes the columns of a {@link Row}, as obtained from the metadata of
+ * the result the row is part of. All rows of a result share the same metadata.
+ */
+public final class RowMetaData {
+  private final List<String> columnLabels;
+  private final int[] columnTypes;
+  private final List<String> columnClassNames;
+  private final int[] precisions;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param columnLabels a list with the label of each column, cannot be {@code null} or contain {@code null}s
+   * @param columnTypes an array with the SQL type of each column as defined in {@link java.sql.Types}, cannot be {@code null}
+   * @param columnClassNames a list with the name of the Java class of the values of each column, cannot be {@code null} or contain {@code null}s
+   * @param precisions an array with the precision of each column, cannot be {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   * @throws IllegalArgumentException when the number of labels, types, class names and precisions differ
+   */
+  public RowMetaData(List<String> columnLabels, int[] columnTypes, List<String> columnClassNames, int[] precisions) {
+    this.columnLabels = List.copyOf(Objects.requireNonNull(columnLabels, "columnLabels"));
+    this.columnTypes = Objects.requireNonNull(columnTypes, "columnTypes").clone();
+    this.columnClassNames = List.copyOf(Objects.requireNonNull(columnClassNames, "columnClassNames"));
+    this.precisions = Objects.requireNonNull(precisions, "precisions").clone();
+
+    if(this.columnLabels.size() != this.columnTypes.length || this.columnLabels.size() != this.columnClassNames.size() || this.columnLabels.size() != this.precisions.length) {
+      throw new IllegalArgumentException("columnLabels, columnTypes, columnClassNames and precisions must be of the same size: " + columnLabels + ", " + Arrays.toString(columnTypes) + ", " + columnClassNames + ", " + Arrays.toString(precisions));
+    }
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return the number of columns, never negative
+   */
+  public int getColumnCount() {
+    return columnTypes.length;
+  }
+
+  /**
+   * Gets the label of the indicated column. The first column has index 0.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @return the label of the column, never {@code null}
+   * @throws IndexOutOfBoundsException when the column index is invalid
+   */
+  public String getColumnLabel(int columnIndex) {
+    return columnLabels.get(columnIndex);
+  }
+
+  /**
+   * Gets the labels of all columns.
+   *
+   * @return an immutable list of column labels, never {@code null}
+   */
+  public List<String> getColumnLabels() {
+    return columnLabels;
+  }
+
+  /**
+   * Gets the SQL type of the indicated column as defined in {@link java.sql.Types}.
+   * The first column has index 0.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @return the SQL type of the column
+   * @throws IndexOutOfBoundsException when the column index is invalid
+   */
+  public int getColumnType(int columnIndex) {
+    return columnTypes[columnIndex];
+  }
+
+  /**
+   * Gets the fully qualified name of the Java class of the values of the
+   * indicated column, as returned when the value is obtained as an object.
+   * The first column has index 0.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @return the class name of the column, never {@code null}
+   * @throws IndexOutOfBoundsException when the column index is invalid
+   */
+  public String getColumnClassName(int columnIndex) {
+    return columnClassNames.get(columnIndex);
+  }
+
+  /**
+   * Gets the precision of the indicated column. For numeric types this is the
+   * maximum number of digits, for character types the length in characters,
+   * and for bit types the number of bits. Zero when not applicable or unknown.
+   * The first column has index 0.
+   *
+   * @param columnIndex a column index, cannot be negative and must be less than the column count
+   * @return the precision of the column, never negative
+   * @throws IndexOutOfBoundsException when the column index is invalid
+   */
+  public int getPrecision(int columnIndex) {
+    return precisions[columnIndex];
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(columnLabels, Arrays.hashCode(columnTypes), columnClassNames, Arrays.hashCode(precisions));
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if(this == obj) {
+      return true;
+    }
+    if(obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+
+    RowMetaData other = (RowMetaData)obj;
+
+    return columnLabels.equals(other.columnLabels) && Arrays.equals(columnTypes, other.columnTypes) && columnClassNames.equals(other.columnClassNames) && Arrays.equals(precisions, other.precisions);
+  }
+
+  @Override
+  public String toString() {
+    return "RowMetaData[columnLabels = " + columnLabels + ", columnTypes = " + Arrays.toString(columnTypes) + ", columnClassNames = " + columnClassNames + ", precisions = " + Arrays.toString(precisions) + "]";
+  }
+}
@@ -0,0 +1,9 @@
+package org.int4.db.core.reflect;
+
+/**
+ * A {@link Row} which holds a copy of its values, and which is independent
+ * of the result it was obtained from. Snapshot rows are equal to each other
+ * when they hold equal values, regardless of how they store them.
+ */
+interface SnapshotRow extends Row {
+}
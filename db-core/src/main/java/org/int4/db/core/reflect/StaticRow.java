@@ -9,7 +9,7 @@ import java.util.Objects;
  * An implementation of {@link Row} that gets its data from
  * an array.
  */
-class StaticRow implements Row {
+class StaticRow implements SnapshotRow {
   private final Object[] data;
 
   /**
@@ -108,13 +108,11 @@ class StaticRow implements Row {
     if(this == obj) {
       return true;
     }
-    if(obj == null || getClass() != obj.getClass()) {
-      return false;
+    if(obj instanceof StaticRow other) {
+      return Arrays.deepEquals(data, other.data);
     }
 
-    StaticRow other = (StaticRow)obj;
-
-    return Arrays.deepEquals(data, other.data);
+    return obj instanceof SnapshotRow other && Arrays.deepEquals(data, other.toArray());
   }
 
   @Override
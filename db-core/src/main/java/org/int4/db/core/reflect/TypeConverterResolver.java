@@ -0,0 +1,143 @@
+package org.int4.db.core.reflect;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves the {@link TypeConverter} to use for a Java type from a fixed set
+ * of converters. When no converter was registered for a type itself, the
+ * converter of its closest superclass is used, and failing that, the converter
+ * of the first of its interfaces found in a breadth first search. This means a
+ * converter registered for {@link Enum} applies to all enums, and a converter
+ * registered for an enum also applies to its constants with a class body.
+ *
+ * <p>Resolutions, including those which found no converter, are cached per
+ * class, so resolving a type more than once costs no more than a single lookup.
+ * Instances are thread safe.
+ */
+public final class TypeConverterResolver {
+
+  /**
+   * A resolver without any type converters.
+   */
+  public static final TypeConverterResolver EMPTY = new TypeConverterResolver(Map.of());
+
+  /**
+   * Creates a new resolver for the given type converters.
+   *
+   * @param typeConverters a map of {@link TypeConverter}s, cannot be {@code null}
+   * @return a {@link TypeConverterResolver}, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public static TypeConverterResolver of(Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
+    return new TypeConverterResolver(Map.copyOf(Objects.requireNonNull(typeConverters, "typeConverters")));
+  }
+
+  private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
+  private final ClassValue<Optional<TypeConverter<?, ?>>> resolutions = new ClassValue<>() {
+    @Override
+    protected Optional<TypeConverter<?, ?>> computeValue(Class<?> type) {
+      return Optional.ofNullable(find(type));
+    }
+  };
+
+  private TypeConverterResolver(Map<Class<?>, TypeConverter<?, ?>> typeConverters) {
+    this.typeConverters = typeConverters;
+  }
+
+  /**
+   * Returns the type converters this resolver resolves from.
+   *
+   * @return an immutable map of {@link TypeConverter}s, never {@code null}
+   */
+  public Map<Class<?>, TypeConverter<?, ?>> typeConverters() {
+    return typeConverters;
+  }
+
+  /**
+   * Creates a new resolver with the given type converter added, replacing
+   * any converter registered for the same type.
+   *
+   * @param <V> a Java type
+   * @param type a class representing a Java type, cannot be {@code null}
+   * @param typeConverter a type converter, cannot be {@code null}
+   * @return a new {@link TypeConverterResolver}, never {@code null}
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public <V> TypeConverterResolver with(Class<V> type, TypeConverter<V, ?> typeConverter) {
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(typeConverter, "typeConverter");
+
+    Map<Class<?>, TypeConverter<?, ?>> map = new HashMap<>(typeConverters);
+
+    map.put(type, typeConverter);
+
+    return new TypeConverterResolver(Map.copyOf(map));
+  }
+
+  /**
+   * Resolves the type converter for the given type.
+   *
+   * @param <V> the decoded Java type
+   * @param type a class representing a Java type, cannot be {@code null}
+   * @return a {@link TypeConverter}, or {@code null} when none applies
+   * @throws NullPointerException when any argument is {@code null}
+   */
+  public <V> TypeConverter<V, Object> resolve(Class<V> type) {
+    if(typeConverters.isEmpty()) {
+      Objects.requireNonNull(type, "type");
+
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    TypeConverter<V, Object> typeConverter = (TypeConverter<V, Object>)resolutions.get(type).orElse(null);
+
+    return typeConverter;
+  }
+
+  private TypeConverter<?, ?> find(Class<?> type) {
+    for(Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+      TypeConverter<?, ?> typeConverter = typeConverters.get(cls);
+
+      if(typeConverter != null) {
+        return typeConverter;
+      }
+    }
+
+    Deque<Class<?>> queue = new ArrayDeque<>();
+    Set<Class<?>> visited = new HashSet<>();
+
+    for(Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+      queue.addAll(List.of(cls.getInterfaces()));
+    }
+
+    while(!queue.isEmpty()) {
+      Class<?> cls = queue.removeFirst();
+
+      if(visited.add(cls)) {
+        TypeConverter<?, ?> typeConverter = typeConverters.get(cls);
+
+        if(typeConverter != null) {
+          return typeConverter;
+        }
+
+        queue.addAll(List.of(cls.getInterfaces()));
+      }
+    }
+
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return "TypeConverterResolver[" + typeConverters.keySet() + "]";
+  }
+}
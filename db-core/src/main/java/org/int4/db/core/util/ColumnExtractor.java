@@ -16,4 +16,21 @@ public interface ColumnExtractor<T> {
    */
   Object extract(T t, int columnIndex);
 
+  /**
+   * Extracts all columns from the given type {@code T} into the given array,
+   * where the array index is the column index. Implementations may extract
+   * the columns more efficiently than by extracting them one at a time.
+   *
+   * @param t a type {@code T}, cannot be {@code null}
+   * @param values an array to receive the values, cannot be {@code null} and
+   *   its length determines the number of columns extracted
+   * @throws IllegalArgumentException when the array is shorter than the number
+   *   of columns, for implementations which know the number of columns
+   */
+  default void extractAll(T t, Object[] values) {
+    for(int i = 0; i < values.length; i++) {
+      values[i] = extract(t, i);
+    }
+  }
+
 }
@@ -9,13 +9,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
 import org.int4.db.core.api.Database;
 import org.int4.db.core.api.DatabaseException;
 import org.int4.db.core.api.Transaction;
+import org.int4.db.core.reflect.ColumnTable;
 import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
 import org.int4.db.core.reflect.Reflector;
 import org.int4.db.core.reflect.Row;
 import org.junit.jupiter.api.BeforeEach;
@@ -87,6 +91,23 @@ public class DatabaseIT {
       assertThat(results).containsExactlyElementsOf(companies);
     }
 
+    @Test
+    void shouldCopyIn() {
+      List<Company> companies = new ArrayList<>();
+
+      for(int i = 1; i <= 100; i++) {
+        companies.add(new Company(i, i % 2 == 0 ? "Company\t#" + i : "Company \\" + i, Instant.ofEpochSecond(i), 0.5, i % 3 == 0));
+      }
+
+      long count = database.apply(tx -> tx.copyIn(Identifier.of("company"), ALL, companies.stream()));
+
+      assertThat(count).isEqualTo(100);
+
+      List<Company> results = database.query(tx -> tx."SELECT \{ALL} FROM company ORDER BY id".map(ALL).toList());
+
+      assertThat(results).containsExactlyElementsOf(companies);
+    }
+
     @Nested
     class AndCompaniesWereAdded {
       private final Company company1 = new Company(1, "Acme", Instant.ofEpochSecond(0), 0.5, false);
@@ -121,6 +142,61 @@ public class DatabaseIT {
         );
       }
 
+      @Test
+      void selectShouldStreamRecords() {
+        List<String> names = database.query(tx ->
+          tx."SELECT \{ALL} FROM company ORDER BY name DESC".withFetchSize(1).map(ALL).stream().filter(c -> c.royal).map(c -> c.name).toList()
+        );
+
+        assertThat(names).containsExactly(company2.name);
+      }
+
+      @Test
+      void selectShouldStreamRawRecords() {
+        List<Row> rows = database.query(tx -> tx."SELECT id FROM company ORDER BY id".stream().toList());
+
+        assertThat(rows).containsExactly(Row.of(1), Row.of(2));
+      }
+
+      @Test
+      void selectShouldReturnPrimitiveArrays() {
+        int[] ints = database.query(tx -> tx."SELECT id FROM company ORDER BY id".toIntArray());
+        long[] longs = database.query(tx -> tx."SELECT id FROM company ORDER BY id".toLongArray());
+        double[] doubles = database.query(tx -> tx."SELECT gender_ratio FROM company ORDER BY id".toDoubleArray());
+
+        assertThat(ints).containsExactly(1, 2);
+        assertThat(longs).containsExactly(1L, 2L);
+        assertThat(doubles).containsExactly(0.5, 0.9);
+      }
+
+      @Test
+      void selectShouldReturnColumns() {
+        ColumnTable table = database.query(tx -> tx."SELECT id, name, gender_ratio, royal, NULL::int8 AS missing FROM company ORDER BY id".toColumns());
+
+        assertThat(table.getRowCount()).isEqualTo(2);
+        assertThat(table.getColumnCount()).isEqualTo(5);
+        assertThat(table.getMetaData().getColumnLabels()).containsExactly("id", "name", "gender_ratio", "royal", "missing");
+        assertThat(table.getInt(0, 1)).isEqualTo(2);
+        assertThat(table.getObject(1, 0)).isEqualTo("Acme");
+        assertThat(table.getDouble(2, 1)).isEqualTo(0.9);
+        assertThat(table.getBoolean(3, 1)).isTrue();
+        assertThat(table.isNull(4, 0)).isTrue();
+        assertThat(table.getLong(4, 0)).isZero();
+        assertThat(table.rows()).extracting(Row::toArray).containsExactly(
+          new Object[] {1, "Acme", 0.5, false, null},
+          new Object[] {2, "Unlimited Ltd", 0.9, true, null}
+        );
+      }
+
+      @Test
+      void streamShouldBeClosedWhenTransactionEnds() {
+        Stream<Company> stream = database.query(tx -> tx."SELECT \{ALL} FROM company".map(ALL).stream());
+
+        assertThatThrownBy(stream::toList)
+          .isExactlyInstanceOf(IllegalStateException.class)
+          .hasMessageStartingWith("stream was closed before it was exhausted");
+      }
+
 // Commented out, seems to be some bug in java compiler
 //      @Test
 //      void selectShouldConsumeRawRecords() {
@@ -322,6 +398,94 @@ public class DatabaseIT {
 
   }
 
+  @Test
+  void parallelQueriesShouldSeeTheSnapshotOfTheCoordinatorWhenShared() throws InterruptedException {
+    database.accept(tx -> {
+      tx."CREATE TABLE counter (id int4)".execute();
+      tx."INSERT INTO counter (id) VALUES (1)".execute();
+    });
+
+    for(boolean sharedSnapshot : new boolean[] {true, false}) {
+      long[] counts = database.queryInParallel(parallelQuery -> {
+        Supplier<Long> before = parallelQuery.fork((Transaction tx) -> tx."SELECT COUNT(*) FROM counter".asLong().get());
+
+        parallelQuery.join();
+        insertRowInSeparateThread();
+
+        Supplier<Long> after = parallelQuery.fork((Transaction tx) -> tx."SELECT COUNT(*) FROM counter".asLong().get());
+
+        parallelQuery.join();
+
+        return new long[] {before.get(), after.get()};
+      }, sharedSnapshot);
+
+      long initialCount = sharedSnapshot ? 1 : 2;
+
+      assertThat(counts).containsExactly(initialCount, sharedSnapshot ? initialCount : initialCount + 1);
+    }
+
+    assertThat(database.query((Transaction tx) -> tx."SELECT COUNT(*) FROM counter".asLong().get())).isEqualTo(3L);
+  }
+
+  @Test
+  void transactionsOfTheOperationOfParallelQueriesShouldBeIndependentOfTheSharedSnapshot() {
+    database.accept(tx -> tx."CREATE TABLE log (id int4)".execute());
+
+    long count = database.queryInParallel(parallelQuery -> {
+      database.accept(tx -> tx."INSERT INTO log (id) VALUES (1)".execute());  // fails when nested in the read only transaction holding the snapshot
+
+      return database.query((Transaction tx) -> tx."SELECT COUNT(*) FROM log".asLong().get());
+    }, true);
+
+    assertThat(count).isEqualTo(1L);
+
+    database.accept(tx -> {
+      tx."INSERT INTO log (id) VALUES (2)".execute();
+
+      long sharedCount = database.queryInParallel(parallelQuery -> {
+        Supplier<Long> forkedCount = parallelQuery.fork((Transaction forkedTx) -> forkedTx."SELECT COUNT(*) FROM log".asLong().get());
+
+        parallelQuery.join();
+
+        return forkedCount.get();
+      }, true);
+
+      assertThat(sharedCount).isEqualTo(1L);  // the snapshot is not the one of the enclosing transaction
+    });
+
+    assertThat(database.query((Transaction tx) -> tx."SELECT COUNT(*) FROM log".asLong().get())).isEqualTo(2L);
+  }
+
+  private void insertRowInSeparateThread() {
+    try {
+      Thread.ofVirtual().start(() -> database.accept(tx -> tx."INSERT INTO counter (id) VALUES (2)".execute())).join();  // outside of the coordinator's transaction
+    }
+    catch(InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  void shouldStoreColumnsAsPrimitivesOnlyWhenTheirClassMatches() {
+    ColumnTable table = database.query(tx -> tx."""
+      SELECT B'101'::bit(3) AS bits, B'1'::bit(1) AS bit, true AS flag, 1::int2 AS small, 2147483648::int8 AS big,
+        2.5::float8 AS number, 3.5::numeric AS exact, 42::oid AS unsigned
+      """.toColumns());
+    List<Row> rows = database.query(tx -> tx."""
+      SELECT B'101'::bit(3) AS bits, B'1'::bit(1) AS bit, true AS flag, 1::int2 AS small, 2147483648::int8 AS big,
+        2.5::float8 AS number, 3.5::numeric AS exact, 42::oid AS unsigned
+      """.toList());
+
+    assertThat(table.getRow(0).toArray()).containsExactly(rows.getFirst().toArray());
+    assertThat(table.getObject(0, 0)).hasToString("101");
+    assertThat(table.getBoolean(1, 0)).isTrue();
+    assertThat(table.getBoolean(2, 0)).isTrue();
+    assertThat(table.getInt(3, 0)).isEqualTo(1);
+    assertThat(table.getLong(4, 0)).isEqualTo(2147483648L);
+    assertThat(table.getDouble(5, 0)).isEqualTo(2.5);
+    assertThat(table.getLong(7, 0)).isEqualTo(42L);
+  }
+
   @Test
   void shouldNotAllowModificationsWhenReadOnly() {
     try(Transaction tx = database.beginReadOnlyTransaction()) {
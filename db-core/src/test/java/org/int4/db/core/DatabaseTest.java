@@ -1,19 +1,46 @@
 package org.int4.db.core;
 
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import org.int4.db.core.api.AsyncDatabase;
+import org.int4.db.core.api.CacheStatistics;
+import org.int4.db.core.api.CheckedDatabase;
+import org.int4.db.core.api.CheckedTransaction;
 import org.int4.db.core.api.Database;
+import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.PoolStatistics;
 import org.int4.db.core.api.Transaction;
 import org.int4.db.core.api.TransactionResult;
 import org.int4.db.core.internal.BaseTransaction;
+import org.int4.db.core.internal.StatementCache;
+import org.int4.db.core.reflect.Row;
+import org.int4.db.core.util.MockResultSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -22,10 +49,16 @@ import org.mockito.quality.Strictness;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -46,7 +79,9 @@ public class DatabaseTest {
   @BeforeEach
   public void before() throws SQLException {
     when(connection.setSavepoint()).thenReturn(savepoint);
+    when(connection.getAutoCommit()).thenReturn(true);
     when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
     when(connection.prepareStatement(anyString(), anyInt())).thenReturn(statement);
 
     connectionProvider = new Supplier<>() {
@@ -149,6 +184,324 @@ public class DatabaseTest {
     verify(connection).commit();
   }
 
+  @Test
+  public void shouldNestScopedTransactionsStartedWithinCallbacks() throws SQLException {
+    AtomicInteger connections = new AtomicInteger();
+    Database database = DatabaseBuilder.using(() -> {
+      connections.incrementAndGet();
+
+      return connection;
+    }).withScopedTransactions(true).build();
+
+    database.accept((Transaction tx) -> {
+      tx."".execute();  // simulate statement being executed
+
+      String result = database.query((Transaction nestedTransaction) -> {
+        nestedTransaction."".execute();  // simulate statement being executed
+
+        return "nested";
+      });
+
+      assertThat(result).isEqualTo("nested");
+    });
+
+    InOrder inOrder = inOrder(connection);
+
+    inOrder.verify(connection).releaseSavepoint(savepoint);
+    inOrder.verify(connection).commit();
+    assertThat(connections).hasValue(1);
+
+    try(Transaction transaction = database.beginTransaction()) {
+      try(Transaction other = database.beginTransaction()) {  // not started from a callback, so not nested
+        other."".execute();
+        other.commit();
+      }
+
+      transaction."".execute();
+      transaction.commit();
+    }
+
+    verify(connection, times(3)).commit();
+    verify(connection, times(1)).setSavepoint();
+    assertThat(connections).hasValue(3);
+  }
+
+  @Test
+  public void shouldRejectNestingScopedTransactionsFromChildTasks() throws Exception {
+    Database database = DatabaseBuilder.using(connectionProvider).withScopedTransactions(true).build();
+
+    Throwable childFailure = database.apply((Transaction tx) -> {
+      tx."".execute();  // simulate statement being executed
+
+      try(StructuredTaskScope.ShutdownOnFailure scope = new StructuredTaskScope.ShutdownOnFailure()) {
+        scope.fork(() -> database.query((Transaction nestedTransaction) -> true));
+        scope.join();
+
+        return scope.exception().orElseThrow();
+      }
+      catch(InterruptedException e) {
+        throw new AssertionError(e);
+      }
+    });
+
+    assertThat(childFailure)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("as it was started by another thread");
+
+    verify(connection, never()).setSavepoint();
+    verify(connection).commit();
+  }
+
+  @Test
+  public void shouldRunParallelQueriesConcurrentlyOnSeparateConnections() throws SQLException {
+    AtomicInteger connections = new AtomicInteger();
+    Database database = DatabaseBuilder.using(() -> {
+      connections.incrementAndGet();
+
+      return connection;
+    }).build();
+    CyclicBarrier barrier = new CyclicBarrier(2);  // only passable when both operations run at the same time
+
+    String result = database.queryInParallel(parallelQuery -> {
+      Supplier<String> first = parallelQuery.fork((Transaction tx) -> {
+        tx."SELECT 1".execute();
+        await(barrier);
+
+        return "a";
+      });
+      Supplier<String> second = parallelQuery.fork((Transaction tx) -> {
+        tx."SELECT 2".execute();
+        await(barrier);
+
+        return "b";
+      });
+
+      parallelQuery.join();
+
+      return first.get() + second.get();
+    });
+
+    assertThat(result).isEqualTo("ab");
+    assertThat(connections).hasValue(2);
+
+    verify(connection, times(2)).commit();
+    verify(connection, never()).setSavepoint();
+  }
+
+  @Test
+  public void shouldReportFirstFailedParallelQuery() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    DatabaseException exception = assertThrows(DatabaseException.class, () -> database.queryInParallel(parallelQuery -> {
+      parallelQuery.fork((Transaction tx) -> {
+        tx."SELECT 1".execute();
+
+        return 1;
+      });
+      parallelQuery.fork((Transaction tx) -> {
+        tx."SELECT 2".execute();
+
+        return 2;
+      });
+
+      return null;  // not joined explicitly
+    }));
+
+    assertThat(exception).hasRootCauseMessage("boom");
+    assertThat(exception.getSuppressed()).hasSize(1);
+  }
+
+  @Test
+  public void shouldRunParallelQueriesOfCheckedDatabase() throws SQLException {
+    CheckedDatabase database = DatabaseBuilder.using(connectionProvider).throwingSQLExceptions();
+
+    String result = database.queryInParallel(parallelQuery -> {
+      Supplier<String> supplier = parallelQuery.fork((CheckedTransaction tx) -> {
+        tx."SELECT 1".execute();
+
+        return "done";
+      });
+
+      parallelQuery.join();
+
+      return supplier.get();
+    });
+
+    assertThat(result).isEqualTo("done");
+
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    SQLException exception = assertThrows(SQLException.class, () -> database.queryInParallel(parallelQuery -> {
+      parallelQuery.fork((CheckedTransaction tx) -> {
+        tx."SELECT 1".execute();
+
+        return 1;
+      });
+
+      return null;  // not joined explicitly
+    }));
+
+    assertThat((Throwable)exception).hasRootCauseMessage("boom");
+  }
+
+  @Test
+  public void shouldShareSnapshotBetweenParallelQueries() throws SQLException {
+    Statement exportStatement = mock(Statement.class);
+    Statement importStatement = mock(Statement.class);
+
+    when(connection.createStatement()).thenReturn(exportStatement, importStatement);
+    when(exportStatement.executeQuery("SELECT pg_export_snapshot()")).thenReturn(new MockResultSet(List.of(List.of("00000003-0000001B-1"))));
+
+    String result = database.queryInParallel(parallelQuery -> {
+      Supplier<String> supplier = parallelQuery.fork((Transaction tx) -> {
+        tx."SELECT 1".execute();
+
+        return "done";
+      });
+
+      parallelQuery.join();
+
+      return supplier.get();
+    }, true);
+
+    assertThat(result).isEqualTo("done");
+
+    InOrder inOrder = inOrder(importStatement, statement);
+
+    inOrder.verify(importStatement).execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ; SET TRANSACTION SNAPSHOT '00000003-0000001B-1'");
+    inOrder.verify(statement).execute();
+    verify(connection, times(2)).commit();  // the forked transaction, and the one which exported the snapshot
+  }
+
+  private static void await(CyclicBarrier barrier) {
+    try {
+      barrier.await(10, TimeUnit.SECONDS);
+    }
+    catch(InterruptedException | BrokenBarrierException | TimeoutException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public void shouldReuseConnectionsOfBuiltInPool() throws SQLException {
+    AtomicInteger connections = new AtomicInteger();
+    Database database = DatabaseBuilder.usingPool(() -> {
+      connections.incrementAndGet();
+
+      return connection;
+    }, 2).withMaximumWait(Duration.ofSeconds(5)).build();
+
+    database.accept(tx -> tx."UPDATE t SET x = 1".execute());
+    database.accept(tx -> tx."UPDATE t SET x = 2".execute());
+
+    assertThat(connections).hasValue(1);
+    assertThat(database.statistics().connectionPool().acquireCount()).isEqualTo(2);
+    assertThat(database.statistics().connectionPool().activeConnections()).isZero();
+    assertThat(this.database.statistics().connectionPool()).isEqualTo(PoolStatistics.EMPTY);
+
+    verify(connection).setAutoCommit(false);  // remembered by the pool
+    verify(connection, times(2)).commit();
+    verify(connection, never()).close();
+  }
+
+  @Test
+  public void shouldRejectInvalidPoolConfiguration() {
+    assertThrows(IllegalArgumentException.class, () -> DatabaseBuilder.usingPool(connectionProvider, 0));
+    assertThrows(IllegalArgumentException.class, () -> DatabaseBuilder.usingPool(connectionProvider, 1).withMaximumWait(Duration.ofSeconds(-1)));
+    assertThrows(IllegalStateException.class, () -> DatabaseBuilder.using(connectionProvider).withMaximumWait(Duration.ZERO));
+    assertThrows(IllegalStateException.class, () -> DatabaseBuilder.using(connectionProvider).withValidationInterval(Duration.ZERO));
+  }
+
+  @Test
+  public void shouldClosePoolWhenDatabaseIsClosed() throws SQLException {
+    Database database = DatabaseBuilder.usingPool(() -> connection, 2).build();
+
+    database.accept(tx -> tx."UPDATE t SET x = 1".execute());
+
+    verify(connection, never()).close();
+
+    database.close();
+
+    verify(connection).close();
+
+    DatabaseException exception = assertThrows(DatabaseException.class, () -> database.accept(tx -> tx."UPDATE t SET x = 2".execute()));
+
+    assertThat(exception.getSQLException().getSQLState()).isEqualTo("08003");
+    assertThat(database.statistics().connectionPool().openConnections()).isZero();
+  }
+
+  @Test
+  public void shouldGiveEachBuiltDatabaseAPoolOfItsOwn() throws SQLException {
+    DatabaseBuilder builder = DatabaseBuilder.usingPool(() -> connection, 2);
+    Database first = builder.build();
+    CheckedDatabase second = builder.withMaximumWait(Duration.ZERO).throwingSQLExceptions();
+
+    first.accept(tx -> tx."UPDATE t SET x = 1".execute());
+    second.accept(tx -> tx."UPDATE t SET x = 2".execute());
+
+    assertThat(first.statistics().connectionPool().acquireCount()).isEqualTo(1);
+    assertThat(second.statistics().connectionPool().acquireCount()).isEqualTo(1);
+
+    first.close();
+
+    verify(connection).close();  // only the connection of the first pool
+
+    second.accept(tx -> tx."UPDATE t SET x = 3".execute());
+
+    assertThat(second.statistics().connectionPool().acquireCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldOnlyRetainTheChunkOfStreamedRowsWhichAreKept() throws SQLException, InterruptedException {
+    List<List<Object>> data = new AbstractList<>() {
+      @Override
+      public List<Object> get(int index) {
+        return List.of(new StringBuilder("row" + index));  // a new value each time, only referenced by the snapshot taken of it
+      }
+
+      @Override
+      public int size() {
+        return 1024;
+      }
+    };
+
+    when(statement.getResultSet()).thenReturn(new MockResultSet(data));
+
+    List<WeakReference<Object>> values = new ArrayList<>();
+    Row kept = database.query(tx -> tx."SELECT x FROM t".stream()
+      .peek(r -> values.add(new WeakReference<>(r.getObject(0))))
+      .filter(r -> r.getObject(0).toString().equals("row600"))
+      .findFirst()
+      .orElseThrow()
+    );
+
+    for(int i = 0; i < 50 && values.getFirst().get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    // Only the 256 row chunk containing row 600 remains reachable:
+    assertThat(IntStream.range(0, values.size()).filter(i -> values.get(i).get() != null)).containsExactlyElementsOf(IntStream.range(512, 601).boxed().toList());
+    assertThat(kept.getObject(0)).hasToString("row600");
+  }
+
+  @Test
+  public void shouldFailStatementsAcquiredJustAfterCancellation() throws SQLException {
+    try(Transaction transaction = database.beginTransaction()) {
+      @SuppressWarnings("unchecked")
+      StatementCache statementCache = ((BaseTransaction<DatabaseException>)transaction).getStatementCache();  // passes the cancellation check
+
+      statementCache.cancel();  // as a cancel arriving right after the check would
+
+      DatabaseException exception = assertThrows(DatabaseException.class, () -> transaction."SELECT 1".execute());
+
+      assertThat(exception.getSQLException().getSQLState()).isEqualTo("57014");
+    }
+
+    verify(statement, never()).execute();
+    verify(statement).close();
+  }
+
   @Test
   public void shouldNotAllowUncommitedNestedTransactions() {
     try(Transaction transaction = database.beginTransaction()) {
@@ -167,6 +520,55 @@ public class DatabaseTest {
     verify(connection).commit();
   }
 
+  @Test
+  public void shouldSetReadOnlyModeOnConnectionWithoutExtraStatements() throws SQLException {
+    try(Transaction transaction = database.beginReadOnlyTransaction()) {
+      transaction."SELECT 1".execute();
+    }
+
+    verify(connection).setAutoCommit(false);
+    verify(connection).setReadOnly(true);
+    verify(connection).prepareStatement("SELECT 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    verify(connection, never()).prepareStatement(anyString());
+    verify(connection, never()).createStatement();
+  }
+
+  @Test
+  public void shouldResetReadOnlyModeBeforeReleasingConnection() throws SQLException {
+    try(Transaction transaction = database.beginReadOnlyTransaction()) {
+      transaction."SELECT 1".execute();
+    }
+
+    InOrder inOrder = inOrder(connection);
+
+    inOrder.verify(connection).setReadOnly(true);
+    inOrder.verify(connection).commit();
+    inOrder.verify(connection).setReadOnly(false);
+    inOrder.verify(connection).close();
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."UPDATE t SET x = 1".execute();
+      transaction.commit();
+    }
+
+    verify(connection, times(2)).setAutoCommit(false);
+    verify(connection).setReadOnly(false);  // only by the read only transaction
+    verify(connection, never()).isReadOnly();
+  }
+
+  @Test
+  public void shouldNotTurnOffAutoCommitWhenItIsAlreadyOff() throws SQLException {
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."UPDATE t SET x = 1".execute();
+      transaction.commit();
+    }
+
+    verify(connection, never()).setAutoCommit(anyBoolean());
+    verify(connection).commit();
+  }
+
   @Test
   public void shouldNotCommitOrRollbackUnusedReadOnlyTransactions() {
     try(Transaction transaction = database.beginReadOnlyTransaction()) {
@@ -233,4 +635,219 @@ public class DatabaseTest {
 
     verify(connection).commit();
   }
+
+  @Test
+  public void shouldReuseCachedStatementsWithinTransaction() throws SQLException {
+    Database database = DatabaseBuilder.using(connectionProvider).withStatementCacheSize(10).build();
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."SELECT 1".execute();
+
+      try(Transaction nestedTransaction = database.beginTransaction()) {
+        nestedTransaction."SELECT 1".execute();
+        nestedTransaction.commit();
+      }
+
+      transaction."SELECT 1".execute();
+
+      verify(connection, times(1)).prepareStatement(anyString(), anyInt(), anyInt());
+      verify(statement, times(3)).clearParameters();
+      verify(statement, never()).close();
+
+      transaction.commit();
+    }
+
+    verify(statement).close();
+
+    assertThat(database.statistics().statementCache()).isEqualTo(new CacheStatistics(2, 1, 0));
+  }
+
+  @Test
+  public void shouldDiscardCachedStatementsAfterErrors() throws SQLException {
+    Database database = DatabaseBuilder.using(connectionProvider).withStatementCacheSize(10).build();
+
+    when(statement.execute()).thenThrow(new SQLException()).thenReturn(false);
+
+    try(Transaction transaction = database.beginTransaction()) {
+      assertThrows(DatabaseException.class, () -> transaction."SELECT 1".execute());
+
+      verify(statement).close();
+
+      transaction."SELECT 1".execute();
+      transaction.commit();
+    }
+
+    verify(connection, times(2)).prepareStatement(anyString(), anyInt(), anyInt());
+    verify(statement, times(2)).close();
+
+    assertThat(database.statistics().statementCache()).isEqualTo(new CacheStatistics(0, 2, 0));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedStatements() throws SQLException {
+    Database database = DatabaseBuilder.using(connectionProvider).withStatementCacheSize(1).build();
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."SELECT 1".execute();
+      transaction."SELECT 2".execute();
+      transaction."SELECT 2".execute();
+      transaction."SELECT 1".execute();
+      transaction.commit();
+    }
+
+    verify(connection, times(3)).prepareStatement(anyString(), anyInt(), anyInt());
+    verify(statement, times(3)).close();
+
+    assertThat(database.statistics().statementCache()).isEqualTo(new CacheStatistics(1, 3, 2));
+  }
+
+  @Test
+  public void shouldApplyFetchSize() throws SQLException {
+    Database database = DatabaseBuilder.using(connectionProvider).withFetchSize(100).withStatementCacheSize(10).build();
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."SELECT 1".execute();
+      transaction."SELECT 1".withFetchSize(10).execute();
+      transaction."SELECT 1".withFetchSize(0).execute();
+      transaction.commit();
+    }
+
+    verify(statement).setFetchSize(100);
+    verify(statement).setFetchSize(10);
+    verify(statement, times(2)).setFetchSize(0);  // reset each time before the statement is returned to the cache
+  }
+
+  @Test
+  public void shouldRejectNegativeFetchSize() {
+    try(Transaction transaction = database.beginTransaction()) {
+      assertThrows(IllegalArgumentException.class, () -> transaction."SELECT 1".withFetchSize(-1));
+    }
+  }
+
+  @Test
+  public void shouldOnlyRequestGeneratedKeysWhenMapped() throws SQLException {
+    when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(statement);
+    when(statement.getGeneratedKeys()).thenAnswer(invocation -> new MockResultSet(List.of()));
+
+    try(Transaction transaction = database.beginTransaction()) {
+      transaction."INSERT INTO t VALUES (1)".execute();
+      transaction."INSERT INTO t VALUES (2)".mapGeneratedKeys().toList();
+      transaction."INSERT INTO t VALUES (3)".mapGeneratedKeys("id").toList();
+      transaction.commit();
+    }
+
+    verify(connection).prepareStatement("INSERT INTO t VALUES (1)", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    verify(connection).prepareStatement("INSERT INTO t VALUES (2)", Statement.RETURN_GENERATED_KEYS);
+    verify(connection).prepareStatement("INSERT INTO t VALUES (3)", new String[] {"id"});
+  }
+
+  @Test
+  public void shouldRunAsyncOperationsOnVirtualThreads() throws Exception {
+    AsyncDatabase asyncDatabase = DatabaseBuilder.using(connectionProvider).buildAsync();
+    CompletableFuture<Boolean> future = asyncDatabase.query((Transaction tx) -> {
+      tx."SELECT 1".execute();
+
+      return Thread.currentThread().isVirtual();
+    });
+
+    assertThat(future.get(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(asyncDatabase.accept((Transaction tx) -> tx."UPDATE t SET x = 1".execute())).succeedsWithin(Duration.ofSeconds(10));
+
+    verify(connection, times(2)).commit();
+    verify(connection, never()).rollback();
+  }
+
+  @Test
+  public void shouldRetryAsyncOperationsAccordingToRetryStrategy() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("deadlock", "40P01")).thenReturn(false);
+
+    AsyncDatabase asyncDatabase = DatabaseBuilder.using(connectionProvider)
+      .withRetryStrategy((failCount, e) -> failCount < 2 && e.getSQLState().equals("40P01"))
+      .buildAsync();
+
+    assertThat(asyncDatabase.apply((Transaction tx) -> {
+      tx."UPDATE t SET x = 1".execute();
+
+      return "done";
+    })).succeedsWithin(Duration.ofSeconds(10)).isEqualTo("done");
+
+    verify(statement, times(2)).execute();
+  }
+
+  @Test
+  public void shouldFailAsyncOperationsWithDatabaseExceptions() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    AsyncDatabase asyncDatabase = DatabaseBuilder.using(connectionProvider).buildAsync();
+
+    assertThat(asyncDatabase.accept((Transaction tx) -> tx."UPDATE t SET x = 1".execute()))
+      .failsWithin(Duration.ofSeconds(10))
+      .withThrowableOfType(ExecutionException.class)
+      .withCauseInstanceOf(DatabaseException.class);
+  }
+
+  @Test
+  public void shouldLimitConcurrentAsyncOperations() throws Exception {
+    AsyncDatabase asyncDatabase = DatabaseBuilder.using(connectionProvider).withMaximumConcurrency(1).buildAsync();
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger started = new AtomicInteger();
+    CompletableFuture<Integer> first = asyncDatabase.query((Transaction tx) -> {
+      started.incrementAndGet();
+
+      try {
+        release.await();
+      }
+      catch(InterruptedException e) {
+        throw new AssertionError(e);
+      }
+
+      return 1;
+    });
+    CompletableFuture<Integer> second = asyncDatabase.query((Transaction tx) -> started.incrementAndGet());
+
+    Thread.sleep(100);
+
+    assertThat(started).hasValue(1);
+    assertThat(second).isNotDone();
+
+    release.countDown();
+
+    assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+    assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(2);
+    assertThrows(IllegalArgumentException.class, () -> DatabaseBuilder.using(connectionProvider).withMaximumConcurrency(0));
+  }
+
+  @Test
+  public void shouldCancelRunningStatementWhenAsyncOperationIsCancelled() throws Exception {
+    CountDownLatch executing = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+    AtomicInteger attempts = new AtomicInteger();
+
+    when(statement.execute()).thenAnswer(invocation -> {
+      attempts.incrementAndGet();
+      executing.countDown();
+      cancelled.await();
+
+      throw new SQLException("canceling statement due to user request", "57014");
+    });
+    doAnswer(invocation -> {
+      cancelled.countDown();
+
+      return null;
+    }).when(statement).cancel();
+
+    AsyncDatabase asyncDatabase = DatabaseBuilder.using(connectionProvider)
+      .withRetryStrategy((failCount, e) -> true)
+      .buildAsync();
+
+    CompletableFuture<Void> future = asyncDatabase.accept((Transaction tx) -> tx."UPDATE t SET x = 1".execute());
+
+    assertThat(executing.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(future.cancel(true)).isTrue();
+    assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+
+    verify(connection, timeout(10000)).rollback();
+    assertThat(attempts).hasValue(1);
+    assertThat(future).isCancelled();
+  }
 }
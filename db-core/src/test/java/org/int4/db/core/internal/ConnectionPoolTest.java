@@ -0,0 +1,266 @@
+package org.int4.db.core.internal;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.int4.db.core.api.PoolStatistics;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionPoolTest {
+  private final Deque<Connection> created = new ArrayDeque<>();
+  private final Supplier<Connection> connectionFactory = () -> {
+    Connection connection = mock(Connection.class);
+
+    created.add(connection);
+
+    return connection;
+  };
+
+  @Test
+  void shouldRejectInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(connectionFactory, 0, Duration.ZERO, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(-1), Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(connectionFactory, 1, Duration.ZERO, Duration.ofSeconds(-1)));
+    assertThrows(NullPointerException.class, () -> new ConnectionPool(null, 1, Duration.ZERO, Duration.ZERO));
+  }
+
+  @Test
+  void shouldReuseConnectionsAndSkipRedundantStateChanges() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 2, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+    try(Connection connection = pool.acquire()) {
+      connection.setAutoCommit(false);
+      connection.setReadOnly(false);
+      connection.commit();
+    }
+
+    try(Connection connection = pool.acquire()) {
+      connection.setAutoCommit(false);
+      connection.setReadOnly(false);
+
+      assertThat(connection.getAutoCommit()).isFalse();
+      assertThat(connection.isReadOnly()).isFalse();
+    }
+
+    assertThat(created).hasSize(1);
+
+    Connection connection = created.getFirst();
+
+    verify(connection).setAutoCommit(false);
+    verify(connection).setReadOnly(false);
+    verify(connection).commit();
+    verify(connection, never()).getAutoCommit();
+    verify(connection, never()).close();
+    verify(connection, never()).isValid(anyInt());
+  }
+
+  @Test
+  void shouldResetReadOnlyModeWhenConnectionIsReturned() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+    try(Connection connection = pool.acquire()) {
+      connection.setReadOnly(true);
+    }
+
+    try(Connection connection = pool.acquire()) {
+      assertThat(connection.isReadOnly()).isFalse();
+    }
+
+    assertThat(created).hasSize(1);
+
+    Connection connection = created.getFirst();
+
+    verify(connection).setReadOnly(true);
+    verify(connection).setReadOnly(false);
+    verify(connection, never()).isReadOnly();
+  }
+
+  @Test
+  void shouldRollBackConnectionsReturnedWithAutoCommitOff() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+    try(Connection connection = pool.acquire()) {
+      connection.setAutoCommit(false);
+    }
+
+    Connection connection = created.getFirst();
+
+    verify(connection).rollback();
+
+    doThrow(new SQLException("broken")).when(connection).rollback();
+
+    pool.acquire().close();
+
+    verify(connection).close();
+
+    try(Connection other = pool.acquire()) {
+      other.setAutoCommit(true);
+    }
+
+    assertThat(created).hasSize(2);
+    verify(created.getLast(), never()).rollback();
+  }
+
+  @Test
+  void shouldCloseIdleConnectionsAndRefuseAcquisitionsWhenClosed() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 2, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    Connection inUse = pool.acquire();
+
+    pool.acquire().close();
+    pool.close();
+
+    assertThat(created).hasSize(2);
+    verify(created.getLast()).close();
+    verify(created.getFirst(), never()).close();
+
+    SQLException exception = assertThrows(SQLNonTransientConnectionException.class, pool::acquire);
+
+    assertThat(exception.getSQLState()).isEqualTo("08003");
+
+    inUse.close();
+
+    verify(created.getFirst()).close();
+    assertThat(pool.statistics().openConnections()).isZero();
+
+    pool.close();
+  }
+
+  @Test
+  void shouldNotAllowUseOfConnectionAfterItWasReturned() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ZERO, Duration.ofMinutes(1));
+    Connection connection = pool.acquire();
+
+    connection.close();
+    connection.close();  // closing twice must not return the connection twice
+
+    assertThat(connection.isClosed()).isTrue();
+    assertThrows(SQLException.class, connection::commit);
+    assertThat(pool.statistics().activeConnections()).isZero();
+
+    try(Connection other = pool.acquire()) {
+      assertThrows(SQLTransientConnectionException.class, pool::acquire);
+      assertThat(other.isClosed()).isFalse();
+    }
+  }
+
+  @Test
+  void shouldValidateOnlyConnectionsWhichWereIdleTooLong() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(1), Duration.ZERO);
+
+    pool.acquire().close();
+
+    Connection first = created.getFirst();
+
+    when(first.isValid(anyInt())).thenReturn(false);
+
+    pool.acquire().close();
+
+    assertThat(created).hasSize(2);
+
+    Connection second = created.getLast();
+
+    when(second.isValid(anyInt())).thenReturn(true);
+
+    pool.acquire().close();
+
+    assertThat(created).hasSize(2);
+
+    verify(first).isValid(anyInt());
+    verify(first).close();
+    verify(second).isValid(anyInt());
+    verify(second, never()).close();
+  }
+
+  @Test
+  void shouldDiscardConnectionsClosedByTheirDriver() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    Connection connection = pool.acquire();
+
+    when(created.getFirst().isClosed()).thenReturn(true);
+
+    connection.close();
+
+    pool.acquire().close();
+
+    assertThat(created).hasSize(2);
+    assertThat(pool.statistics().openConnections()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldTimeOutAndHandOverConnectionsToWaitingThreads() throws Exception {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 1, Duration.ofMillis(50), Duration.ofMinutes(1));
+    Connection connection = pool.acquire();
+
+    SQLTransientConnectionException exception = assertThrows(SQLTransientConnectionException.class, pool::acquire);
+
+    assertThat(exception.getSQLState()).isEqualTo("08001");
+
+    ConnectionPool patientPool = new ConnectionPool(connectionFactory, 1, Duration.ofSeconds(10), Duration.ofMinutes(1));
+    Connection held = patientPool.acquire();
+    CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+      try {
+        return patientPool.acquire();
+      }
+      catch(SQLException e) {
+        throw new AssertionError(e);
+      }
+    }, command -> Thread.ofVirtual().start(command));
+
+    Thread.sleep(50);
+
+    assertThat(waiter).isNotDone();
+
+    held.close();
+
+    waiter.get(10, TimeUnit.SECONDS).close();
+    connection.close();
+
+    PoolStatistics statistics = pool.statistics();
+
+    assertThat(statistics.maximumSize()).isEqualTo(1);
+    assertThat(statistics.acquireCount()).isEqualTo(1);
+    assertThat(statistics.timeoutCount()).isEqualTo(1);
+    assertThat(statistics.totalWaitTime()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+    assertThat(statistics.averageWaitTime()).isGreaterThanOrEqualTo(Duration.ofMillis(25));
+    assertThat(patientPool.statistics().acquireCount()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReportUtilization() throws SQLException {
+    ConnectionPool pool = new ConnectionPool(connectionFactory, 4, Duration.ZERO, Duration.ofMinutes(1));
+
+    assertThat(pool.statistics()).isEqualTo(new PoolStatistics(4, 0, 0, 0, 0, pool.statistics().totalWaitTime()));
+
+    List<Connection> connections = List.of(pool.acquire(), pool.acquire(), pool.acquire());
+
+    connections.get(0).close();
+
+    PoolStatistics statistics = pool.statistics();
+
+    assertThat(statistics.openConnections()).isEqualTo(3);
+    assertThat(statistics.activeConnections()).isEqualTo(2);
+    assertThat(statistics.idleConnections()).isEqualTo(1);
+    assertThat(statistics.utilization()).isEqualTo(0.5);
+
+    verify(created.getFirst(), times(0)).close();
+  }
+}
@@ -5,6 +5,7 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
@@ -14,10 +15,17 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.int4.db.core.api.CacheStatistics;
 import org.int4.db.core.internal.bridge.SQLResult;
 import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.FieldValueSetParameter.StreamedValues;
+import org.int4.db.core.reflect.FieldValueSetParameter.Values;
+import org.int4.db.core.reflect.FlushStrategy;
 import org.int4.db.core.reflect.Identifier;
+import org.int4.db.core.reflect.Mapper;
 import org.int4.db.core.reflect.Reflector;
 import org.int4.db.core.reflect.Row;
 import org.int4.db.core.reflect.TypeConverter;
@@ -34,8 +42,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static java.lang.StringTemplate.RAW;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -63,9 +73,9 @@ public class SafeSQLTest {
 
     SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("""
       INSERT INTO employees (name) VALUES (?);
@@ -97,9 +107,9 @@ public class SafeSQLTest {
     Reflector<Employee> all = Reflector.of(LOOKUP, Employee.class);
     SafeSQL sql = new SafeSQL(RAW."SELECT e.\{all} FROM employee e", TYPE_CONVERTERS);
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("SELECT e.name, e.middle_name, e.birth_date, e.salary, e.age, e.overtime, e.gender FROM employee e");
 
@@ -125,8 +135,9 @@ public class SafeSQLTest {
     SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
 
     when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[0]);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.DEFAULT);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("""
       INSERT INTO employees (name, middle_name, birth_date, salary, age, overtime, gender) VALUES (?, ?, ?, ?, ?, ?, ?)
@@ -166,7 +177,7 @@ public class SafeSQLTest {
 
     when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.DEFAULT);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("""
       INSERT INTO employees (name, middle_name, birth_date, salary, age, overtime, gender) VALUES (?, ?, ?, ?, ?, ?, ?)
@@ -188,6 +199,21 @@ public class SafeSQLTest {
     assertThat(iterator.hasNext()).isFalse();
   }
 
+  @SuppressWarnings("resource")
+  @Test
+  void shouldPrepareStatementReturningNamedGeneratedKeys(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    SafeSQL sql = new SafeSQL(RAW."INSERT INTO employees (name) VALUES (\{"John"})", TYPE_CONVERTERS);
+
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(new String[] {"id", "version"}))).thenReturn(preparedStatement);
+
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.of("id", "version"));
+
+    assertThat(statement.toString()).isEqualTo("INSERT INTO employees (name) VALUES (?)");
+
+    verify(preparedStatement).setObject(1, "John");
+    verifyNoMoreInteractions(preparedStatement);
+  }
+
   @SuppressWarnings("resource")
   @Test
   void shouldRejectExecutingBatchesOfDifferentSizes(@Mock Connection connection) {
@@ -211,7 +237,7 @@ public class SafeSQLTest {
 
     SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
 
-    assertThatThrownBy(() -> sql.toSQLStatement(connection))
+    assertThatThrownBy(() -> sql.toSQLStatement(connection, GeneratedKeys.NONE))
       .isInstanceOf(IllegalArgumentException.class)
       .hasMessage("batches are of different sizes");
   }
@@ -228,9 +254,10 @@ public class SafeSQLTest {
 
     SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[0]);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("""
       INSERT INTO alphabet (letter, index) VALUES (?, ?)
@@ -265,9 +292,10 @@ public class SafeSQLTest {
 
     SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[0]);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("INSERT INTO alphabet (letter, index) VALUES (?, ?)");
 
@@ -314,22 +342,68 @@ public class SafeSQLTest {
     assertThat(sql.getSQL()).isEqualTo("SELECT name, middle_name, birth_date, salary, age, overtime, gender FROM employees");
     assertThat(sql.toString()).isEqualTo("SELECT name, middle_name, birth_date, salary, age, overtime, gender FROM employees");
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("SELECT name, middle_name, birth_date, salary, age, overtime, gender FROM employees");
 
     SQLResult result = statement.execute();
 
-    when(preparedStatement.getResultSet()).thenReturn(new MockResultSet(List.of(
-      Arrays.asList("John", null, LocalDate.of(1234, 5, 6), 42.42, null, true, Gender.M)
-    )));
+    MockResultSet resultSet = new MockResultSet(List.of(
+      Arrays.asList("John", null, LocalDate.of(1234, 5, 6), 42.42, null, true, Gender.M),
+      Arrays.asList("Jane", null, LocalDate.of(1234, 5, 7), 43.43, 31, false, Gender.F)
+    ));
+
+    when(preparedStatement.getResultSet()).thenReturn(resultSet);
 
     Iterator<Row> iterator = result.createIterator();
 
     assertThat(iterator.next()).extracting(Row::toArray).isEqualTo(new Object[] {"John", null, LocalDate.of(1234, 5, 6), 42.42, null, true, Gender.M});
+
+    Row row = iterator.next();
+
+    assertThat(row.toArray()).isEqualTo(new Object[] {"Jane", null, LocalDate.of(1234, 5, 7), 43.43, 31, false, Gender.F});
+    assertThat(row.getColumnCount()).isEqualTo(7);
+    assertThat(row.getMetaData().getColumnLabel(6)).isEqualTo("column7");
     assertThat(iterator.hasNext()).isFalse();
+    assertThat(resultSet.getMetaDataRequests()).isEqualTo(1);
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldMapColumnsByName(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    Reflector<Badge> reflector = Reflector.of(LOOKUP, Badge.class).mappedByName();
+
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.getResultSet()).thenReturn(
+      new MockResultSet(List.of("id", "ACTIVE", "name", "number"), List.of(
+        List.of(1, true, "John", 42),
+        List.of(2, false, "Jane", 43)
+      )),
+      new MockResultSet(List.of("name", "number", "active"), List.of(
+        List.of("Alice", 44, true)
+      )),
+      new MockResultSet(List.of("name", "active"), List.of(
+        List.of("Bob", true)
+      ))
+    );
+
+    SQLStatement statement = new SafeSQL(RAW."SELECT * FROM badges", TYPE_CONVERTERS).toSQLStatement(connection, GeneratedKeys.NONE);
+
+    List<Badge> badges = new ArrayList<>();
+    Mapper<Badge> mapper = reflector.bind();
+
+    statement.execute().createIterator().forEachRemaining(row -> badges.add(mapper.apply(row)));
+
+    assertThat(badges).containsExactly(new Badge("John", 42, true), new Badge("Jane", 43, false));
+    assertThat(reflector.apply(statement.execute().createIterator().next())).isEqualTo(new Badge("Alice", 44, true));
+    assertThatThrownBy(() -> reflector.apply(statement.execute().createIterator().next()))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("result has no column labeled 'number' to map to: " + Badge.class + "; labels were: [name, active]");
+    assertThatThrownBy(() -> reflector.apply(Row.of("Bob", 45, true)))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("rows must provide metadata to be mapped by name to: " + Badge.class);
   }
 
   @SuppressWarnings("resource")
@@ -342,9 +416,9 @@ public class SafeSQLTest {
     assertThat(sql.getSQL()).isEqualTo("UPDATE employees SET salary = 100");
     assertThat(sql.toString()).isEqualTo("UPDATE employees SET salary = 100");
 
-    when(connection.prepareStatement(sqlCaptor.capture(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(preparedStatement);
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
 
-    SQLStatement statement = sql.toSQLStatement(connection);
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
 
     assertThat(sqlCaptor.getValue()).isEqualTo("UPDATE employees SET salary = 100");
 
@@ -355,6 +429,353 @@ public class SafeSQLTest {
     assertThat(result.getUpdateCount()).isEqualTo(42);
   }
 
+  @Test
+  void shouldReuseSQLOfTemplatesWithSameShape() {
+    TemplateCache cache = new TemplateCache(10);
+    Reflector<Employee> all = Reflector.of(LOOKUP, Employee.class);
+    Extractor<Employee> nameOnly = all.only("name");
+
+    for(int i = 0; i < 3; i++) {
+      Employee employee = new Employee("John" + i, null, LocalDate.of(1234, 5, 6), 42.42, i, true, Gender.M);
+      SafeSQL sql = new SafeSQL(RAW."UPDATE employees SET \{nameOnly.entries(employee)} WHERE age = \{employee.age()}", TYPE_CONVERTERS, cache);
+
+      assertThat(sql.getSQL()).isEqualTo("UPDATE employees SET name = ? WHERE age = ?");
+    }
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(2, 1, 0));
+
+    SafeSQL sql = new SafeSQL(RAW."UPDATE employees SET \{all.only("middle_name").entries(null)} WHERE age = \{1}", TYPE_CONVERTERS, cache);
+
+    assertThat(sql.getSQL()).isEqualTo("UPDATE employees SET middle_name = ? WHERE age = ?");
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(2, 2, 0));
+  }
+
+  @Test
+  void shouldDistinguishTemplatesByValueShape() {
+    TemplateCache cache = new TemplateCache(10);
+    Employee employee = new Employee("John", null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M);
+
+    assertThat(new SafeSQL(RAW."SELECT * FROM \{Identifier.of("a")} WHERE x = \{employee}", TYPE_CONVERTERS, cache).getSQL())
+      .isEqualTo("SELECT * FROM a WHERE x = ?, ?, ?, ?, ?, ?, ?");
+    assertThat(new SafeSQL(RAW."SELECT * FROM \{Identifier.of("b")} WHERE x = \{employee}", TYPE_CONVERTERS, cache).getSQL())
+      .isEqualTo("SELECT * FROM b WHERE x = ?, ?, ?, ?, ?, ?, ?");
+    assertThat(new SafeSQL(RAW."SELECT * FROM \{Identifier.of("b")} WHERE x = \{employee.birthDate()}", TYPE_CONVERTERS, cache).getSQL())
+      .isEqualTo("SELECT * FROM b WHERE x = ?");
+    assertThat(new SafeSQL(RAW."SELECT * FROM \{Identifier.of("b")} WHERE x = \{employee}", TYPE_CONVERTERS, cache).getSQL())
+      .isEqualTo("SELECT * FROM b WHERE x = ?, ?, ?, ?, ?, ?, ?");
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(1, 3, 0));
+  }
+
+  @Test
+  void shouldEvictEntriesWhenTemplateCacheIsFull() {
+    TemplateCache cache = new TemplateCache(2);
+
+    for(String name : List.of("a", "b", "c", "d")) {
+      assertThat(new SafeSQL(RAW."SELECT * FROM \{Identifier.of(name)}", TYPE_CONVERTERS, cache).getSQL()).isEqualTo("SELECT * FROM " + name);
+    }
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(0, 4, 2));
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldBindRecordsUsingCompiledTemplateOfSameShape(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    TemplateCache cache = new TemplateCache(10);
+    Employee john = new Employee("John", null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M);
+    Employee jane = new Employee("Jane", "Mary", null, 43.43, null, false, Gender.F);
+
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[0]);
+
+    for(List<Employee> employees : List.of(List.of(john, jane), List.of(jane, john))) {
+      SQLStatement statement = new SafeSQL(RAW."INSERT INTO employees VALUES (\{employees})", TYPE_CONVERTERS, cache).toSQLStatement(connection, GeneratedKeys.NONE);
+
+      assertThat(statement.toString()).isEqualTo("INSERT INTO employees VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+      statement.execute();
+    }
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(1, 1, 0));
+
+    InOrder inOrder = Mockito.inOrder(preparedStatement);
+
+    for(int i = 0; i < 2; i++) {
+      if(i == 1) {
+        verifyJane(inOrder, preparedStatement);
+      }
+
+      inOrder.verify(preparedStatement).setObject(1, "John");
+      inOrder.verify(preparedStatement).setNull(2, Types.NULL);
+      inOrder.verify(preparedStatement).setObject(3, Date.valueOf(LocalDate.of(1234, 5, 6)));
+      inOrder.verify(preparedStatement).setObject(4, 42.42);
+      inOrder.verify(preparedStatement).setObject(5, 31);
+      inOrder.verify(preparedStatement).setObject(6, true);
+      inOrder.verify(preparedStatement).setString(7, "M");
+      inOrder.verify(preparedStatement).addBatch();
+
+      if(i == 0) {
+        verifyJane(inOrder, preparedStatement);
+      }
+
+      inOrder.verify(preparedStatement).executeBatch();
+    }
+
+    verifyNoMoreInteractions(preparedStatement);
+  }
+
+  private static void verifyJane(InOrder inOrder, PreparedStatement preparedStatement) throws SQLException {
+    inOrder.verify(preparedStatement).setObject(1, "Jane");
+    inOrder.verify(preparedStatement).setObject(2, "Mary");
+    inOrder.verify(preparedStatement).setNull(3, Types.NULL);
+    inOrder.verify(preparedStatement).setObject(4, 43.43);
+    inOrder.verify(preparedStatement).setNull(5, Types.NULL);
+    inOrder.verify(preparedStatement).setObject(6, false);
+    inOrder.verify(preparedStatement).setString(7, "F");
+    inOrder.verify(preparedStatement).addBatch();
+  }
+
+  @Test
+  void shouldBindBatchOfRecordsOfDifferentClasses(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    List<Record> records = List.of(new Badge("John", 42, true), new Pass("Jane", 43, false));
+
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[0]);
+
+    new SafeSQL(RAW."INSERT INTO badges VALUES (\{records})", TYPE_CONVERTERS).toSQLStatement(connection, GeneratedKeys.NONE).execute();
+
+    InOrder inOrder = Mockito.inOrder(preparedStatement);
+
+    inOrder.verify(preparedStatement).setObject(1, "John");
+    inOrder.verify(preparedStatement).setObject(2, 42);
+    inOrder.verify(preparedStatement).setObject(3, true);
+    inOrder.verify(preparedStatement).addBatch();
+    inOrder.verify(preparedStatement).setObject(1, "Jane");
+    inOrder.verify(preparedStatement).setObject(2, 43);
+    inOrder.verify(preparedStatement).setObject(3, false);
+    inOrder.verify(preparedStatement).addBatch();
+    inOrder.verify(preparedStatement).executeBatch();
+
+    List<Record> mismatched = List.of(new Badge("John", 42, true), new Employee("Jane", "Mary", null, 43.43, null, false, Gender.F));
+
+    assertThatThrownBy(() -> new SafeSQL(RAW."INSERT INTO badges VALUES (\{mismatched})", TYPE_CONVERTERS).toSQLStatement(connection, GeneratedKeys.NONE).execute())
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("expected a record with 3 components like " + Badge.class + " but got: ");
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldExecuteStreamedBatchInParts(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    Extractor<Employee> nameOnly = Reflector.of(LOOKUP, Employee.class).only("name");
+    List<Long> progress = new ArrayList<>();
+    Stream<Employee> employees = IntStream.range(0, 5).mapToObj(i -> new Employee("John" + i, null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M));
+
+    StringTemplate template = RAW."""
+      INSERT INTO employees (\{nameOnly}) VALUES (\{nameOnly.batch(employees).withFlushStrategy(FlushStrategy.fixed(2)).withProgressListener(progress::add)})
+    """;
+
+    SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS);
+
+    when(connection.prepareStatement(sqlCaptor.capture(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[] {1, 1}, new int[] {1, 1}, new int[] {1});
+
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
+
+    assertThat(sqlCaptor.getValue()).isEqualTo("""
+      INSERT INTO employees (name) VALUES (?)
+    """);
+
+    verifyNoMoreInteractions(preparedStatement);
+
+    SQLResult result = statement.execute();
+
+    InOrder inOrder = Mockito.inOrder(preparedStatement);
+
+    for(int i = 0; i < 5; i++) {
+      inOrder.verify(preparedStatement).setObject(1, "John" + i);
+      inOrder.verify(preparedStatement).addBatch();
+
+      if(i % 2 == 1 || i == 4) {
+        inOrder.verify(preparedStatement).executeBatch();
+      }
+    }
+
+    verifyNoMoreInteractions(preparedStatement);
+
+    assertThat(result.getUpdateCount()).isEqualTo(5);
+    assertThat(progress).containsExactly(2L, 4L, 5L);
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldIterateStreamedBatchOfIterableAgainOnEachExecution(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    Extractor<Employee> nameOnly = Reflector.of(LOOKUP, Employee.class).only("name");
+    List<Employee> employees = IntStream.range(0, 3).mapToObj(i -> new Employee("John" + i, null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M)).toList();
+    StreamedValues values = nameOnly.batch((Iterable<Employee>)employees::iterator);
+    StreamedValues copy = values.withFlushStrategy(FlushStrategy.fixed(2));
+
+    assertThat(copy.advance()).isTrue();
+    assertThat(copy.advance()).isTrue();
+    assertThat(values.advance()).isTrue();
+    assertThat(values.getValues(0)[0]).isEqualTo("John0");  // copies iterate independently
+
+    SafeSQL sql = new SafeSQL(RAW."INSERT INTO employees (\{nameOnly}) VALUES (\{copy})", TYPE_CONVERTERS);
+
+    when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenThrow(new SQLException("serialization failure")).thenReturn(new int[] {1, 1}, new int[] {1});
+
+    assertThatThrownBy(() -> sql.toSQLStatement(connection, GeneratedKeys.NONE).execute())
+      .isInstanceOf(SQLException.class);
+
+    assertThat(sql.toSQLStatement(connection, GeneratedKeys.NONE).execute().getUpdateCount()).isEqualTo(3);
+
+    InOrder inOrder = Mockito.inOrder(preparedStatement);
+
+    inOrder.verify(preparedStatement).setObject(1, "John0");
+    inOrder.verify(preparedStatement).setObject(1, "John1");
+    inOrder.verify(preparedStatement).executeBatch();  // fails, as a retried transaction would
+
+    for(int i = 0; i < 3; i++) {
+      inOrder.verify(preparedStatement).setObject(1, "John" + i);
+    }
+
+    inOrder.verify(preparedStatement).executeBatch();
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldRejectFlushStrategiesReturningNoRows(@Mock Connection connection, @Mock PreparedStatement preparedStatement) throws SQLException {
+    Extractor<Employee> nameOnly = Reflector.of(LOOKUP, Employee.class).only("name");
+    Stream<Employee> employees = IntStream.range(0, 5).mapToObj(i -> new Employee("John" + i, null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M));
+    FlushStrategy flushStrategy = new FlushStrategy() {
+      @Override
+      public int initialRows() {
+        return 1;
+      }
+
+      @Override
+      public int nextRows(int rows, long elapsedNanos) {
+        return 0;
+      }
+    };
+
+    SafeSQL sql = new SafeSQL(RAW."INSERT INTO employees (\{nameOnly}) VALUES (\{nameOnly.batch(employees).withFlushStrategy(flushStrategy)})", TYPE_CONVERTERS);
+
+    when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(preparedStatement);
+    when(preparedStatement.executeBatch()).thenReturn(new int[] {1});
+
+    SQLStatement statement = sql.toSQLStatement(connection, GeneratedKeys.NONE);
+
+    assertThatThrownBy(statement::execute)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageEndingWith("must return a positive number of rows, but returned: 0");
+
+    verify(preparedStatement).executeBatch();
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldRejectCombiningStreamedBatchWithOtherBatches(@Mock Connection connection) {
+    Extractor<Employee> nameOnly = Reflector.of(LOOKUP, Employee.class).only("name");
+    List<Employee> employees = List.of(
+      new Employee("John", null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.M),
+      new Employee("Jane", null, LocalDate.of(1234, 5, 6), 42.42, 31, true, Gender.F)
+    );
+
+    SafeSQL sql = new SafeSQL(RAW."INSERT INTO employees (\{nameOnly}, age) VALUES (\{nameOnly.batch(employees.iterator())}, \{List.of(1, 2)})", TYPE_CONVERTERS);
+
+    assertThatThrownBy(() -> sql.toSQLStatement(connection, GeneratedKeys.NONE))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("streamed batches cannot be combined with other batches");
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  void shouldInsertMultiRowValuesWithMultipleStatements(@Mock Connection connection, @Mock PreparedStatement ps1, @Mock PreparedStatement ps2) throws SQLException {
+    TemplateCache cache = new TemplateCache(10);
+    Extractor<Employee> extractor = Reflector.of(LOOKUP, Employee.class).only("name", "age");
+    List<Employee> employees = IntStream.range(0, 5).mapToObj(i -> new Employee("John" + i, null, null, 0.0, 30 + i, true, Gender.M)).toList();
+
+    StringTemplate template = RAW."INSERT INTO employees (\{extractor}) VALUES (\{extractor.batch(employees).multiRow(7)}) ON CONFLICT (name) DO UPDATE SET overtime = \{true}";
+
+    SafeSQL sql = new SafeSQL(template, TYPE_CONVERTERS, cache);
+
+    assertThat(sql.getSQL()).isEqualTo("INSERT INTO employees (name, age) VALUES (?, ?), (?, ?), (?, ?) ON CONFLICT (name) DO UPDATE SET overtime = ?");
+
+    when(connection.prepareStatement("INSERT INTO employees (name, age) VALUES (?, ?), (?, ?), (?, ?) ON CONFLICT (name) DO UPDATE SET overtime = ?", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(ps1);
+    when(connection.prepareStatement("INSERT INTO employees (name, age) VALUES (?, ?), (?, ?) ON CONFLICT (name) DO UPDATE SET overtime = ?", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)).thenReturn(ps2);
+    when(ps1.executeLargeUpdate()).thenReturn(3L);
+    when(ps2.executeLargeUpdate()).thenReturn(2L);
+
+    SQLResult result = sql.toSQLStatement(connection, GeneratedKeys.NONE).execute();
+
+    assertThat(result.getUpdateCount()).isEqualTo(5);
+
+    InOrder inOrder = Mockito.inOrder(ps1, ps2);
+
+    inOrder.verify(ps1).setObject(1, "John0");
+    inOrder.verify(ps1).setObject(2, 30);
+    inOrder.verify(ps1).setObject(3, "John1");
+    inOrder.verify(ps1).setObject(4, 31);
+    inOrder.verify(ps1).setObject(5, "John2");
+    inOrder.verify(ps1).setObject(6, 32);
+    inOrder.verify(ps1).setObject(7, true);
+    inOrder.verify(ps1).executeLargeUpdate();
+    inOrder.verify(ps1).close();
+    inOrder.verify(ps2).setObject(1, "John3");
+    inOrder.verify(ps2).setObject(2, 33);
+    inOrder.verify(ps2).setObject(3, "John4");
+    inOrder.verify(ps2).setObject(4, 34);
+    inOrder.verify(ps2).setObject(5, true);
+    inOrder.verify(ps2).executeLargeUpdate();
+    inOrder.verify(ps2).close();
+
+    verifyNoMoreInteractions(ps1, ps2);
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(0, 2, 0));
+
+    new SafeSQL(template, TYPE_CONVERTERS, cache).toSQLStatement(connection, GeneratedKeys.NONE).execute();
+
+    assertThat(cache.statistics()).isEqualTo(new CacheStatistics(2, 2, 0));
+  }
+
+  @Test
+  void shouldRejectInvalidMultiRowValues() {
+    Extractor<Employee> extractor = Reflector.of(LOOKUP, Employee.class).only("name", "age");
+    List<Employee> employees = List.of(new Employee("John", null, null, 0.0, 30, true, Gender.M));
+    Values values = extractor.batch(employees).multiRow(7);
+
+    assertThatThrownBy(() -> new SafeSQL(RAW."INSERT INTO employees (\{extractor}) VALUES (\{values}, 1)", TYPE_CONVERTERS))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("multi-row values must be the only content of their enclosing parentheses: ");
+
+    assertThatThrownBy(() -> new SafeSQL(RAW."INSERT INTO employees (\{extractor}, x) VALUES (\{values}) WHERE \{List.of(1, 2)}", TYPE_CONVERTERS))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("multi-row values cannot be combined with other batches: ");
+
+    assertThatThrownBy(() -> new SafeSQL(RAW."INSERT INTO employees (\{extractor}) VALUES (\{extractor.batch(employees).multiRow(1)})", TYPE_CONVERTERS))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("multi-row values require more than the maximum of 1 parameters for a single row: ");
+  }
+
+  @Test
+  void shouldRejectReadingRowsOfMultiRowValuesBeforeExecuting(@Mock Connection connection) {
+    Extractor<Employee> extractor = Reflector.of(LOOKUP, Employee.class).only("name", "age");
+    List<Employee> employees = List.of(new Employee("John", null, null, 0.0, 30, true, Gender.M));
+    SafeSQL sql = new SafeSQL(RAW."INSERT INTO employees (\{extractor}) VALUES (\{extractor.batch(employees).multiRow(7)})", TYPE_CONVERTERS);
+
+    assertThatThrownBy(() -> sql.toSQLStatement(connection, GeneratedKeys.NONE).executeForRows())
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageStartingWith("statements with multi-row values do not return rows: ");
+
+    assertThatThrownBy(() -> sql.toSQLStatement(connection, GeneratedKeys.DEFAULT))
+      .isInstanceOf(IllegalArgumentException.class);
+
+    verifyNoInteractions(connection);
+  }
+
   enum Gender {M, F}
   record Employee(String name, String middleName, LocalDate birthDate, double salary, Integer age, boolean overtime, Gender gender) {}
+  record Badge(String name, int number, boolean active) {}
+  record Pass(String holder, int number, boolean active) {}
 }
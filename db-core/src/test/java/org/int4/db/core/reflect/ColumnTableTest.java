@@ -0,0 +1,161 @@
+package org.int4.db.core.reflect;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ColumnTableTest {
+
+  @Test
+  void shouldStoreRowsWithoutMetaDataAsObjects() {
+    ColumnTable.Builder builder = ColumnTable.builder();
+
+    for(int i = 0; i < 20; i++) {  // more than the initial capacity
+      builder.add(Row.of(i, "Name " + i, i % 2 == 0 ? null : (long)i));
+    }
+
+    ColumnTable table = builder.build();
+
+    assertThat(table.getMetaData()).isNull();
+    assertThat(table.getRowCount()).isEqualTo(20);
+    assertThat(table.getColumnCount()).isEqualTo(3);
+    assertThat(table.getInt(0, 19)).isEqualTo(19);
+    assertThat(table.getObject(1, 3)).isEqualTo("Name 3");
+    assertThat(table.isNull(2, 4)).isTrue();
+    assertThat(table.getLong(2, 4)).isZero();
+    assertThat(table.getLong(2, 5)).isEqualTo(5L);
+    assertThat(table.getRow(7).toArray()).containsExactly(7, "Name 7", 7L);
+    assertThat(table.rows()).hasSize(20);
+  }
+
+  @Test
+  void shouldNotBeAffectedByRowsAddedAfterBuilding() {
+    ColumnTable.Builder builder = ColumnTable.builder();
+
+    builder.add(Row.of(1));
+
+    ColumnTable table = builder.build();
+
+    builder.add(Row.of(2));
+
+    assertThat(table.getRowCount()).isEqualTo(1);
+    assertThat(builder.build().getRowCount()).isEqualTo(2);
+  }
+
+  @Test
+  void snapshotsShouldBeEqualToStaticRows() {
+    ColumnTable.Builder builder = ColumnTable.builder();
+    Row snapshot = builder.add(Row.of(1, "a", null, new byte[] {1, 2}));
+
+    builder.add(Row.of(2, "b", 3L, new byte[0]));
+
+    assertThat(snapshot).isEqualTo(Row.of(1, "a", null, new byte[] {1, 2}));
+    assertThat(Row.of(1, "a", null, new byte[] {1, 2})).isEqualTo(snapshot);
+    assertThat(snapshot).hasSameHashCodeAs(Row.of(1, "a", null, new byte[] {1, 2}));
+    assertThat(snapshot).isNotEqualTo(Row.of(2, "b", 3L, new byte[0]));
+  }
+
+  @Test
+  void shouldBuildEmptyTable() {
+    ColumnTable table = ColumnTable.builder().build();
+
+    assertThat(table.getRowCount()).isZero();
+    assertThat(table.getColumnCount()).isZero();
+    assertThat(table.rows()).isEmpty();
+  }
+
+  @Test
+  void shouldRejectInvalidArguments() {
+    ColumnTable.Builder builder = ColumnTable.builder();
+
+    builder.add(Row.of(1, 2));
+
+    assertThatThrownBy(() -> builder.add(Row.of(1)))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("row must have 2 columns: ");
+
+    ColumnTable table = builder.build();
+
+    assertThatThrownBy(() -> table.getInt(2, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThatThrownBy(() -> table.getInt(0, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void shouldStoreColumnsAsObjectsWhenTheirClassDoesNotMatchTheirType() {
+    RowMetaData metaData = new RowMetaData(
+      List.of("unsigned", "bits", "flag", "id"),
+      new int[] {Types.INTEGER, Types.BIT, Types.BIT, Types.INTEGER},
+      List.of("java.lang.Long", "java.lang.Boolean", "java.lang.Boolean", "java.lang.Integer"),
+      new int[] {10, 3, 1, 10}
+    );
+    ColumnTable.Builder builder = ColumnTable.builder();
+
+    builder.add(withMetaData(metaData, Row.of(4294967295L, "101", true, 1)));
+
+    ColumnTable table = builder.build();
+
+    assertThat(table.getObject(0, 0)).isEqualTo(4294967295L);
+    assertThat(table.getLong(0, 0)).isEqualTo(4294967295L);
+    assertThat(table.getObject(1, 0)).isEqualTo("101");
+    assertThat(table.getBoolean(2, 0)).isTrue();
+    assertThat(table.getInt(3, 0)).isEqualTo(1);
+  }
+
+  private static Row withMetaData(RowMetaData metaData, Row row) {
+    return new Row() {
+      @Override
+      public RowMetaData getMetaData() {
+        return metaData;
+      }
+
+      @Override
+      public int getColumnCount() {
+        return row.getColumnCount();
+      }
+
+      @Override
+      public byte[] getBytes(int columnIndex) {
+        return row.getBytes(columnIndex);
+      }
+
+      @Override
+      public String getString(int columnIndex) {
+        return row.getString(columnIndex);
+      }
+
+      @Override
+      public Object getObject(int columnIndex) {
+        return row.getObject(columnIndex);
+      }
+
+      @Override
+      public <T> T getObject(int columnIndex, Class<T> type) {
+        return row.getObject(columnIndex, type);
+      }
+
+      @Override
+      public double getDouble(int columnIndex) {
+        return row.getDouble(columnIndex);
+      }
+
+      @Override
+      public long getLong(int columnIndex) {
+        return row.getLong(columnIndex);
+      }
+
+      @Override
+      public int getInt(int columnIndex) {
+        return row.getInt(columnIndex);
+      }
+
+      @Override
+      public boolean getBoolean(int columnIndex) {
+        return row.getBoolean(columnIndex);
+      }
+    };
+  }
+}
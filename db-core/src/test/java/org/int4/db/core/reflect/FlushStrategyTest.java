@@ -0,0 +1,47 @@
+package org.int4.db.core.reflect;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FlushStrategyTest {
+
+  @Test
+  void fixedShouldAlwaysReturnSameNumberOfRows() {
+    FlushStrategy strategy = FlushStrategy.fixed(500);
+
+    assertThat(strategy.initialRows()).isEqualTo(500);
+    assertThat(strategy.nextRows(500, 1)).isEqualTo(500);
+    assertThat(strategy.nextRows(500, Long.MAX_VALUE)).isEqualTo(500);
+  }
+
+  @Test
+  void adaptiveShouldAdaptToLatency() {
+    FlushStrategy strategy = FlushStrategy.adaptive(Duration.ofMillis(100), 10, 1000);
+
+    assertThat(strategy.initialRows()).isEqualTo(10);
+    assertThat(strategy.nextRows(10, Duration.ofMillis(10).toNanos())).isEqualTo(20);  // at most doubles
+    assertThat(strategy.nextRows(100, Duration.ofMillis(80).toNanos())).isEqualTo(125);
+    assertThat(strategy.nextRows(100, Duration.ofMillis(1000).toNanos())).isEqualTo(50);  // at most halves
+    assertThat(strategy.nextRows(800, 0)).isEqualTo(1000);
+    assertThat(strategy.nextRows(10, Duration.ofSeconds(1).toNanos())).isEqualTo(10);
+  }
+
+  @Test
+  void shouldRejectInvalidArguments() {
+    assertThatThrownBy(() -> FlushStrategy.fixed(0))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("rows must be positive: 0");
+
+    assertThatThrownBy(() -> FlushStrategy.adaptive(Duration.ZERO, 1, 2))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("targetLatency must be positive: PT0S");
+
+    assertThatThrownBy(() -> FlushStrategy.adaptive(Duration.ofMillis(1), 5, 2))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("maximumRows cannot be less than minimumRows: 2 < 5");
+  }
+}
@@ -5,6 +5,7 @@ import java.lang.invoke.MethodHandles.Lookup;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import org.int4.db.core.reflect.FieldValueSetParameter.Entries;
@@ -18,6 +19,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ReflectorTest {
@@ -168,6 +173,135 @@ public class ReflectorTest {
       .hasMessage("Index 2 out of bounds for length 2");
   }
 
+  @Test
+  void shouldCreateRecordsWithManyComponents() {
+    Reflector<Wide> reflector = Reflector.of(Wide.class);
+    Object[] data = new Object[32];
+
+    for(int i = 0; i < data.length; i++) {
+      data[i] = switch(i % 4) {
+        case 0 -> i;
+        case 1 -> (long)i;
+        case 2 -> (double)i;
+        default -> "c" + i;
+      };
+    }
+
+    Wide expected = new Wide(
+      0, 1L, 2.0, "c3", 4, 5L, 6.0, "c7", 8, 9L, 10.0, "c11", 12, 13L, 14.0, "c15",
+      16, 17L, 18.0, "c19", 20, 21L, 22.0, "c23", 24, 25L, 26.0, "c27", 28, 29L, 30.0, "c31"
+    );
+
+    assertThat(reflector.names()).hasSize(32).startsWith("c_0", "c_1").endsWith("c_30", "c_31");
+    assertThat(reflector.apply(Row.of(data))).isEqualTo(expected);
+    assertThat(reflector.values(expected).getValues(0)).hasSize(32).endsWith(30.0, "c31");
+  }
+
+  @Test
+  void shouldReadPrimitiveComponentsFromNullColumnsAsDefaultValues() {
+    Row row = mock(Row.class);  // like a JDBC result, returns default values for primitives and null for objects
+    Primitives expected = new Primitives(0, 0L, 0.0, false, null);
+
+    assertThat(Reflector.of(Primitives.class).apply(row)).isEqualTo(expected);
+  }
+
+  @Test
+  void shouldPropagateExceptionsReadingRowsUnchanged() {
+    Row row = Row.of(1, null, 2.0, true, "text");  // null cannot be read as a primitive long
+
+    assertThatThrownBy(() -> Reflector.of(Primitives.class).apply(row))
+      .isExactlyInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldWrapExceptionsThrownByConstructors() {
+    Row row = Row.of(-1, 2L, 3.0, true, "text");
+
+    assertThatThrownBy(() -> Reflector.of(Primitives.class).apply(row))
+      .isExactlyInstanceOf(IllegalStateException.class)
+      .hasMessage("construction failed for record of type: " + Primitives.class)
+      .cause()
+      .isExactlyInstanceOf(IllegalArgumentException.class)
+      .hasMessage("i cannot be negative: -1");
+  }
+
+  @Test
+  void mappingByNameShouldOnlyLookUpColumnsOncePerResult() {
+    Reflector<Coordinate> reflector = Reflector.of(Coordinate.class).mappedByName();
+    RowMetaData metaData = spy(new RowMetaData(List.of("y", "x"), new int[2], List.of("java.lang.Integer", "java.lang.Integer"), new int[2]));
+    Row row = mock(Row.class);
+
+    when(row.getMetaData()).thenReturn(metaData);
+    when(row.getInt(0)).thenReturn(2);
+    when(row.getInt(1)).thenReturn(1);
+
+    for(int i = 0; i < 3; i++) {
+      assertThat(reflector.apply(row)).isEqualTo(new Coordinate(1, 2));
+    }
+
+    verify(metaData).getColumnLabels();
+  }
+
+  @Test
+  void extractingAllValuesShouldAccessEachComponentOnce() {
+    AtomicInteger accessCount = new AtomicInteger();
+    Reflector<Trip> reflector = Reflector.custom(
+      Trip.class,
+      row -> null,
+      List.of(
+        Mapping.inline(t -> { accessCount.incrementAndGet(); return t.start(); }, COORDINATE.prefix("start_")),
+        Mapping.inline(t -> { accessCount.incrementAndGet(); return t.end(); }, COORDINATE.prefix("end_"))
+      )
+    );
+
+    Values values = reflector.values(new Trip(new Coordinate(1, 2), new Coordinate(3, 4)));
+
+    assertThat(values.getValues(0)).containsExactly(1, 2, 3, 4);
+    assertThat(accessCount).hasValue(2);
+  }
+
+  @Test
+  void gettingASingleValueShouldOnlyAccessItsComponent() {
+    AtomicInteger accessCount = new AtomicInteger();
+    Reflector<Coordinate> reflector = Reflector.custom(
+      Coordinate.class,
+      row -> null,
+      List.of(
+        Mapping.of("x", int.class, c -> { accessCount.incrementAndGet(); return c.x(); }),
+        Mapping.of("y", int.class, c -> { accessCount.incrementAndGet(); return c.y(); })
+      )
+    );
+
+    Values values = reflector.batch(new Coordinate(1, 2), new Coordinate(3, 4));
+
+    assertThat(values.getValue(1, 1)).isEqualTo(4);
+    assertThat(accessCount).hasValue(1);
+  }
+
+  @Test
+  void extractingAllValuesShouldRejectArraysWhichAreTooShort() {
+    assertThatThrownBy(() -> TRIP.nest("start", COORDINATE).nest("end", COORDINATE).columnExtractor().extractAll(new Trip(new Coordinate(1, 2), new Coordinate(3, 4)), new Object[3]))
+      .isExactlyInstanceOf(IllegalArgumentException.class)
+      .hasMessage("values must have room for all 4 columns, but its length was: 3");
+  }
+
+  @Test
+  void extractingAllValuesShouldOnlyWrapFailuresOnce() {
+    RuntimeException failure = new RuntimeException("boom");
+    Reflector<Coordinate> failing = Reflector.custom(
+      Coordinate.class,
+      row -> null,
+      List.of(Mapping.of("x", int.class, Coordinate::x), Mapping.of("y", int.class, c -> { throw failure; }))
+    );
+    Reflector<Trip> reflector = TRIP.nest("start", COORDINATE).nest("end", failing);
+
+    assertThatThrownBy(() -> reflector.values(new Trip(new Coordinate(1, 2), new Coordinate(3, 4))).getValues(0))
+      .isExactlyInstanceOf(IllegalStateException.class)
+      .hasMessage("Unable to access component 3 of Coordinate[x=3, y=4]")
+      .cause()
+      .isSameAs(failure);
+  }
+
   enum ReflectorCase {
     FLAT_CASE(
       FLAT,
@@ -409,6 +543,16 @@ public class ReflectorTest {
 
         assertThat(c.reflector.apply(row)).isEqualTo(c.nullTestObject);
       }
+
+      @ParameterizedTest
+      @EnumSource(ReflectorCase.class)
+      void shouldCreateRecordsWithBoundMapper(ReflectorCase c) {
+        Mapper<Object> mapper = c.reflector.bind();
+
+        assertThat(mapper.apply(Row.of("John", "Acme", 3, 4, "BMW;3", 1, 2, 5, 6, 49))).isEqualTo(c.testObject);
+        assertThat(mapper.apply(Row.of(null, "Acme", 3, 4, null, 1, 2, 5, 6, 49))).isEqualTo(c.nullTestObject);
+        assertThat(mapper.apply(Row.of("John", "Acme", 3, 4, "BMW;3", 1, 2, 5, 6, 49))).isEqualTo(c.testObject);
+      }
     }
   }
 
@@ -510,4 +654,19 @@ public class ReflectorTest {
   public record Company(String name, Coordinate location, Car car) {}
   public record Coordinate(int x, int y) {}
   public record Car(String brand, String type) {}
+
+  public record Primitives(int i, long l, double d, boolean b, String s) {
+    public Primitives {
+      if(i < 0) {
+        throw new IllegalArgumentException("i cannot be negative: " + i);
+      }
+    }
+  }
+
+  public record Wide(
+    int c0, long c1, double c2, String c3, int c4, long c5, double c6, String c7,
+    int c8, long c9, double c10, String c11, int c12, long c13, double c14, String c15,
+    int c16, long c17, double c18, String c19, int c20, long c21, double c22, String c23,
+    int c24, long c25, double c26, String c27, int c28, long c29, double c30, String c31
+  ) {}
 }
@@ -0,0 +1,127 @@
+package org.int4.db.core.reflect;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TypeConverterResolverTest {
+  private static final TypeConverter<Shape, String> SHAPE_CONVERTER = TypeConverter.of(String.class, Shape::name, Circle::new);
+  private static final TypeConverter<Circle, String> CIRCLE_CONVERTER = TypeConverter.of(String.class, Circle::name, Circle::new);
+  private static final TypeConverter<Named, String> NAMED_CONVERTER = TypeConverter.of(String.class, Named::name, Circle::new);
+  private static final TypeConverter<Color, String> COLOR_CONVERTER = TypeConverter.of(String.class, Color::name, Color::valueOf);
+
+  @Test
+  void shouldRejectInvalidArguments() {
+    assertThatThrownBy(() -> TypeConverterResolver.of(null)).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> TypeConverterResolver.EMPTY.resolve(null)).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> TypeConverterResolver.EMPTY.with(null, SHAPE_CONVERTER)).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> TypeConverterResolver.EMPTY.with(Shape.class, null)).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void shouldResolveExactTypeFirst() {
+    TypeConverterResolver resolver = TypeConverterResolver.of(Map.of(Shape.class, SHAPE_CONVERTER, Circle.class, CIRCLE_CONVERTER));
+
+    assertThat(resolver.resolve(Circle.class)).isSameAs(CIRCLE_CONVERTER);
+    assertThat(resolver.resolve(Shape.class)).isSameAs(SHAPE_CONVERTER);
+  }
+
+  @Test
+  void shouldResolveSuperclassBeforeInterfaces() {
+    TypeConverterResolver resolver = TypeConverterResolver.of(Map.of(Shape.class, SHAPE_CONVERTER, Named.class, NAMED_CONVERTER));
+
+    assertThat(resolver.resolve(Circle.class)).isSameAs(SHAPE_CONVERTER);
+    assertThat(resolver.resolve(Square.class)).isSameAs(SHAPE_CONVERTER);
+  }
+
+  @Test
+  void shouldResolveInterfaces() {
+    TypeConverterResolver resolver = TypeConverterResolver.of(Map.of(Named.class, NAMED_CONVERTER));
+
+    assertThat(resolver.resolve(Circle.class)).isSameAs(NAMED_CONVERTER);
+    assertThat(resolver.resolve(Shape.class)).isSameAs(NAMED_CONVERTER);
+    assertThat(resolver.resolve(Serializable.class)).isNull();
+    assertThat(resolver.resolve(String.class)).isNull();
+    assertThat(resolver.resolve(int.class)).isNull();
+  }
+
+  @Test
+  void shouldResolveEnumsAndTheirConstantsWithBodies() {
+    TypeConverterResolver resolver = TypeConverterResolver.EMPTY.with(Color.class, COLOR_CONVERTER);
+
+    assertThat(resolver.resolve(Color.class)).isSameAs(COLOR_CONVERTER);
+    assertThat(resolver.resolve(Color.RED.getClass())).isSameAs(COLOR_CONVERTER);
+    assertThat(resolver.typeConverters()).isEqualTo(Map.of(Color.class, COLOR_CONVERTER));
+  }
+
+  @Test
+  void shouldResolveAllEnumsWithEnumConverter() {
+    TypeConverter<Enum<?>, String> enumConverter = TypeConverter.of(String.class, Enum::name, s -> Color.valueOf(s));
+    TypeConverterResolver resolver = TypeConverterResolver.of(Map.of(Enum.class, enumConverter));
+
+    assertThat(resolver.resolve(Color.class)).isSameAs(enumConverter);
+    assertThat(resolver.resolve(Color.RED.getClass())).isSameAs(enumConverter);
+    assertThat(resolver.resolve(Thread.State.class)).isSameAs(enumConverter);
+  }
+
+  @Test
+  void shouldApplyResolvedConvertersInReflectors() {
+    Reflector<Drawing> reflector = Reflector.of(Drawing.class).addTypeConverter(Shape.class, SHAPE_CONVERTER);
+
+    Drawing drawing = new Drawing(new Circle("c"), 2);
+    Object[] values = new Object[2];
+
+    reflector.columnExtractor().extractAll(drawing, values);
+
+    assertThat(values).containsExactly("c", 2);
+    assertThat(reflector.columnExtractor().extract(drawing, 0)).isEqualTo("c");
+  }
+
+  interface Named {
+    String name();
+  }
+
+  public static abstract class Shape implements Named, Serializable {
+    private static final long serialVersionUID = 1L;
+  }
+
+  public static class Circle extends Shape {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    Circle(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+  }
+
+  public static class Square extends Shape {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String name() {
+      return "square";
+    }
+  }
+
+  enum Color {
+    RED {
+      @Override
+      public String toString() {
+        return "red";
+      }
+    },
+    GREEN
+  }
+
+  public record Drawing(Shape shape, int layer) {}
+}
@@ -19,19 +19,32 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 public class MockResultSet implements ResultSet {
+  private final List<String> labels;
   private final List<List<Object>> data;
 
   private int currentRow = -1;
+  private int metaDataRequests;
 
-  public MockResultSet(List<List<Object>> data) {
+  public MockResultSet(List<String> labels, List<List<Object>> data) {
+    this.labels = labels;
     this.data = data;
   }
 
+  public MockResultSet(List<List<Object>> data) {
+    this(data.isEmpty() ? List.of() : IntStream.rangeClosed(1, data.get(0).size()).mapToObj(i -> "column" + i).toList(), data);
+  }
+
+  public int getMetaDataRequests() {
+    return metaDataRequests;
+  }
+
   @Override
   public boolean next() {
     if(currentRow + 1 < data.size()) {
@@ -139,8 +152,10 @@ public class MockResultSet implements ResultSet {
   }
 
   @Override
-  public <T> T getObject(int columnIndex, Class<T> type) {
-    throw new UnsupportedOperationException();
+  public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+    checkRowAndColumn(columnIndex);
+
+    return type.cast(data.get(currentRow).get(columnIndex - 1));
   }
 
   @Override
@@ -160,7 +175,7 @@ public class MockResultSet implements ResultSet {
 
   @Override
   public void close() {
-    throw new UnsupportedOperationException();
+    // nothing to release
   }
 
   @Override
@@ -290,11 +305,13 @@ public class MockResultSet implements ResultSet {
 
   @Override
   public ResultSetMetaData getMetaData() {
+    metaDataRequests++;
+
     return new ResultSetMetaData() {
 
       @Override
       public int getColumnCount() {
-        return data.get(0).size();
+        return labels.size();
       }
 
       @Override
@@ -344,7 +361,7 @@ public class MockResultSet implements ResultSet {
 
       @Override
       public String getColumnLabel(int column) {
-        throw new UnsupportedOperationException();
+        return labels.get(column - 1);
       }
 
       @Override
@@ -359,7 +376,7 @@ public class MockResultSet implements ResultSet {
 
       @Override
       public int getPrecision(int column) {
-        throw new UnsupportedOperationException();
+        return 0;
       }
 
       @Override
@@ -379,7 +396,7 @@ public class MockResultSet implements ResultSet {
 
       @Override
       public int getColumnType(int column) {
-        throw new UnsupportedOperationException();
+        return Types.JAVA_OBJECT;
       }
 
       @Override
@@ -404,7 +421,7 @@ public class MockResultSet implements ResultSet {
 
       @Override
       public String getColumnClassName(int column) {
-        throw new UnsupportedOperationException();
+        return Object.class.getName();
       }
     };
   }
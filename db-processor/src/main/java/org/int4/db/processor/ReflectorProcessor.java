@@ -0,0 +1,284 @@
+package org.int4.db.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Generates a class holding a {@code Reflector} for each record or conforming
+ * class annotated with {@code org.int4.db.core.reflect.Reflectable}.
+ *
+ * <p>The generated reflector is created with {@code Reflector.custom}, with the
+ * names, extractors and creator written out as plain code. Names are derived
+ * the same way as {@code Reflector.of} and {@code Reflector.ofClass} derive them
+ * at runtime, and each column is read with the same getters {@code Reflector.of}
+ * uses for record components.
+ */
+@SupportedAnnotationTypes(ReflectorProcessor.ANNOTATION_NAME)
+public class ReflectorProcessor extends AbstractProcessor {
+  static final String ANNOTATION_NAME = "org.int4.db.core.reflect.Reflectable";
+
+  /*
+   * The processor cannot depend on db-core, so the name translation and the
+   * getters used for each type are duplicated from its reflect package. The
+   * tests check that both derive the same names and use the same getters.
+   */
+
+  private static final Pattern PATTERN = Pattern.compile("(?<!^)(?=[A-Z](?![A-Z]|$))|(?<=[a-z])(?![a-z]|$)");
+  private static final Map<String, String> GETTER_NAMES = Map.of(
+    "java.lang.String", "getString",
+    "boolean", "getBoolean",
+    "int", "getInt",
+    "long", "getLong",
+    "double", "getDouble",
+    "byte[]", "getBytes"
+  );
+
+  private record Field(String name, String accessor, TypeMirror type) {}
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for(TypeElement annotation : annotations) {
+      for(Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if(element instanceof TypeElement typeElement && (element.getKind() == ElementKind.RECORD || element.getKind() == ElementKind.CLASS)) {
+          process(typeElement);
+        }
+        else {
+          error(element, "@Reflectable can only be applied to records and classes");
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private void process(TypeElement typeElement) {
+    if(!typeElement.getTypeParameters().isEmpty()) {
+      error(typeElement, "@Reflectable cannot be applied to types with type parameters");
+      return;
+    }
+
+    for(Element element = typeElement; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+      if(element.getModifiers().contains(Modifier.PRIVATE)) {
+        error(typeElement, "@Reflectable types and their enclosing types cannot be private");
+        return;
+      }
+      if(element instanceof TypeElement te && te.getNestingKind() == NestingKind.MEMBER && !te.getModifiers().contains(Modifier.STATIC) && te.getKind() == ElementKind.CLASS) {
+        error(typeElement, "@Reflectable types cannot be inner classes");
+        return;
+      }
+    }
+
+    List<Field> fields = typeElement.getKind() == ElementKind.RECORD ? recordFields(typeElement) : classFields(typeElement);
+
+    if(fields == null) {
+      return;
+    }
+
+    try {
+      write(typeElement, fields);
+    }
+    catch(IOException e) {
+      error(typeElement, "unable to write reflector for " + typeElement + ": " + e.getMessage());
+    }
+  }
+
+  private static List<Field> recordFields(TypeElement typeElement) {
+    List<Field> fields = new ArrayList<>();
+
+    for(RecordComponentElement component : typeElement.getRecordComponents()) {
+      String name = component.getSimpleName().toString();
+
+      fields.add(new Field(name, name, component.asType()));
+    }
+
+    return fields;
+  }
+
+  private List<Field> classFields(TypeElement typeElement) {
+    List<ExecutableElement> bestConstructors = new ArrayList<>();
+    int maxParameters = 1;
+
+    for(ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+      if(constructor.getParameters().size() > maxParameters) {
+        bestConstructors.clear();
+        bestConstructors.add(constructor);
+        maxParameters = constructor.getParameters().size();
+      }
+      else if(constructor.getParameters().size() == maxParameters) {
+        bestConstructors.add(constructor);
+      }
+    }
+
+    if(bestConstructors.size() == 0) {
+      error(typeElement, "must have at least one constructor with one or more arguments: " + typeElement);
+      return null;
+    }
+    if(bestConstructors.size() > 1) {
+      error(typeElement, "must have a single constructor with the highest number or arguments, but found multiple: " + typeElement);
+      return null;
+    }
+
+    ExecutableElement constructor = bestConstructors.get(0);
+
+    if(constructor.getModifiers().contains(Modifier.PRIVATE)) {
+      error(constructor, "constructor " + constructor + " must not be private for: " + typeElement);
+      return null;
+    }
+
+    List<Field> fields = new ArrayList<>();
+
+    for(VariableElement parameter : constructor.getParameters()) {
+      String name = parameter.getSimpleName().toString();
+      String getterName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
+      ExecutableElement getter = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(typeElement)).stream()
+        .filter(m -> m.getSimpleName().contentEquals(getterName))
+        .filter(m -> m.getParameters().isEmpty())
+        .filter(m -> !m.getModifiers().contains(Modifier.STATIC))
+        .filter(m -> processingEnv.getTypeUtils().isSameType(m.getReturnType(), parameter.asType()))
+        .findFirst()
+        .orElse(null);
+
+      if(getter == null) {
+        error(typeElement, "unable to find getter for constructor parameter " + name + " for: " + typeElement);
+        return null;
+      }
+      if(getter.getModifiers().contains(Modifier.PRIVATE)) {
+        error(typeElement, "getter for constructor parameter " + name + " in constructor " + constructor + " must not be private for: " + typeElement);
+        return null;
+      }
+
+      fields.add(new Field(name, getterName, parameter.asType()));
+    }
+
+    return fields;
+  }
+
+  private void write(TypeElement typeElement, List<Field> fields) throws IOException {
+    PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(typeElement);
+    String packageName = packageElement.getQualifiedName().toString();
+    String typeName = typeElement.getQualifiedName().toString();
+    String simpleName = packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1);
+    String className = simpleName.replace('.', '_') + "Reflector";
+    StringBuilder sb = new StringBuilder();
+
+    if(!packageName.isEmpty()) {
+      sb.append("package ").append(packageName).append(";\n\n");
+    }
+
+    sb.append("/**\n");
+    sb.append(" * Provides a {@link org.int4.db.core.reflect.Reflector} for {@link ").append(typeName).append("}.\n");
+    sb.append(" * Generated by ").append(ReflectorProcessor.class.getName()).append(".\n");
+    sb.append(" */\n");
+    sb.append("public final class ").append(className).append(" {\n\n");
+    sb.append("  /**\n");
+    sb.append("   * A reflector for {@link ").append(typeName).append("}.\n");
+    sb.append("   */\n");
+    sb.append("  @SuppressWarnings(\"unchecked\")\n");
+    sb.append("  public static final org.int4.db.core.reflect.Reflector<").append(typeName).append("> REFLECTOR = org.int4.db.core.reflect.Reflector.custom(\n");
+    sb.append("    ").append(typeName).append(".class,\n");
+    sb.append("    row -> new ").append(typeName).append("(\n");
+
+    for(int i = 0; i < fields.size(); i++) {
+      sb.append("      ").append(read(fields.get(i).type(), i)).append(i == fields.size() - 1 ? "\n" : ",\n");
+    }
+
+    sb.append("    ),\n");
+    sb.append("    java.util.List.of(\n");
+
+    for(int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+
+      sb.append("      org.int4.db.core.reflect.Mapping.<").append(typeName).append(", ").append(boxed(field.type())).append(">of(")
+        .append('"').append(toDatabaseName(field.name())).append("\", ")
+        .append(classLiteral(field.type())).append(", ")
+        .append(typeName).append("::").append(field.accessor()).append(")")
+        .append(i == fields.size() - 1 ? "\n" : ",\n");
+    }
+
+    sb.append("    )\n");
+    sb.append("  );\n\n");
+    sb.append("  private ").append(className).append("() {\n");
+    sb.append("  }\n");
+    sb.append("}\n");
+
+    try(Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? className : packageName + "." + className, typeElement).openWriter()) {
+      writer.write(sb.toString());
+    }
+  }
+
+  private String read(TypeMirror type, int columnIndex) {
+    String getterName = GETTER_NAMES.get(erasure(type));
+
+    if(getterName != null) {
+      return "row." + getterName + "(" + columnIndex + ")";
+    }
+
+    if(type.getKind().isPrimitive() || isRaw(type)) {
+      return "row.getObject(" + columnIndex + ", " + classLiteral(type) + ")";
+    }
+
+    return "(" + type + ")row.getObject(" + columnIndex + ", " + erasure(type) + ".class)";
+  }
+
+  private String classLiteral(TypeMirror type) {
+    if(type.getKind().isPrimitive() || isRaw(type)) {
+      return erasure(type) + ".class";
+    }
+
+    return "(java.lang.Class<" + type + ">)(java.lang.Class<?>)" + erasure(type) + ".class";
+  }
+
+  private String boxed(TypeMirror type) {
+    if(type.getKind().isPrimitive()) {
+      return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+    }
+
+    return type.toString();
+  }
+
+  private boolean isRaw(TypeMirror type) {
+    return processingEnv.getTypeUtils().isSameType(type, processingEnv.getTypeUtils().erasure(type)) && type.getKind() != TypeKind.TYPEVAR;
+  }
+
+  private String erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Kind.ERROR, message, element);
+  }
+
+  private static String toDatabaseName(String javaName) {
+    return PATTERN.splitAsStream(javaName).map(part -> part.toLowerCase(Locale.ROOT)).collect(Collectors.joining("_"));
+  }
+}
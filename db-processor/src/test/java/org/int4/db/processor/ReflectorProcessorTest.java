@@ -0,0 +1,183 @@
+package org.int4.db.processor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.int4.db.core.reflect.Reflector;
+import org.int4.db.core.reflect.Row;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReflectorProcessorTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  void shouldGenerateReflectorForRecord() throws Exception {
+    Reflector<Object> reflector = compileAndLoad("test.Employee", "test.EmployeeReflector", """
+      package test;
+
+      import java.util.List;
+
+      @org.int4.db.core.reflect.Reflectable
+      public record Employee(Integer id, String name, int age, double salary, List<String> tags, byte[] picture, boolean active, long badgeId) {}
+      """);
+
+    assertThat(reflector.names()).containsExactly("id", "name", "age", "salary", "tags", "picture", "active", "badge_id");
+
+    Object employee = reflector.apply(Row.of(2, "Jane", 31, 1000.0, List.of("a"), new byte[] {1}, true, 5L));
+
+    assertThat(employee.toString()).startsWith("Employee[id=2, name=Jane, age=31, salary=1000.0, tags=[a], picture=[B@");
+    assertThat(reflector.values(employee).getValue(0, 7)).isEqualTo(5L);
+    assertThat(reflector.values(employee).getValue(0, 1)).isEqualTo("Jane");
+  }
+
+  @Test
+  void shouldGenerateReflectorForNestedRecordAndBean() throws Exception {
+    Reflector<Object> reflector = compileAndLoad("test.Company", "test.Company_LocationBeanReflector", """
+      package test;
+
+      public class Company {
+        @org.int4.db.core.reflect.Reflectable
+        public static class LocationBean {
+          private final int x;
+          private final String streetName;
+
+          public LocationBean(int x, String streetName) {
+            this.x = x;
+            this.streetName = streetName;
+          }
+
+          public LocationBean(int x) {
+            this(x, null);
+          }
+
+          public int getX() {
+            return x;
+          }
+
+          public String getStreetName() {
+            return streetName;
+          }
+
+          @Override
+          public String toString() {
+            return x + ":" + streetName;
+          }
+        }
+      }
+      """);
+
+    assertThat(reflector.names()).containsExactly("x", "street_name");
+    assertThat(reflector.apply(Row.of(3, "Main")).toString()).isEqualTo("3:Main");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldDeriveSameNamesAndGettersAsRuntimeReflector() throws Exception {
+    String diagnostics = compile("test.Names", """
+      package test;
+
+      @org.int4.db.core.reflect.Reflectable
+      public record Names(String name, String badgeID, int x2Coordinate, long httpServerError, double URLValue, boolean aB, byte[] iOS, Integer boxed) {}
+      """);
+
+    assertThat(diagnostics).isEmpty();
+
+    try(URLClassLoader loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader())) {
+      Reflector<Object> generated = (Reflector<Object>)loader.loadClass("test.NamesReflector").getField("REFLECTOR").get(null);
+      Reflector<Object> runtime = (Reflector<Object>)(Reflector<?>)Reflector.of((Class<Record>)loader.loadClass("test.Names"));
+      Row row = Row.of("a", "b", 1, 2L, 3.0, true, new byte[] {4}, 5);
+      List<String> generatedGetters = new ArrayList<>();
+      List<String> runtimeGetters = new ArrayList<>();
+
+      generated.apply(recording(row, generatedGetters));
+      runtime.apply(recording(row, runtimeGetters));
+
+      assertThat(generated.names()).isEqualTo(runtime.names());
+      assertThat(generatedGetters).isEqualTo(runtimeGetters).isNotEmpty();
+    }
+  }
+
+  @Test
+  void shouldReportErrorsForNonConformingClasses() throws Exception {
+    String diagnostics = compile("test.Broken", """
+      package test;
+
+      @org.int4.db.core.reflect.Reflectable
+      public class Broken {
+        public Broken(int x) {
+        }
+      }
+      """);
+
+    assertThat(diagnostics).contains("unable to find getter for constructor parameter x for: test.Broken");
+  }
+
+  @SuppressWarnings("unchecked")
+  private Reflector<Object> compileAndLoad(String typeName, String reflectorName, String source) throws Exception {
+    String diagnostics = compile(typeName, source);
+
+    assertThat(diagnostics).isEmpty();
+
+    try(URLClassLoader loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader())) {
+      return (Reflector<Object>)loader.loadClass(reflectorName).getField("REFLECTOR").get(null);
+    }
+  }
+
+  private String compile(String typeName, String source) throws IOException, URISyntaxException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StringWriter diagnostics = new StringWriter();
+    JavaFileObject file = new SimpleJavaFileObject(Path.of(typeName.replace('.', '/') + ".java").toUri(), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+
+    Files.createDirectories(output);
+
+    JavaCompiler.CompilationTask task = compiler.getTask(
+      diagnostics,
+      null,
+      null,
+      List.of("--release", "21", "--enable-preview", "-classpath", classPath(), "-d", output.toString(), "-Xlint:all", "-Xlint:-preview", "-Werror"),
+      null,
+      List.of(file)
+    );
+
+    task.setProcessors(List.of(new ReflectorProcessor()));
+    task.call();
+
+    return diagnostics.toString();
+  }
+
+  private static Row recording(Row row, List<String> getters) {
+    return (Row)Proxy.newProxyInstance(Row.class.getClassLoader(), new Class<?>[] {Row.class}, (proxy, method, args) -> {
+      getters.add(method.getName() + (args == null ? "" : Arrays.toString(args)));
+
+      return method.invoke(row, args);
+    });
+  }
+
+  private static String classPath() throws URISyntaxException {
+    return Path.of(Reflector.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+  }
+}
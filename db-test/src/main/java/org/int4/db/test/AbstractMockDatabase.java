@@ -10,8 +10,10 @@ import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.DatabaseStatistics;
 import org.int4.db.core.api.RetryStrategy;
 import org.int4.db.core.internal.SafeSQL;
 import org.int4.db.core.internal.bridge.Context;
@@ -99,6 +101,10 @@ abstract class AbstractMockDatabase<X extends Exception> {
     return RetryStrategy.NONE;
   }
 
+  public DatabaseStatistics statistics() {
+    return DatabaseStatistics.EMPTY;
+  }
+
   MockContext createContext(SafeSQL sql) {
     return new MockContext(sql);
   }
@@ -110,6 +116,16 @@ abstract class AbstractMockDatabase<X extends Exception> {
       this.sql = sql;
     }
 
+    @Override
+    public Context<X> withGeneratedKeys(String... columnNames) {
+      return this;
+    }
+
+    @Override
+    public Context<X> withFetchSize(int rows) {
+      return this;
+    }
+
     @Override
     public void execute() throws X {
       String statement = sql.getSQL();
@@ -172,5 +188,29 @@ abstract class AbstractMockDatabase<X extends Exception> {
 
       return false;
     }
+
+    @Override
+    public <T> Stream<T> stream(Function<SQLResult, Iterator<Row>> resultExtractor, Function<Row, T> mapper) throws X {
+      String statement = sql.getSQL();
+
+      for(Pattern pattern : queryMocks.keySet()) {
+        if(pattern.matcher(statement).matches()) {
+          LOGGER.log(Level.INFO, "Mocking query: '" + pattern + "' matched '" + statement + "'");
+
+          return queryMocks.get(pattern).get().stream().map(row -> {
+            try {
+              return mapper.apply(row);
+            }
+            catch(RowAccessException e) {
+              throw new DatabaseException("execution failed for: " + statement, e.unwrap());
+            }
+          });
+        }
+      }
+
+      LOGGER.log(Level.WARNING, "No mock defined for: '" + statement + "'");
+
+      return Stream.empty();
+    }
   }
 }
@@ -2,13 +2,20 @@ package org.int4.db.test;
 
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.int4.db.core.api.CheckedDatabase;
+import org.int4.db.core.api.CheckedParallelQuery;
 import org.int4.db.core.api.CheckedTransaction;
 import org.int4.db.core.api.TransactionResult;
 import org.int4.db.core.fluent.StatementNode;
 import org.int4.db.core.internal.SafeSQL;
+import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
+import org.int4.db.core.util.ThrowingFunction;
 
 /**
  * A database which can return mocked responses when SQL statements match a
@@ -21,6 +28,61 @@ public class MockCheckedDatabase extends AbstractMockDatabase<SQLException> impl
     return new InternalTransaction();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This mock runs each forked operation immediately on the calling thread,
+   * and ignores {@code sharedSnapshot}. Failures are thrown when joining.
+   */
+  @Override
+  public <R> R queryInParallel(ThrowingFunction<CheckedParallelQuery, R, SQLException> operation, boolean sharedSnapshot) throws SQLException {
+    Objects.requireNonNull(operation, "operation");
+
+    CheckedParallelQuery parallelQuery = new CheckedParallelQuery() {
+      private SQLException failure;
+
+      @Override
+      public <T> Supplier<T> fork(ThrowingFunction<CheckedTransaction, T, SQLException> forkedOperation) {
+        Objects.requireNonNull(forkedOperation, "operation");
+
+        try {
+          T result = query(forkedOperation);
+
+          return () -> result;
+        }
+        catch(SQLException e) {
+          if(failure == null) {
+            failure = e;
+          }
+          else {
+            failure.addSuppressed(e);
+          }
+
+          return () -> {
+            throw new IllegalStateException("Operation failed", e);
+          };
+        }
+      }
+
+      @Override
+      public void join() throws SQLException {
+        SQLException e = failure;
+
+        failure = null;  // only reported once
+
+        if(e != null) {
+          throw e;
+        }
+      }
+    };
+
+    R result = operation.apply(parallelQuery);
+
+    parallelQuery.join();
+
+    return result;
+  }
+
   @Override
   public SQLException unwrap(SQLException exception) {
     return exception;
@@ -51,6 +113,11 @@ public class MockCheckedDatabase extends AbstractMockDatabase<SQLException> impl
     public void close() {
     }
 
+    @Override
+    public <T> long copyIn(Identifier table, Extractor<T> extractor, Stream<T> rows) {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public StatementNode<SQLException> process(StringTemplate stringTemplate) {
       return new StatementNode<>(createContext(new SafeSQL(stringTemplate, Map.of())));
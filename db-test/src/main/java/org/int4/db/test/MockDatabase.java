@@ -2,14 +2,21 @@ package org.int4.db.test;
 
 import java.sql.SQLException;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.int4.db.core.api.Database;
 import org.int4.db.core.api.DatabaseException;
+import org.int4.db.core.api.ParallelQuery;
 import org.int4.db.core.api.Transaction;
 import org.int4.db.core.api.TransactionResult;
 import org.int4.db.core.fluent.StatementNode;
 import org.int4.db.core.internal.SafeSQL;
+import org.int4.db.core.reflect.Extractor;
+import org.int4.db.core.reflect.Identifier;
+import org.int4.db.core.util.ThrowingFunction;
 
 /**
  * A database which can return mocked responses when SQL statements match a
@@ -22,6 +29,30 @@ public class MockDatabase extends AbstractMockDatabase<DatabaseException> implem
     return new InternalTransaction();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This mock runs each forked operation immediately on the calling thread,
+   * and ignores {@code sharedSnapshot}.
+   */
+  @Override
+  public <R> R queryInParallel(ThrowingFunction<ParallelQuery, R, DatabaseException> operation, boolean sharedSnapshot) throws DatabaseException {
+    Objects.requireNonNull(operation, "operation");
+
+    return operation.apply(new ParallelQuery() {
+      @Override
+      public <T> Supplier<T> fork(ThrowingFunction<Transaction, T, DatabaseException> forkedOperation) {
+        T result = query(Objects.requireNonNull(forkedOperation, "operation"));
+
+        return () -> result;
+      }
+
+      @Override
+      public void join() {
+      }
+    });
+  }
+
   @Override
   public SQLException unwrap(DatabaseException exception) {
     return exception.getSQLException();
@@ -52,6 +83,11 @@ public class MockDatabase extends AbstractMockDatabase<DatabaseException> implem
     public void close() throws DatabaseException {
     }
 
+    @Override
+    public <T> long copyIn(Identifier table, Extractor<T> extractor, Stream<T> rows) throws DatabaseException {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public StatementNode<DatabaseException> process(StringTemplate stringTemplate) throws DatabaseException {
       return new StatementNode<>(createContext(new SafeSQL(stringTemplate, Map.of())));